@@ -0,0 +1,107 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks comparing league-wide aggregations over {@link TeamMember} objects with the same
+ * aggregations over a {@link ColumnarPlayerStore}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarPlayerStoreBenchmark {
+
+  /**
+   * The number of players in the league.
+   */
+  @Param({"100000", "1000000"})
+  public int playerCount;
+
+  private final LocalDate asOf = LocalDate.now();
+  private List<TeamMember> players;
+  private ColumnarPlayerStore store;
+
+  /**
+   * Creates the players and loads them into the column store, 20 players per team.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    players = new ArrayList<>(playerCount);
+    store = new ColumnarPlayerStore();
+    for (int i = 0; i < playerCount; i++) {
+      TeamMember player = new TeamMember("First" + random.nextInt(500),
+          "Last" + random.nextInt(5000), asOf.minusDays(random.nextInt(3650)),
+          Position.values()[random.nextInt(4)], SkillLevel.values()[random.nextInt(5)]);
+      players.add(player);
+      store.addPlayer("Team " + i / 20, player);
+    }
+  }
+
+  /**
+   * Counts players by position and skill level from the player objects.
+   *
+   * @return the histogram
+   */
+  @Benchmark
+  public int[][] skillHistogramObjects() {
+    int[][] histogram = new int[Position.values().length][SkillLevel.values().length];
+    for (TeamMember player : players) {
+      histogram[player.getPreferredPosition().ordinal()][player.getSkillLevel().ordinal()]++;
+    }
+    return histogram;
+  }
+
+  /**
+   * Counts players by position and skill level from the columns.
+   *
+   * @return the histogram
+   */
+  @Benchmark
+  public int[][] skillHistogramColumns() {
+    return store.skillHistogramByPosition();
+  }
+
+  /**
+   * Counts players by age from the player objects.
+   *
+   * @return the age distribution
+   */
+  @Benchmark
+  public int[] ageDistributionObjects() {
+    int[] counts = new int[11];
+    for (TeamMember player : players) {
+      counts[Math.min(10, player.getAge(asOf))]++;
+    }
+    return counts;
+  }
+
+  /**
+   * Counts players by age from the columns.
+   *
+   * @return the age distribution
+   */
+  @Benchmark
+  public int[] ageDistributionColumns() {
+    return store.ageDistribution(asOf, 10);
+  }
+}
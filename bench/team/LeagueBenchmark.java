@@ -0,0 +1,148 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for a {@link League} shared by all benchmark threads. {@link #register()} routes
+ * players to random teams and should scale close to linearly with the number of threads;
+ * {@link #startingLineups()} measures a league-wide fork/join operation, and {@link #query()}
+ * compares with {@link #scan()} a league-wide report run as a parallel {@link PlayerQuery} and as
+ * a scan over every team's {@link Team#getAllPlayers()}. Running
+ * {@link #main(String[])} repeats the benchmarks with 1, 2, 4, ... threads up to the number of
+ * available processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeagueBenchmark {
+  private static final String[] LAST_NAMES = {"Adams", "Brown", "Clark", "Doe", "Evans", "Ford"};
+
+  /**
+   * The number of teams in the league.
+   */
+  @Param({"2000"})
+  public int teamCount;
+
+  private League league;
+  private String[] teamNames;
+  private LocalDate birthDate;
+
+  /**
+   * Creates a league whose teams are all full, so that registrations evict or reject players and
+   * the league stays the same size.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    league = new League();
+    teamNames = new String[teamCount];
+    birthDate = LocalDate.now().minusYears(8);
+    for (int t = 0; t < teamCount; t++) {
+      teamNames[t] = "Team " + t;
+      league.registerTeam(teamNames[t], new SoccerTeam());
+      for (int i = 0; i < 20; i++) {
+        league.addPlayer(teamNames[t], newPlayer(ThreadLocalRandom.current()));
+      }
+    }
+  }
+
+  /**
+   * Registers a random player with a random team.
+   *
+   * @return the result message
+   */
+  @Benchmark
+  public String register() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return league.addPlayer(teamNames[random.nextInt(teamNames.length)], newPlayer(random));
+  }
+
+  /**
+   * Collects the starting lineup of every team.
+   *
+   * @return the lineups by team name
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public Map<String, List<TeamMember>> startingLineups() {
+    return league.getStartingLineups();
+  }
+
+  /**
+   * Counts the goalies aged 8 or younger at level 4 or above with a parallel query.
+   *
+   * @return the number of matching players
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public long query() {
+    return league.query().atPosition(Position.GOALIE).agedBetween(0, 8, LocalDate.now())
+        .withSkillAtLeast(SkillLevel.LEVEL_4).parallelStream().count();
+  }
+
+  /**
+   * Counts the same players as {@link #query()} by filtering every team's roster.
+   *
+   * @return the number of matching players
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public long scan() {
+    long count = 0;
+    for (String name : league.getTeamNames()) {
+      for (TeamMember player : league.getTeam(name).getAllPlayers()) {
+        if (player.getPreferredPosition() == Position.GOALIE && player.getAge() <= 8
+            && player.getSkillLevel().compareTo(SkillLevel.LEVEL_4) >= 0) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Runs the benchmarks with a growing number of threads.
+   *
+   * @param args not used
+   * @throws RunnerException if JMH fails to run the benchmarks
+   */
+  public static void main(String[] args) throws RunnerException {
+    int processors = Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= processors; threads = threads < processors
+        ? Math.min(threads * 2, processors) : threads + 1) {
+      Options options = new OptionsBuilder()
+          .include(LeagueBenchmark.class.getSimpleName())
+          .threads(threads)
+          .build();
+      new Runner(options).run();
+    }
+  }
+
+  private TeamMember newPlayer(ThreadLocalRandom random) {
+    return new TeamMember("First" + random.nextInt(100), LAST_NAMES[random.nextInt(6)], birthDate,
+        Position.values()[random.nextInt(Position.values().length)],
+        SkillLevel.values()[random.nextInt(SkillLevel.values().length)]);
+  }
+}
@@ -0,0 +1,169 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks comparing the built-in greedy lineup selection with {@link OptimalLineup}, for
+ * each standard formation and for squads up to 40 players. Both are measured by selecting the
+ * lineup of a full team again; {@link #solveOnly()} measures the assignment solver on its own.
+ * Running {@link #main(String[])} also prints how much total lineup value the optimal strategy
+ * gains over the greedy one on the benchmark squads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineupStrategyBenchmark {
+
+  /**
+   * The formation the team plays.
+   */
+  @Param({"SEVEN_A_SIDE", "NINE_A_SIDE", "ELEVEN_A_SIDE"})
+  public String formation;
+
+  /**
+   * The number of players in the squad.
+   */
+  @Param({"20", "40"})
+  public int squadSize;
+
+  private final OptimalLineup optimal = new OptimalLineup();
+  private SoccerTeam team;
+  private List<TeamMember> rankedPlayers;
+  private List<TeamMember> lineup;
+  private Formation lineupFormation;
+
+  /**
+   * Creates a full squad with random positions and skill levels.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    lineupFormation = formationNamed(formation);
+    team = newSquad(lineupFormation, squadSize, new Random(42));
+    rankedPlayers = new ArrayList<>(team.roster());
+    rankedPlayers.sort((a, b) -> b.getSkillLevel().compareTo(a.getSkillLevel()));
+    lineup = new ArrayList<>(lineupFormation.getLineupSize());
+  }
+
+  /**
+   * Selects the lineup again with the built-in greedy selection.
+   *
+   * @return the team's roster version
+   */
+  @Benchmark
+  public long greedy() {
+    team.setLineupStrategy(null);
+    return team.getSnapshot().getVersion();
+  }
+
+  /**
+   * Selects the lineup again with the optimal strategy.
+   *
+   * @return the team's roster version
+   */
+  @Benchmark
+  public long optimal() {
+    team.setLineupStrategy(optimal);
+    return team.getSnapshot().getVersion();
+  }
+
+  /**
+   * Runs the assignment solver on an already ranked squad, without the team around it.
+   *
+   * @return the selected lineup
+   */
+  @Benchmark
+  public List<TeamMember> solveOnly() {
+    lineup.clear();
+    optimal.selectLineup(rankedPlayers, lineupFormation, lineup);
+    return lineup;
+  }
+
+  /**
+   * Prints the lineup value gained by the optimal strategy and runs all benchmarks with the GC
+   * profiler.
+   *
+   * @param args not used
+   * @throws RunnerException if JMH fails to run the benchmarks
+   */
+  public static void main(String[] args) throws RunnerException {
+    OptimalLineup optimal = new OptimalLineup();
+    for (String name : new String[] {"SEVEN_A_SIDE", "NINE_A_SIDE", "ELEVEN_A_SIDE"}) {
+      for (int squadSize : new int[] {20, 40}) {
+        Random random = new Random(1);
+        long greedyTotal = 0;
+        long optimalTotal = 0;
+        for (int i = 0; i < 1000; i++) {
+          SoccerTeam squad = newSquad(formationNamed(name), squadSize, random);
+          greedyTotal += totalValue(squad.getStartingLineup(), optimal);
+          squad.setLineupStrategy(optimal);
+          optimalTotal += totalValue(squad.getStartingLineup(), optimal);
+        }
+        System.out.printf("%s, %d players: greedy %.2f, optimal %.2f average lineup value%n",
+            name, squadSize, greedyTotal / 1000.0, optimalTotal / 1000.0);
+      }
+    }
+
+    Options options = new OptionsBuilder()
+        .include(LineupStrategyBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+
+  private static Formation formationNamed(String name) {
+    switch (name) {
+      case "NINE_A_SIDE":
+        return Formation.NINE_A_SIDE;
+      case "ELEVEN_A_SIDE":
+        return Formation.ELEVEN_A_SIDE;
+      default:
+        return Formation.SEVEN_A_SIDE;
+    }
+  }
+
+  private static SoccerTeam newSquad(Formation formation, int squadSize, Random random) {
+    SoccerTeam squad = new SoccerTeam(formation, Math.min(formation.getMinimumPlayers(), squadSize),
+        squadSize, false, new JerseyNumberAllocator(1, 99));
+    List<TeamMember> players = new ArrayList<>(squadSize);
+    for (int i = 0; i < squadSize; i++) {
+      players.add(new TeamMember("First" + i, "Last" + random.nextInt(50),
+          LocalDate.now().minusDays(800 + random.nextInt(2400)),
+          Position.values()[random.nextInt(Position.values().length)],
+          SkillLevel.values()[random.nextInt(SkillLevel.values().length)]));
+    }
+    squad.addPlayers(players);
+    return squad;
+  }
+
+  private static int totalValue(List<TeamMember> lineup, OptimalLineup strategy) {
+    int total = 0;
+    for (TeamMember player : lineup) {
+      total += strategy.valueOf(player, player.getActualPosition());
+    }
+    return total;
+  }
+}
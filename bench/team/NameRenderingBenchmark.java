@@ -0,0 +1,127 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for rendering and sorting rosters, whose allocation rate shows the effect of the
+ * interned names and the cached full names and descriptions. Running {@link #main(String[])}
+ * first prints the heap used by a million players whose names were read as separate strings, then
+ * runs the benchmarks with the GC profiler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameRenderingBenchmark {
+  private SoccerTeam team;
+  private StringBuilder text;
+
+  /**
+   * Creates a full team.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    team = new SoccerTeam();
+    team.addPlayers(newPlayers(20, new Random(42)));
+    text = new StringBuilder();
+  }
+
+  /**
+   * Renders every player of the roster, as the roster view does.
+   *
+   * @return the length of the rendered text
+   */
+  @Benchmark
+  public int renderRoster() {
+    text.setLength(0);
+    for (TeamMember player : team.getAllPlayers()) {
+      text.append(player).append('\n');
+    }
+    return text.length();
+  }
+
+  /**
+   * Renders the full names of the starting lineup.
+   *
+   * @return the length of the rendered text
+   */
+  @Benchmark
+  public int renderLineupNames() {
+    text.setLength(0);
+    for (TeamMember player : team.getStartingLineup()) {
+      text.append(player.getFullName()).append('\n');
+    }
+    return text.length();
+  }
+
+  /**
+   * Sorts a copy of the roster by last name.
+   *
+   * @return the sorted players
+   */
+  @Benchmark
+  public List<TeamMember> sortByLastName() {
+    List<TeamMember> players = new ArrayList<>(team.roster());
+    players.sort((a, b) -> a.getLastName().compareTo(b.getLastName()));
+    return players;
+  }
+
+  /**
+   * Prints the heap footprint of a million players and runs the benchmarks.
+   *
+   * @param args not used
+   * @throws RunnerException if JMH fails to run the benchmarks
+   */
+  public static void main(String[] args) throws RunnerException {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    long before = runtime.totalMemory() - runtime.freeMemory();
+    List<TeamMember> players = newPlayers(1_000_000, new Random(1));
+    System.gc();
+    long after = runtime.totalMemory() - runtime.freeMemory();
+    System.out.printf("%d players use %.1f MB, %.1f bytes each%n", players.size(),
+        (after - before) / 1e6, (after - before) / (double) players.size());
+
+    Options options = new OptionsBuilder()
+        .include(NameRenderingBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+
+  /**
+   * Creates players whose names are new strings, as if they had been read from a form or a file.
+   */
+  private static List<TeamMember> newPlayers(int count, Random random) {
+    LocalDate today = LocalDate.now();
+    List<TeamMember> players = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      players.add(new TeamMember(new String("First" + random.nextInt(2000)),
+          new String("Last" + random.nextInt(5000)), today.minusDays(800 + random.nextInt(2400)),
+          Position.values()[random.nextInt(4)], SkillLevel.values()[random.nextInt(5)]));
+    }
+    return players;
+  }
+}
@@ -0,0 +1,60 @@
+package team;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how fast a {@link RosterJournal} recovers. A journal is filled with random players for
+ * many teams, closed, and then opened again; the time spent replaying the log is reported as events
+ * per second.
+ * <p>
+ * Usage: {@code java team.RecoveryBenchmark [teams] [players per team] [checkpoint interval]}
+ */
+public class RecoveryBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of teams, the number of players added to each team and the checkpoint
+   *             interval, all optional
+   * @throws IOException if the journal cannot be written or read
+   */
+  public static void main(String[] args) throws IOException {
+    int teamCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+    int playersPerTeam = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    int checkpointInterval = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+    Path directory = Files.createTempDirectory("recovery-benchmark");
+    Random random = new Random(1);
+
+    long writeStart = System.nanoTime();
+    try (RosterJournal journal = RosterJournal.open(directory, checkpointInterval)) {
+      for (int t = 0; t < teamCount; t++) {
+        Team team = journal.createTeam("Team " + t, new SoccerTeam());
+        List<TeamMember> players = new ArrayList<>(playersPerTeam);
+        for (int i = 0; i < playersPerTeam; i++) {
+          players.add(new TeamMember("First" + random.nextInt(500), "Last" + random.nextInt(2000),
+              LocalDate.now().minusDays(1000 + random.nextInt(2000)),
+              Position.values()[random.nextInt(4)], SkillLevel.values()[random.nextInt(5)]));
+        }
+        team.addPlayers(players);
+      }
+      System.out.printf("wrote %d teams in %.1f ms with %d syncs%n", teamCount,
+          (System.nanoTime() - writeStart) / 1e6, journal.getSyncCount());
+    }
+
+    for (int run = 0; run < 5; run++) {
+      try (RosterJournal journal = RosterJournal.open(directory, 0)) {
+        long events = journal.getReplayedEvents();
+        double seconds = journal.getReplayNanos() / 1e9;
+        System.out.printf("run %d: recovered %d teams, replayed %d events in %.1f ms"
+            + " (%.0f events/s)%n", run, journal.getTeamNames().size(), events, seconds * 1e3,
+            events / seconds);
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for a season rollover at league scale. Every team is full, and a cutoff date one
+ * year ahead makes about a sixth of the players ineligible. {@link #findIneligible()} measures the
+ * read-only preview; {@link #removeIneligible(FreshLeague)} measures the rollover itself on a league
+ * that is built again before every invocation, since a rollover can only remove players once.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeasonRolloverBenchmark {
+
+  /**
+   * The number of teams in the league.
+   */
+  @Param({"2000", "10000"})
+  public int teamCount;
+
+  private League league;
+  private LocalDate cutoff;
+
+  /**
+   * Creates the league that the preview runs on.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    cutoff = LocalDate.now().plusYears(1);
+    league = newLeague(teamCount);
+  }
+
+  /**
+   * Finds the ineligible players of every team without removing them.
+   *
+   * @return the ineligible players by team name
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public Map<String, List<TeamMember>> findIneligible() {
+    return league.findIneligiblePlayers(cutoff);
+  }
+
+  /**
+   * Removes the ineligible players of every team and selects the starting lineups again.
+   *
+   * @param fresh a league that has not been rolled over yet
+   * @return the removed players by team name
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Measurement(iterations = 20)
+  public Map<String, List<TeamMember>> removeIneligible(FreshLeague fresh) {
+    return fresh.league.removeIneligiblePlayers(cutoff);
+  }
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args not used
+   * @throws RunnerException if JMH fails to run the benchmarks
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(SeasonRolloverBenchmark.class.getSimpleName())
+        .build();
+    new Runner(options).run();
+  }
+
+  /**
+   * Creates a league of full teams whose players are 4 to 9 years old today.
+   */
+  private static League newLeague(int teamCount) {
+    Random random = new Random(7);
+    LocalDate today = LocalDate.now();
+    League league = new League();
+    for (int t = 0; t < teamCount; t++) {
+      String name = "Team " + t;
+      league.registerTeam(name, new SoccerTeam());
+      for (int i = 0; i < 20; i++) {
+        league.addPlayer(name, new TeamMember("First" + random.nextInt(100),
+            "Last" + random.nextInt(500), today.minusYears(4).minusDays(random.nextInt(365 * 6)),
+            Position.values()[random.nextInt(Position.values().length)],
+            SkillLevel.values()[random.nextInt(SkillLevel.values().length)]));
+      }
+    }
+    return league;
+  }
+
+  /**
+   * A league that is built again before each invocation of {@link #removeIneligible}.
+   */
+  @State(Scope.Thread)
+  public static class FreshLeague {
+    private League league;
+
+    /**
+     * Builds the league.
+     *
+     * @param benchmark the benchmark state, for the number of teams
+     */
+    @Setup(Level.Invocation)
+    public void setUp(SeasonRolloverBenchmark benchmark) {
+      league = newLeague(benchmark.teamCount);
+    }
+  }
+}
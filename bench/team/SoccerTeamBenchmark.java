@@ -0,0 +1,267 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the hot paths of the team model. They are compiled with JMH's annotation
+ * processor and run as described under "Benchmarks" in the README; running {@link #main(String[])}
+ * executes all of them with the GC profiler, which reports the allocation rate of each benchmark
+ * next to its time.
+ * <p>
+ * {@code rosterSize} selects the regime of {@link SoccerTeam#addPlayer}: below the minimum number
+ * of players (5), a growing team with a starting lineup (15) and a full team where every add
+ * evicts or rejects a player (20). {@link #addPlayerToFormedTeam()} always runs on a full team.
+ * {@code skills} selects how skill levels are distributed over the players, which changes how many
+ * ties the lineup selection and eviction have to break.
+ * <p>
+ * {@link #addPlayer()} and {@link #addPlayerAndGetStartingLineup()} change the team they run on,
+ * so each call needs a fresh team of {@code rosterSize} players. Rebuilding one before every call
+ * would cost far more than the call itself and distort its timing, so they run in single-shot mode
+ * instead: each measured shot is a batch of {@value #BATCH} calls, one per team of a pool that is
+ * built before the iteration. Their scores are reported in microseconds per batch, which reads as
+ * nanoseconds per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoccerTeamBenchmark {
+  private static final int CANDIDATES = 1024;
+  private static final int BATCH = 1000;
+  private static final int FULL_ROSTER = Formation.SEVEN_A_SIDE.getMaximumPlayers();
+
+  /**
+   * The number of players on the team before the measured operation.
+   */
+  @Param({"5", "15", "20"})
+  public int rosterSize;
+
+  /**
+   * How skill levels are distributed over the players: {@code UNIFORM} draws every level with the
+   * same probability, {@code SKEWED} draws mostly low levels and {@code EQUAL} gives every player
+   * the same level.
+   */
+  @Param({"UNIFORM", "SKEWED", "EQUAL"})
+  public String skills;
+
+  /**
+   * Whether the team keeps its starting lineup incrementally instead of selecting it greedily.
+   */
+  @Param({"false", "true"})
+  public boolean incremental;
+
+  private List<TeamMember> roster;
+  private TeamMember[] candidates;
+  private int nextCandidate;
+  private SoccerTeam[] teams;
+  private int nextTeam;
+  private SoccerTeam formedTeam;
+  private SoccerTeam fullTeam;
+  private JerseyNumberAllocator jerseyNumbers;
+  private BasePlayer player;
+
+  /**
+   * Creates the players, a team with {@code rosterSize} of them for the read benchmarks and a full
+   * team for {@link #addPlayerToFormedTeam()}.
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    Random random = new Random(42);
+    List<TeamMember> players = new ArrayList<>(FULL_ROSTER);
+    for (int i = 0; i < FULL_ROSTER; i++) {
+      players.add(newPlayer(random, i));
+    }
+    roster = players.subList(0, rosterSize);
+    candidates = new TeamMember[CANDIDATES];
+    for (int i = 0; i < CANDIDATES; i++) {
+      candidates[i] = newPlayer(random, FULL_ROSTER + i);
+    }
+    formedTeam = newTeam(roster);
+    fullTeam = newTeam(players);
+    jerseyNumbers = new JerseyNumberAllocator(1, 99, 42);
+    player = roster.get(0);
+  }
+
+  /**
+   * Builds a pool of {@value #BATCH} fresh teams with {@code rosterSize} players before every
+   * iteration, one for each call of a batch, so that the below-minimum and growing regimes do not
+   * drift into the full one. The setup is not measured.
+   */
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    teams = new SoccerTeam[BATCH];
+    for (int i = 0; i < BATCH; i++) {
+      teams[i] = newTeam(roster);
+    }
+    nextTeam = 0;
+  }
+
+  /**
+   * Adds one player to a team of {@code rosterSize} players, including the starting lineup update.
+   *
+   * @return the result message
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 20, batchSize = BATCH)
+  @Measurement(iterations = 50, batchSize = BATCH)
+  public String addPlayer() {
+    return freshTeam().addPlayer(nextCandidate());
+  }
+
+  /**
+   * Adds one player to a team that is full whatever the {@code rosterSize}, so every call evicts a
+   * player or rejects the new one and selects the starting lineup again. No per-invocation setup
+   * is involved.
+   *
+   * @return the result message
+   */
+  @Benchmark
+  public String addPlayerToFormedTeam() {
+    return fullTeam.addPlayer(nextCandidate());
+  }
+
+  /**
+   * Adds one player to a team and then reads the starting lineup, so the lineup selection and the
+   * snapshot it is published in are both measured.
+   *
+   * @return the starting lineup, or {@code null} if the team has too few players
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 20, batchSize = BATCH)
+  @Measurement(iterations = 50, batchSize = BATCH)
+  public List<TeamMember> addPlayerAndGetStartingLineup() {
+    SoccerTeam team = freshTeam();
+    team.addPlayer(nextCandidate());
+    return team.getSnapshot().hasStartingLineup() ? team.getStartingLineup() : null;
+  }
+
+  /**
+   * Reads all players of an unchanged team.
+   *
+   * @return the players
+   */
+  @Benchmark
+  public List<TeamMember> getAllPlayers() {
+    return formedTeam.getAllPlayers();
+  }
+
+  /**
+   * Reads the starting lineup of an unchanged team.
+   *
+   * @return the starting lineup, or {@code null} if the team has too few players
+   */
+  @Benchmark
+  public List<TeamMember> getStartingLineup() {
+    return formedTeam.getSnapshot().hasStartingLineup() ? formedTeam.getStartingLineup() : null;
+  }
+
+  /**
+   * Computes the age of a player as of today.
+   *
+   * @return the age
+   */
+  @Benchmark
+  public int getAge() {
+    return player.getAge();
+  }
+
+  /**
+   * Assigns a random jersey number and returns it to the pool.
+   *
+   * @return the assigned jersey number
+   */
+  @Benchmark
+  public int allocateJerseyNumber() {
+    int number = jerseyNumbers.allocate();
+    jerseyNumbers.release(number);
+    return number;
+  }
+
+  /**
+   * Runs all benchmarks with the GC profiler.
+   *
+   * @param args not used
+   * @throws RunnerException if JMH fails to run the benchmarks
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(SoccerTeamBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+
+  /**
+   * Returns the next unused team of the pool.
+   */
+  private SoccerTeam freshTeam() {
+    return teams[nextTeam++];
+  }
+
+  private SoccerTeam newTeam(List<TeamMember> members) {
+    SoccerTeam newTeam = new SoccerTeam(incremental,
+        new JerseyNumberAllocator(1, FULL_ROSTER, 42));
+    for (TeamMember member : members) {
+      newTeam.addPlayer(copy(member));
+    }
+    return newTeam;
+  }
+
+  /**
+   * Returns a new copy of the next candidate, since a player carries its roster position and jersey
+   * number and cannot join several teams. The copy is part of the measured work, as it would be
+   * for a registration.
+   */
+  private TeamMember nextCandidate() {
+    TeamMember candidate = candidates[nextCandidate];
+    nextCandidate = (nextCandidate + 1) % CANDIDATES;
+    return copy(candidate);
+  }
+
+  private static TeamMember copy(TeamMember player) {
+    return new TeamMember(player.getFirstName(), player.getLastName(), player.getBirthDate(),
+        player.getPreferredPosition(), player.getSkillLevel());
+  }
+
+  private TeamMember newPlayer(Random random, int index) {
+    SkillLevel[] levels = SkillLevel.values();
+    SkillLevel skillLevel;
+    if ("EQUAL".equals(skills)) {
+      skillLevel = levels[levels.length / 2];
+    } else if ("SKEWED".equals(skills)) {
+      skillLevel = levels[Math.min(levels.length - 1, (int) Math.abs(random.nextGaussian() * 1.2))];
+    } else {
+      skillLevel = levels[random.nextInt(levels.length)];
+    }
+    return new TeamMember("First" + index, "Last" + random.nextInt(50),
+        LocalDate.now().minusDays(800 + random.nextInt(2400)),
+        Position.values()[random.nextInt(Position.values().length)], skillLevel);
+  }
+}
@@ -0,0 +1,78 @@
+package team;
+
+/**
+ * Implements the attributes of {@link TeamMetricsMXBean} on top of two lookups, one for counters
+ * and one for latencies, so the metrics of a single team and the league-wide view that combines
+ * them publish exactly the same attributes.
+ */
+abstract class AbstractTeamMetrics implements TeamMetricsMXBean {
+  /**
+   * The timed operations.
+   */
+  enum Operation {
+    ADD_PLAYER, ADD_PLAYERS, LINEUP_SELECTION, EVICTION, GET_ALL_PLAYERS, LOCK_WAIT
+  }
+
+  /**
+   * The counted outcomes of adding a player.
+   */
+  enum Outcome {
+    ADDED, REJECTED_FOR_AGE, REJECTED_FOR_FULL_ROSTER, EVICTED
+  }
+
+  /**
+   * Returns the number of times the given outcome occurred.
+   *
+   * @param outcome the outcome
+   * @return the count
+   */
+  abstract long count(Outcome outcome);
+
+  /**
+   * Returns the latencies of the given operation.
+   *
+   * @param operation the operation
+   * @return the latency summary
+   */
+  abstract LatencyHistogram.Summary latency(Operation operation);
+
+  @Override public long getPlayersAdded() {
+    return count(Outcome.ADDED);
+  }
+
+  @Override public long getPlayersRejectedForAge() {
+    return count(Outcome.REJECTED_FOR_AGE);
+  }
+
+  @Override public long getPlayersRejectedForFullRoster() {
+    return count(Outcome.REJECTED_FOR_FULL_ROSTER);
+  }
+
+  @Override public long getPlayersEvicted() {
+    return count(Outcome.EVICTED);
+  }
+
+  @Override public LatencyHistogram.Summary getAddPlayerLatency() {
+    return latency(Operation.ADD_PLAYER);
+  }
+
+  @Override public LatencyHistogram.Summary getAddPlayersLatency() {
+    return latency(Operation.ADD_PLAYERS);
+  }
+
+  @Override public LatencyHistogram.Summary getLineupSelectionLatency() {
+    return latency(Operation.LINEUP_SELECTION);
+  }
+
+  @Override public LatencyHistogram.Summary getEvictionLatency() {
+    return latency(Operation.EVICTION);
+  }
+
+  @Override public LatencyHistogram.Summary getGetAllPlayersLatency() {
+    return latency(Operation.GET_ALL_PLAYERS);
+  }
+
+  @Override public LatencyHistogram.Summary getLockWaitLatency() {
+    return latency(Operation.LOCK_WAIT);
+  }
+}
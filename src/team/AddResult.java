@@ -0,0 +1,73 @@
+package team;
+
+/**
+ * The result of adding one player to a team: what happened to the player, and the message that
+ * {@link Team#addPlayer(TeamMember)} returns for it. Callers that act on the result, such as
+ * {@link RosterImporter}, should look at the {@link Outcome} rather than at the wording of the
+ * message.
+ */
+public final class AddResult {
+  private final Outcome outcome;
+  private final String message;
+
+  /**
+   * What happened to a player passed to a team. The player is on the roster after {@code ADDED},
+   * and also after {@code ADDED_BEFORE_TEAM_FORMED}, when the team does not have the minimum number
+   * of players yet. The player is turned away as {@code ALREADY_ON_TEAM}, {@code TOO_OLD}, or
+   * {@code ROSTER_FULL} when the roster is full of players with a higher or equal skill level.
+   */
+  public enum Outcome {
+    ADDED, ADDED_BEFORE_TEAM_FORMED, ALREADY_ON_TEAM, TOO_OLD, ROSTER_FULL;
+
+    /**
+     * Returns whether the player is on the roster after this outcome.
+     *
+     * @return {@code true} for {@link #ADDED} and {@link #ADDED_BEFORE_TEAM_FORMED}
+     */
+    public boolean isAdded() {
+      return this == ADDED || this == ADDED_BEFORE_TEAM_FORMED;
+    }
+  }
+
+  /**
+   * Constructs a result.
+   *
+   * @param outcome what happened to the player
+   * @param message the message describing it
+   */
+  public AddResult(Outcome outcome, String message) {
+    this.outcome = outcome;
+    this.message = message;
+  }
+
+  /**
+   * Returns what happened to the player.
+   *
+   * @return the outcome
+   */
+  public Outcome getOutcome() {
+    return outcome;
+  }
+
+  /**
+   * Returns the message describing the outcome, as returned by {@link Team#addPlayer(TeamMember)}.
+   *
+   * @return the message
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * Returns whether the player was added.
+   *
+   * @return {@code true} if the player is on the roster after the add
+   */
+  public boolean isAdded() {
+    return outcome.isAdded();
+  }
+
+  @Override public String toString() {
+    return outcome + ": " + message;
+  }
+}
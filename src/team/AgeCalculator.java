@@ -0,0 +1,97 @@
+package team;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * The AgeCalculator class parses dates of birth and computes ages as of an explicit date. It keeps
+ * no state, so it is safe to call from any number of threads at once.
+ */
+public final class AgeCalculator {
+
+  private AgeCalculator() {
+  }
+
+  /**
+   * Parses a date in the format "yyyy-MM-dd". Months and days may also be written with a single
+   * digit, as the old {@code SimpleDateFormat} based parsing accepted them.
+   *
+   * @param text the date to parse
+   * @return the parsed date
+   * @throws IllegalArgumentException if the text is not a valid date in the expected format
+   */
+  public static LocalDate parseDate(CharSequence text) {
+    if (text == null) {
+      throw new IllegalArgumentException("Date of birth is missing.");
+    }
+    int length = text.length();
+    int firstDash = indexOf(text, '-', 0);
+    int secondDash = firstDash < 0 ? -1 : indexOf(text, '-', firstDash + 1);
+    if (firstDash != 4 || secondDash < 0 || secondDash - firstDash > 3 || length - secondDash > 3) {
+      throw invalidDate(text);
+    }
+    int year = parseDigits(text, 0, firstDash);
+    int month = parseDigits(text, firstDash + 1, secondDash);
+    int day = parseDigits(text, secondDash + 1, length);
+    if (year < 0 || month < 0 || day < 0) {
+      throw invalidDate(text);
+    }
+    try {
+      return LocalDate.of(year, month, day);
+    } catch (DateTimeException e) {
+      throw invalidDate(text);
+    }
+  }
+
+  /**
+   * Returns the age in whole years of someone born on {@code birthDate}, as of {@code asOf}.
+   *
+   * @param birthDate the date of birth
+   * @param asOf      the date at which the age is evaluated
+   * @return the age in completed years
+   */
+  public static int ageOn(LocalDate birthDate, LocalDate asOf) {
+    int age = asOf.getYear() - birthDate.getYear();
+
+    if (asOf.getMonthValue() < birthDate.getMonthValue() || (
+        asOf.getMonthValue() == birthDate.getMonthValue()
+            && asOf.getDayOfMonth() < birthDate.getDayOfMonth())) {
+      age--;
+    }
+
+    return age;
+  }
+
+  private static int indexOf(CharSequence text, char c, int from) {
+    for (int i = from; i < text.length(); i++) {
+      if (text.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parses the decimal digits in {@code [start, end)}, returning -1 if the range is empty or
+   * contains anything other than digits.
+   */
+  private static int parseDigits(CharSequence text, int start, int end) {
+    if (start >= end) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static IllegalArgumentException invalidDate(CharSequence text) {
+    return new IllegalArgumentException(
+        "Invalid date of birth \"" + text + "\". Please use the format YYYY-MM-DD.");
+  }
+}
@@ -1,40 +1,100 @@
 package team;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.LocalDate;
 
 /**
  * The BasePlayer class is an abstract class that represents a player in a team. It implements the
  * IPlayer interface and provides common properties and methods for classes that extend it.
+ * <p>
+ * First and last names are canonicalized with {@link String#intern()}, so players with the same
+ * names share one copy of them. The JVM's string table holds its entries weakly, so a name is
+ * reclaimed once no player uses it any more. The full name is built on first use and cached.
  */
 public class BasePlayer implements InterPlayer {
-  private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-  protected String firstName;
-  protected String lastName;
+  protected final String firstName;
+  protected final String lastName;
   protected String dateOfBirth;
+  protected final LocalDate birthDate;
   protected Position preferredPosition;
   protected SkillLevel skillLevel;
+  private String fullName;
 
   /**
    * Constructs a BasePlayer object with the specified firstName, lastName, dateOfBirth,
-   * preferredPosition, and skillLevel.
+   * preferredPosition, and skillLevel. The date of birth is parsed once, here.
    *
    * @param firstName         the first name of the player
    * @param lastName          the last name of the player
-   * @param dateOfBirth       the date of birth of the player
+   * @param dateOfBirth       the date of birth of the player, in the format "yyyy-MM-dd"
    * @param preferredPosition the preferred position of the player
    * @param skillLevel        the skill level of the player
+   * @throws IllegalArgumentException if a name is null or the date of birth is not a valid date
    */
   public BasePlayer(String firstName, String lastName, String dateOfBirth,
       Position preferredPosition, SkillLevel skillLevel) {
-    this.firstName = firstName;
-    this.lastName = lastName;
+    this.firstName = canonical(firstName);
+    this.lastName = canonical(lastName);
     this.dateOfBirth = dateOfBirth;
+    this.birthDate = AgeCalculator.parseDate(dateOfBirth);
     this.preferredPosition = preferredPosition;
     this.skillLevel = skillLevel;
   }
 
+  /**
+   * Constructs a BasePlayer object from an already parsed date of birth.
+   *
+   * @param firstName         the first name of the player
+   * @param lastName          the last name of the player
+   * @param birthDate         the date of birth of the player
+   * @param preferredPosition the preferred position of the player
+   * @param skillLevel        the skill level of the player
+   * @throws IllegalArgumentException if a name is null
+   */
+  public BasePlayer(String firstName, String lastName, LocalDate birthDate,
+      Position preferredPosition, SkillLevel skillLevel) {
+    this.firstName = canonical(firstName);
+    this.lastName = canonical(lastName);
+    this.dateOfBirth = birthDate.toString();
+    this.birthDate = birthDate;
+    this.preferredPosition = preferredPosition;
+    this.skillLevel = skillLevel;
+  }
+
+  /**
+   * Constructs a copy of the given player without parsing its date of birth again. The values are
+   * read through the getters, so players whose data is provided by a subclass are copied too; the
+   * canonical names and cached full name of ordinary players are copied as they are.
+   *
+   * @param other the player to copy
+   */
+  protected BasePlayer(BasePlayer other) {
+    boolean ownData = other.firstName != null;
+    this.firstName = ownData ? other.firstName : canonical(other.getFirstName());
+    this.lastName = ownData ? other.lastName : canonical(other.getLastName());
+    this.fullName = ownData ? other.fullName : null;
+    this.dateOfBirth = other.getDateOfBirth();
+    this.birthDate = other.getBirthDate();
+    this.preferredPosition = other.getPreferredPosition();
+    this.skillLevel = other.getSkillLevel();
+  }
+
+  /**
+   * Constructs a BasePlayer without any data of its own, for subclasses that override every getter
+   * to read the data from somewhere else.
+   */
+  protected BasePlayer() {
+    this.firstName = null;
+    this.lastName = null;
+    this.birthDate = null;
+  }
+
+  private static String canonical(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("A player needs a first and a last name.");
+    }
+    return name.intern();
+  }
+
   @Override
   public String getFirstName() {
 
@@ -53,6 +113,12 @@ public class BasePlayer implements InterPlayer {
     return dateOfBirth;
   }
 
+  @Override
+  public LocalDate getBirthDate() {
+
+    return birthDate;
+  }
+
   @Override
   public Position getPreferredPosition() {
 
@@ -68,27 +134,23 @@ public class BasePlayer implements InterPlayer {
   @Override
   public String getFullName() {
 
-    return firstName + " " + lastName;
+    String name = fullName;
+    if (name == null) {
+      name = getFirstName() + " " + getLastName();
+      fullName = name;
+    }
+    return name;
   }
 
   @Override
   public int getAge() {
-    Calendar dob = Calendar.getInstance();
-    try {
-      dob.setTime(dateFormat.parse(dateOfBirth)); // Parse the date here
-    } catch (ParseException e) {
-      return -1; // Return an error value or throw an exception
-    }
-    Calendar today = Calendar.getInstance();
 
-    int age = today.get(Calendar.YEAR) - dob.get(Calendar.YEAR);
+    return getAge(LocalDate.now());
+  }
 
-    if (today.get(Calendar.MONTH) < dob.get(Calendar.MONTH) || (
-        today.get(Calendar.MONTH) == dob.get(Calendar.MONTH)
-            && today.get(Calendar.DAY_OF_MONTH) < dob.get(Calendar.DAY_OF_MONTH))) {
-      age--;
-    }
+  @Override
+  public int getAge(LocalDate asOf) {
 
-    return age;
+    return AgeCalculator.ageOn(birthDate, asOf);
   }
 }
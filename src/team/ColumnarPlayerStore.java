@@ -0,0 +1,323 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A column store of players for league-wide analytics. Instead of one object per player, every
+ * attribute is kept in its own primitive array: skill level and position ordinals, birth date as
+ * epoch day, jersey number, team id and lineup position. First and last names are stored as ids
+ * of a {@link NameDictionary} of the store, and team names as ids of another, so each distinct
+ * name is stored once and rows refer to it by id. The dictionaries are dropped with the store.
+ * <p>
+ * Aggregations scan only the columns they need, in tight loops over the arrays, without creating a
+ * player object per row. The store is filled from teams or single players and is not thread-safe.
+ */
+public class ColumnarPlayerStore {
+  private static final int NOT_IN_LINEUP = -1;
+  private static final Position[] POSITIONS = Position.values();
+  private static final SkillLevel[] SKILL_LEVELS = SkillLevel.values();
+
+  private final NameDictionary names = new NameDictionary();
+  private final NameDictionary teamNames = new NameDictionary();
+  private int size;
+  private byte[] skill = new byte[64];
+  private byte[] position = new byte[64];
+  private byte[] lineupPosition = new byte[64];
+  private int[] birthEpochDay = new int[64];
+  private int[] jerseyNumber = new int[64];
+  private int[] teamId = new int[64];
+  private int[] firstNameId = new int[64];
+  private int[] lastNameId = new int[64];
+
+  /**
+   * Adds every player of a team, marking the players in its starting lineup with their actual
+   * positions.
+   *
+   * @param teamName the name of the team
+   * @param team     the team to add
+   * @return the id of the team in this store
+   */
+  public int addTeam(String teamName, Team team) {
+    RosterSnapshot snapshot = team.getSnapshot();
+    int id = teamNames.idOf(teamName);
+    List<TeamMember> players = snapshot.getAllPlayers();
+    ensureCapacity(size + players.size());
+    int first = size;
+    for (TeamMember player : players) {
+      addPlayer(id, player);
+    }
+    if (snapshot.hasStartingLineup()) {
+      for (TeamMember starter : snapshot.getStartingLineup()) {
+        for (int row = first; row < size; row++) {
+          if (jerseyNumber[row] == starter.getJerseyNumber()) {
+            lineupPosition[row] = (byte) starter.getActualPosition().ordinal();
+            break;
+          }
+        }
+      }
+    }
+    return id;
+  }
+
+  /**
+   * Adds every team of a league.
+   *
+   * @param league the league to add
+   */
+  public void addLeague(League league) {
+    for (String name : league.getTeamNames()) {
+      ConcurrentSoccerTeam team = league.getTeam(name);
+      if (team != null) {
+        addTeam(name, team);
+      }
+    }
+  }
+
+  /**
+   * Adds a single player who is not in a starting lineup.
+   *
+   * @param teamName the name of the player's team
+   * @param player   the player to add
+   * @return the row of the player
+   */
+  public int addPlayer(String teamName, InterPlayer player) {
+    return addPlayer(teamNames.idOf(teamName), player);
+  }
+
+  private int addPlayer(int team, InterPlayer player) {
+    ensureCapacity(size + 1);
+    int row = size++;
+    skill[row] = (byte) player.getSkillLevel().ordinal();
+    position[row] = (byte) player.getPreferredPosition().ordinal();
+    lineupPosition[row] = NOT_IN_LINEUP;
+    birthEpochDay[row] = Math.toIntExact(player.getBirthDate().toEpochDay());
+    jerseyNumber[row] = player instanceof TeamMember ? ((TeamMember) player).getJerseyNumber() : 0;
+    teamId[row] = team;
+    firstNameId[row] = names.idOf(player.getFirstName());
+    lastNameId[row] = names.idOf(player.getLastName());
+    return row;
+  }
+
+  /**
+   * Adds every player of the given collection to the same team.
+   *
+   * @param teamName the name of the team
+   * @param players  the players to add
+   */
+  public void addPlayers(String teamName, Collection<? extends InterPlayer> players) {
+    int team = teamNames.idOf(teamName);
+    ensureCapacity(size + players.size());
+    for (InterPlayer player : players) {
+      addPlayer(team, player);
+    }
+  }
+
+  /**
+   * Returns the number of players in the store.
+   *
+   * @return the number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of teams in the store.
+   *
+   * @return the number of team ids
+   */
+  public int teamCount() {
+    return teamNames.size();
+  }
+
+  /**
+   * Returns the name of a team.
+   *
+   * @param teamId a team id returned by {@link #addTeam} or {@link #getTeamId}
+   * @return the team name
+   */
+  public String getTeamName(int teamId) {
+    return teamNames.nameOf(teamId);
+  }
+
+  /**
+   * Returns the team id of a row.
+   *
+   * @param row the row
+   * @return the team id
+   */
+  public int getTeamId(int row) {
+    return teamId[checkRow(row)];
+  }
+
+  /**
+   * Returns the first name of the player in a row.
+   *
+   * @param row the row
+   * @return the first name
+   */
+  public String getFirstName(int row) {
+    return names.nameOf(firstNameId[checkRow(row)]);
+  }
+
+  /**
+   * Returns the last name of the player in a row.
+   *
+   * @param row the row
+   * @return the last name
+   */
+  public String getLastName(int row) {
+    return names.nameOf(lastNameId[checkRow(row)]);
+  }
+
+  /**
+   * Returns the skill level of the player in a row.
+   *
+   * @param row the row
+   * @return the skill level
+   */
+  public SkillLevel getSkillLevel(int row) {
+    return SKILL_LEVELS[skill[checkRow(row)]];
+  }
+
+  /**
+   * Returns the preferred position of the player in a row.
+   *
+   * @param row the row
+   * @return the preferred position
+   */
+  public Position getPreferredPosition(int row) {
+    return POSITIONS[position[checkRow(row)]];
+  }
+
+  /**
+   * Returns the birth date of the player in a row.
+   *
+   * @param row the row
+   * @return the birth date
+   */
+  public LocalDate getBirthDate(int row) {
+    return LocalDate.ofEpochDay(birthEpochDay[checkRow(row)]);
+  }
+
+  /**
+   * Returns the jersey number of the player in a row.
+   *
+   * @param row the row
+   * @return the jersey number, or 0 if the player had none
+   */
+  public int getJerseyNumber(int row) {
+    return jerseyNumber[checkRow(row)];
+  }
+
+  /**
+   * Counts the players by preferred position and skill level.
+   *
+   * @return the counts, indexed by position ordinal and then skill level ordinal
+   */
+  public int[][] skillHistogramByPosition() {
+    int levels = SKILL_LEVELS.length;
+    int[] counts = new int[POSITIONS.length * levels];
+    for (int row = 0; row < size; row++) {
+      counts[position[row] * levels + skill[row]]++;
+    }
+    int[][] histogram = new int[POSITIONS.length][];
+    for (int p = 0; p < POSITIONS.length; p++) {
+      histogram[p] = Arrays.copyOfRange(counts, p * levels, (p + 1) * levels);
+    }
+    return histogram;
+  }
+
+  /**
+   * Counts the players by age in whole years on the given date. Players older than
+   * {@code maximumAge} are counted as {@code maximumAge}; players born after the date are counted
+   * as 0.
+   *
+   * @param asOf       the date on which ages are computed
+   * @param maximumAge the highest age with its own bucket
+   * @return the counts, indexed by age
+   */
+  public int[] ageDistribution(LocalDate asOf, int maximumAge) {
+    // thresholds[k] is the latest birth day of a player who is at least k years old on asOf.
+    int[] thresholds = new int[maximumAge + 1];
+    for (int age = 0; age <= maximumAge; age++) {
+      thresholds[age] = Math.toIntExact(asOf.minusYears(age).toEpochDay());
+    }
+
+    int[] counts = new int[maximumAge + 1];
+    for (int row = 0; row < size; row++) {
+      int birth = birthEpochDay[row];
+      int low = 0;
+      int high = maximumAge;
+      while (low < high) {
+        int middle = (low + high + 1) >>> 1;
+        if (birth <= thresholds[middle]) {
+          low = middle;
+        } else {
+          high = middle - 1;
+        }
+      }
+      counts[low]++;
+    }
+    return counts;
+  }
+
+  /**
+   * Sums the skill levels, from 1 to 5, of each team's starting lineup.
+   *
+   * @return the lineup strength, indexed by team id; 0 for teams without a lineup
+   */
+  public int[] lineupStrengthByTeam() {
+    int[] strength = new int[teamNames.size()];
+    for (int row = 0; row < size; row++) {
+      if (lineupPosition[row] != NOT_IN_LINEUP) {
+        strength[teamId[row]] += skill[row] + 1;
+      }
+    }
+    return strength;
+  }
+
+  /**
+   * Computes the average skill level, from 1 to 5, of each team's roster.
+   *
+   * @return the average skill level, indexed by team id; 0 for teams without players
+   */
+  public double[] averageSkillByTeam() {
+    long[] totals = new long[teamNames.size()];
+    int[] counts = new int[teamNames.size()];
+    for (int row = 0; row < size; row++) {
+      totals[teamId[row]] += skill[row] + 1;
+      counts[teamId[row]]++;
+    }
+    double[] averages = new double[totals.length];
+    for (int t = 0; t < totals.length; t++) {
+      averages[t] = counts[t] == 0 ? 0 : (double) totals[t] / counts[t];
+    }
+    return averages;
+  }
+
+  private int checkRow(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Row " + row + " is outside 0 to " + (size - 1) + ".");
+    }
+    return row;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= skill.length) {
+      return;
+    }
+    int length = Math.max(capacity, skill.length * 2);
+    skill = Arrays.copyOf(skill, length);
+    position = Arrays.copyOf(position, length);
+    lineupPosition = Arrays.copyOf(lineupPosition, length);
+    birthEpochDay = Arrays.copyOf(birthEpochDay, length);
+    jerseyNumber = Arrays.copyOf(jerseyNumber, length);
+    teamId = Arrays.copyOf(teamId, length);
+    firstNameId = Arrays.copyOf(firstNameId, length);
+    lastNameId = Arrays.copyOf(lastNameId, length);
+  }
+}
@@ -0,0 +1,189 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import team.AbstractTeamMetrics.Operation;
+
+/**
+ * A thread-safe {@link Team} that can be shared by several writers and readers. Writes are
+ * serialized on a lock and applied to an underlying {@link SoccerTeam}. After every write the
+ * team's immutable {@link RosterSnapshot} is published, and reads return that snapshot without
+ * taking the lock, so they never wait behind a lineup recomputation.
+ */
+public class ConcurrentSoccerTeam implements Team {
+  private final SoccerTeam team;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile RosterSnapshot snapshot;
+  private volatile TeamMetrics metrics;
+
+  /**
+   * Constructs a new, empty ConcurrentSoccerTeam backed by a default {@link SoccerTeam}.
+   */
+  public ConcurrentSoccerTeam() {
+    this(new SoccerTeam());
+  }
+
+  /**
+   * Constructs a ConcurrentSoccerTeam that serializes access to the given team. The team must not
+   * be used directly once it has been wrapped.
+   *
+   * @param team the team to wrap
+   */
+  public ConcurrentSoccerTeam(SoccerTeam team) {
+    this.team = team;
+    this.snapshot = team.getSnapshot();
+  }
+
+  @Override public String addPlayer(TeamMember player) {
+    lock();
+    try {
+      String message = team.addPlayer(player);
+      snapshot = team.getSnapshot();
+      return message;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override public List<String> addPlayers(Collection<TeamMember> players) {
+    lock();
+    try {
+      List<String> messages = team.addPlayers(players);
+      snapshot = team.getSnapshot();
+      return messages;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override public List<AddResult> addPlayersWithResults(Collection<TeamMember> players) {
+    lock();
+    try {
+      List<AddResult> results = team.addPlayersWithResults(players);
+      snapshot = team.getSnapshot();
+      return results;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Sets the strategy that selects the starting lineup of the underlying team and publishes the
+   * lineup it selects.
+   *
+   * @param lineupStrategy the strategy to use, or {@code null} for the built-in selection
+   * @see SoccerTeam#setLineupStrategy(LineupStrategy)
+   */
+  public void setLineupStrategy(LineupStrategy lineupStrategy) {
+    lock();
+    try {
+      team.setLineupStrategy(lineupStrategy);
+      snapshot = team.getSnapshot();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Removes every player who is no longer eligible on the given date and publishes the new roster
+   * and starting lineup.
+   *
+   * @param asOf the date the players' ages are computed on
+   * @return the removed players, in the order they joined the team
+   * @see SoccerTeam#removeIneligiblePlayers(LocalDate)
+   */
+  public List<TeamMember> removeIneligiblePlayers(LocalDate asOf) {
+    lock();
+    try {
+      List<TeamMember> removed = team.removeIneligiblePlayers(asOf);
+      snapshot = team.getSnapshot();
+      return removed;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Sets the metrics that count this team's add outcomes and time its operations, including how
+   * long writers wait for the lock. Reads record into the metrics without taking the lock.
+   *
+   * @param metrics the metrics to record into, or {@code null} to stop recording
+   */
+  public void setMetrics(TeamMetrics metrics) {
+    writeLock.lock();
+    try {
+      team.setMetrics(metrics);
+      this.metrics = metrics;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the metrics this team records into.
+   *
+   * @return the metrics, or {@code null} if none are set
+   */
+  public TeamMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Takes the write lock, recording how long it took if metrics are set.
+   */
+  private void lock() {
+    TeamMetrics metrics = this.metrics;
+    if (metrics == null) {
+      writeLock.lock();
+      return;
+    }
+    long start = System.nanoTime();
+    writeLock.lock();
+    metrics.record(Operation.LOCK_WAIT, start);
+  }
+
+  @Override public List<TeamMember> getAllPlayers() {
+    TeamMetrics metrics = this.metrics;
+    if (metrics == null) {
+      return snapshot.getAllPlayers();
+    }
+    long start = System.nanoTime();
+    List<TeamMember> players = snapshot.getAllPlayers();
+    metrics.record(Operation.GET_ALL_PLAYERS, start);
+    return players;
+  }
+
+  @Override public List<TeamMember> getStartingLineup() {
+    return snapshot.getStartingLineup();
+  }
+
+  @Override public TeamMember getPlayerByJerseyNumber(int jerseyNumber) {
+    return snapshot.getPlayerByJerseyNumber(jerseyNumber);
+  }
+
+  @Override public List<TeamMember> getPlayersByPosition(Position position) {
+    return snapshot.getPlayersByPosition(position);
+  }
+
+  @Override public List<TeamMember> getPlayersBySkillLevel(SkillLevel skillLevel) {
+    return snapshot.getPlayersBySkillLevel(skillLevel);
+  }
+
+  @Override public List<TeamMember> getPlayers(Position position, SkillLevel skillLevel) {
+    return snapshot.getPlayers(position, skillLevel);
+  }
+
+  @Override public List<TeamMember> findPlayersByLastName(String prefix) {
+    return snapshot.findPlayersByLastName(prefix);
+  }
+
+  @Override public RosterSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  @Override public boolean hasChangedSince(long version) {
+    return snapshot.hasChangedSince(version);
+  }
+}
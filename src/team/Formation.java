@@ -0,0 +1,183 @@
+package team;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A formation describes how many players start at each {@link Position} and how large a roster a
+ * team playing it needs. The number of lineup slots is kept in an array indexed by position
+ * ordinal, so reading a formation never allocates.
+ * <p>
+ * The standard formations scale the U10 defaults of a 7-a-side team, a roster of 10 to 20 players,
+ * to larger games with about the same ratio of roster size to lineup size.
+ */
+public final class Formation {
+  /**
+   * Seven players in a 1-2-3-1, as given by {@link Position#getMaxPlayers()}, with 10 to 20
+   * players on the roster.
+   */
+  public static final Formation SEVEN_A_SIDE = new Formation("7-a-side", defaultSlots(), 10, 20);
+
+  /**
+   * Nine players in a 1-3-3-2, with 13 to 26 players on the roster.
+   */
+  public static final Formation NINE_A_SIDE = new Formation("9-a-side",
+      new int[] {1, 3, 3, 2}, 13, 26);
+
+  /**
+   * Eleven players in a 1-4-4-2, with 16 to 32 players on the roster.
+   */
+  public static final Formation ELEVEN_A_SIDE = new Formation("11-a-side",
+      new int[] {1, 4, 4, 2}, 16, 32);
+
+  private static final Formation[] STANDARD = {SEVEN_A_SIDE, NINE_A_SIDE, ELEVEN_A_SIDE};
+
+  private final String name;
+  private final int[] slots;
+  private final int lineupSize;
+  private final int minimumPlayers;
+  private final int maximumPlayers;
+
+  /**
+   * Constructs a custom formation.
+   *
+   * @param name           the name of the formation
+   * @param slots          the number of lineup slots for each position; missing positions get none
+   * @param minimumPlayers the default number of players needed to form a team
+   * @param maximumPlayers the default number of players after which new players must evict weaker
+   *                       ones
+   * @throws IllegalArgumentException if a slot count is negative or above 127, the lineup is empty,
+   *                                  or the roster sizes are not positive or the minimum exceeds
+   *                                  the maximum
+   */
+  public Formation(String name, Map<Position, Integer> slots, int minimumPlayers,
+      int maximumPlayers) {
+    this(name, toArray(slots), minimumPlayers, maximumPlayers);
+  }
+
+  private Formation(String name, int[] slots, int minimumPlayers, int maximumPlayers) {
+    int lineupSize = 0;
+    for (int count : slots) {
+      if (count < 0 || count > Byte.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            "A formation needs between 0 and " + Byte.MAX_VALUE + " slots per position.");
+      }
+      lineupSize += count;
+    }
+    if (lineupSize == 0) {
+      throw new IllegalArgumentException("A formation needs at least one lineup slot.");
+    }
+    if (minimumPlayers <= 0 || minimumPlayers > maximumPlayers) {
+      throw new IllegalArgumentException(
+          "Invalid roster caps: " + minimumPlayers + " to " + maximumPlayers + " players.");
+    }
+    this.name = name;
+    this.slots = slots;
+    this.lineupSize = lineupSize;
+    this.minimumPlayers = minimumPlayers;
+    this.maximumPlayers = maximumPlayers;
+  }
+
+  /**
+   * Returns the standard formation with the given slot counts, or a new formation named after the
+   * slot counts (for example "1-2-2-1") if there is none. Used when restoring persisted teams.
+   *
+   * @param slots          the number of lineup slots for each position, by position ordinal
+   * @param minimumPlayers the default minimum roster size of a new formation
+   * @param maximumPlayers the default maximum roster size of a new formation
+   * @return the matching formation
+   * @throws IllegalArgumentException if the slot counts do not describe a valid formation
+   */
+  static Formation forSlots(int[] slots, int minimumPlayers, int maximumPlayers) {
+    for (Formation formation : STANDARD) {
+      if (Arrays.equals(formation.slots, slots)) {
+        return formation;
+      }
+    }
+    if (slots.length != Position.values().length) {
+      throw new IllegalArgumentException("Expected " + Position.values().length
+          + " slot counts but got " + slots.length + ".");
+    }
+    StringBuilder name = new StringBuilder();
+    for (int count : slots) {
+      name.append(name.length() == 0 ? "" : "-").append(count);
+    }
+    return new Formation(name.toString(), slots.clone(), minimumPlayers, maximumPlayers);
+  }
+
+  /**
+   * Returns the name of the formation.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the number of lineup slots for the given position.
+   *
+   * @param position the position
+   * @return the number of players who start at that position
+   */
+  public int getSlots(Position position) {
+    return slots[position.ordinal()];
+  }
+
+  /**
+   * Returns the number of players in the starting lineup.
+   *
+   * @return the lineup size
+   */
+  public int getLineupSize() {
+    return lineupSize;
+  }
+
+  /**
+   * Returns the default number of players needed to form a team.
+   *
+   * @return the minimum roster size
+   */
+  public int getMinimumPlayers() {
+    return minimumPlayers;
+  }
+
+  /**
+   * Returns the default number of players after which new players must evict weaker ones.
+   *
+   * @return the maximum roster size
+   */
+  public int getMaximumPlayers() {
+    return maximumPlayers;
+  }
+
+  /**
+   * Copies the slot counts, by position ordinal, into the given array.
+   *
+   * @param target an array with one element per position
+   */
+  void copySlots(int[] target) {
+    System.arraycopy(slots, 0, target, 0, slots.length);
+  }
+
+  @Override public String toString() {
+    return name;
+  }
+
+  private static int[] defaultSlots() {
+    Position[] positions = Position.values();
+    int[] slots = new int[positions.length];
+    for (Position position : positions) {
+      slots[position.ordinal()] = position.getMaxPlayers();
+    }
+    return slots;
+  }
+
+  private static int[] toArray(Map<Position, Integer> slots) {
+    int[] array = new int[Position.values().length];
+    for (Map.Entry<Position, Integer> entry : slots.entrySet()) {
+      array[entry.getKey().ordinal()] = entry.getValue();
+    }
+    return array;
+  }
+}
@@ -0,0 +1,112 @@
+package team;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Maintains the starting lineup of a team incrementally. Players are kept in per-position ordered
+ * sets, split into the players that start at their preferred position and the reserves, so adding
+ * or removing a player only moves that player and at most one neighbour between the sets.
+ * <p>
+ * The resulting lineup is identical to the greedy selection in {@link SoccerTeam}: every position
+ * is first filled with the best players who prefer it, then any open slots are backfilled, in
+ * {@link Position} order, with the best remaining players.
+ */
+class IncrementalLineup {
+  private static final Position[] POSITIONS = Position.values();
+  private final Comparator<TeamMember> order;
+  private final Formation formation;
+  private final Map<Position, TreeSet<TeamMember>> starters = new EnumMap<>(Position.class);
+  private final Map<Position, TreeSet<TeamMember>> reserves = new EnumMap<>(Position.class);
+  private final TreeSet<TeamMember> bench;
+
+  /**
+   * Constructs an empty incremental lineup.
+   *
+   * @param order the lineup ordering (best player first); ties are broken by roster sequence
+   * @param formation the formation that gives the number of lineup slots for each position
+   */
+  IncrementalLineup(Comparator<TeamMember> order, Formation formation) {
+    this.order = order.thenComparingLong(TeamMember::getRosterSequence);
+    this.formation = formation;
+    for (Position position : POSITIONS) {
+      starters.put(position, new TreeSet<>(this.order));
+      reserves.put(position, new TreeSet<>(this.order));
+    }
+    this.bench = new TreeSet<>(this.order);
+  }
+
+  /**
+   * Adds a player, displacing the weakest starter at the player's preferred position if the new
+   * player ranks higher.
+   *
+   * @param player the player to add
+   */
+  void add(TeamMember player) {
+    Position position = player.getPreferredPosition();
+    TreeSet<TeamMember> preferred = starters.get(position);
+
+    if (preferred.size() < formation.getSlots(position)) {
+      preferred.add(player);
+    } else if (!preferred.isEmpty() && order.compare(player, preferred.last()) < 0) {
+      TeamMember demoted = preferred.pollLast();
+      reserves.get(position).add(demoted);
+      bench.add(demoted);
+      preferred.add(player);
+    } else {
+      reserves.get(position).add(player);
+      bench.add(player);
+    }
+  }
+
+  /**
+   * Removes a player, promoting the best reserve at the same preferred position if the player was
+   * a starter.
+   *
+   * @param player the player to remove
+   */
+  void remove(TeamMember player) {
+    Position position = player.getPreferredPosition();
+
+    if (starters.get(position).remove(player)) {
+      TeamMember promoted = reserves.get(position).pollFirst();
+      if (promoted != null) {
+        bench.remove(promoted);
+        starters.get(position).add(promoted);
+      }
+    } else {
+      reserves.get(position).remove(player);
+      bench.remove(player);
+    }
+  }
+
+  /**
+   * Writes the current lineup into the given list and sets the actual position of each player in
+   * it.
+   *
+   * @param lineup the list to fill; it is cleared first
+   */
+  void fill(List<TeamMember> lineup) {
+    lineup.clear();
+    for (Position position : POSITIONS) {
+      for (TeamMember player : starters.get(position)) {
+        player.setActualPosition(position);
+        lineup.add(player);
+      }
+    }
+
+    Iterator<TeamMember> backfill = bench.iterator();
+    for (Position position : POSITIONS) {
+      int open = formation.getSlots(position) - starters.get(position).size();
+      for (int i = 0; i < open && backfill.hasNext(); i++) {
+        TeamMember player = backfill.next();
+        player.setActualPosition(position);
+        lineup.add(player);
+      }
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package team;
 
+import java.time.LocalDate;
+
 /**
  * This interface represents a player on a soccer team. It defines methods for getting player
  * information such as name, date of birth, preferred position, skill level, and age.
@@ -26,6 +28,13 @@ public interface InterPlayer {
    */
   String getDateOfBirth();
 
+  /**
+   * Returns the date of birth of the player as a parsed date.
+   *
+   * @return the date of birth of the player
+   */
+  LocalDate getBirthDate();
+
   /**
    * Returns the preferred position of the player on the field.
    *
@@ -48,9 +57,17 @@ public interface InterPlayer {
   String getFullName();
 
   /**
-   * Returns the age of the player.
+   * Returns the age of the player as of today.
    *
    * @return the age of the player
    */
   int getAge();
+
+  /**
+   * Returns the age of the player as of the given date.
+   *
+   * @param asOf the date at which the age is evaluated
+   * @return the age of the player in completed years on that date
+   */
+  int getAge(LocalDate asOf);
 }
@@ -0,0 +1,185 @@
+package team;
+
+import java.util.Random;
+
+/**
+ * Allocates jersey numbers from a fixed range. Free numbers are tracked in a bitset, together with
+ * a dense pool of the free numbers so that a random free number can be drawn in constant time.
+ * Allocating and releasing a number are both O(1) and do not allocate memory.
+ * <p>
+ * The allocator draws numbers from its own {@link Random}, which can be seeded so that a sequence
+ * of allocations can be reproduced exactly.
+ */
+public class JerseyNumberAllocator {
+  private final int first;
+  private final int last;
+  private final long[] freeBits;
+  private final int[] pool;
+  private final int[] poolIndex;
+  private int freeCount;
+  private final Random random;
+
+  /**
+   * Constructs an allocator for the numbers {@code first} to {@code last} (inclusive) with an
+   * unseeded random number generator.
+   *
+   * @param first the lowest jersey number
+   * @param last  the highest jersey number
+   * @throws IllegalArgumentException if the range is empty or contains numbers below 0
+   */
+  public JerseyNumberAllocator(int first, int last) {
+    this(first, last, new Random());
+  }
+
+  /**
+   * Constructs an allocator for the numbers {@code first} to {@code last} (inclusive) whose
+   * allocations are reproducible for a given seed.
+   *
+   * @param first the lowest jersey number
+   * @param last  the highest jersey number
+   * @param seed  the seed of the random number generator
+   * @throws IllegalArgumentException if the range is empty or contains numbers below 0
+   */
+  public JerseyNumberAllocator(int first, int last, long seed) {
+    this(first, last, new Random(seed));
+  }
+
+  private JerseyNumberAllocator(int first, int last, Random random) {
+    if (first < 0 || last < first) {
+      throw new IllegalArgumentException(
+          "Invalid jersey number range: " + first + " to " + last + ".");
+    }
+    this.first = first;
+    this.last = last;
+    this.random = random;
+
+    int size = last - first + 1;
+    freeBits = new long[(size + 63) >>> 6];
+    pool = new int[size];
+    poolIndex = new int[size];
+    for (int i = 0; i < size; i++) {
+      freeBits[i >>> 6] |= 1L << i;
+      pool[i] = i;
+      poolIndex[i] = i;
+    }
+    freeCount = size;
+  }
+
+  /**
+   * Allocates a random free jersey number.
+   *
+   * @return the allocated jersey number
+   * @throws IllegalStateException if every number in the range is already allocated
+   */
+  public int allocate() {
+    if (freeCount == 0) {
+      throw new IllegalStateException("No jersey numbers left between " + first + " and " + last
+          + ".");
+    }
+    int offset = pool[random.nextInt(freeCount)];
+    take(offset);
+    return first + offset;
+  }
+
+  /**
+   * Marks a specific jersey number as allocated.
+   *
+   * @param number the jersey number to reserve
+   * @throws IllegalArgumentException if the number is outside the range
+   * @throws IllegalStateException    if the number is already allocated
+   */
+  public void reserve(int number) {
+    int offset = offsetOf(number);
+    if (!isFree(offset)) {
+      throw new IllegalStateException("Jersey number " + number + " is already allocated.");
+    }
+    take(offset);
+  }
+
+  /**
+   * Returns a jersey number to the pool of free numbers. Releasing a number that is not allocated
+   * has no effect.
+   *
+   * @param number the jersey number to release
+   * @throws IllegalArgumentException if the number is outside the range
+   */
+  public void release(int number) {
+    int offset = offsetOf(number);
+    if (isFree(offset)) {
+      return;
+    }
+    freeBits[offset >>> 6] |= 1L << offset;
+    pool[freeCount] = offset;
+    poolIndex[offset] = freeCount;
+    freeCount++;
+  }
+
+  /**
+   * Returns whether the given jersey number is currently allocated.
+   *
+   * @param number the jersey number to check
+   * @return {@code true} if the number is in the range and allocated
+   */
+  public boolean isAllocated(int number) {
+    return number >= first && number <= last && !isFree(number - first);
+  }
+
+  /**
+   * Returns the number of jersey numbers that can still be allocated.
+   *
+   * @return the number of free jersey numbers
+   */
+  public int available() {
+    return freeCount;
+  }
+
+  /**
+   * Returns the lowest jersey number of the range.
+   *
+   * @return the first jersey number
+   */
+  public int getFirstNumber() {
+    return first;
+  }
+
+  /**
+   * Returns the highest jersey number of the range.
+   *
+   * @return the last jersey number
+   */
+  public int getLastNumber() {
+    return last;
+  }
+
+  /**
+   * Returns the total number of jersey numbers in the range.
+   *
+   * @return the size of the range
+   */
+  public int capacity() {
+    return pool.length;
+  }
+
+  private int offsetOf(int number) {
+    if (number < first || number > last) {
+      throw new IllegalArgumentException(
+          "Jersey number " + number + " is outside " + first + " to " + last + ".");
+    }
+    return number - first;
+  }
+
+  private boolean isFree(int offset) {
+    return (freeBits[offset >>> 6] & (1L << offset)) != 0;
+  }
+
+  /**
+   * Removes the given offset from the free pool by swapping the last free entry into its place.
+   */
+  private void take(int offset) {
+    freeBits[offset >>> 6] &= ~(1L << offset);
+    int index = poolIndex[offset];
+    int moved = pool[--freeCount];
+    pool[index] = moved;
+    poolIndex[moved] = index;
+  }
+}
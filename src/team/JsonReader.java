@@ -0,0 +1,235 @@
+package team;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads players from JSON request bodies. A player is an object with the string fields
+ * {@code firstName}, {@code lastName}, {@code dateOfBirth} (as {@code yyyy-MM-dd}),
+ * {@code position} and {@code skillLevel}, the last two being {@link Position} and
+ * {@link SkillLevel} names; other fields with plain values are ignored. This is the same shape
+ * that {@link JsonWriter} writes, so a roster can be read back. {@link RosterImporter} uses the
+ * same reader for the flat objects of NDJSON exports.
+ */
+final class JsonReader {
+  private final CharSequence text;
+  private int position;
+
+  /**
+   * Constructs a reader over the given JSON text.
+   *
+   * @param text the JSON text
+   */
+  JsonReader(CharSequence text) {
+    this.text = text;
+  }
+
+  /**
+   * Reads a single player object, which must be the whole text.
+   *
+   * @return the player
+   * @throws IllegalArgumentException if the text is not a valid player object
+   */
+  TeamMember readPlayer() {
+    TeamMember player = player();
+    end();
+    return player;
+  }
+
+  /**
+   * Reads an array of player objects, which must be the whole text.
+   *
+   * @return the players, in order
+   * @throws IllegalArgumentException if the text is not a valid array of player objects
+   */
+  List<TeamMember> readPlayers() {
+    List<TeamMember> players = new ArrayList<>();
+    expect('[');
+    if (!consume(']')) {
+      do {
+        players.add(player());
+      } while (consume(','));
+      expect(']');
+    }
+    end();
+    return players;
+  }
+
+  /**
+   * Reads a flat object whose values are strings, numbers, booleans or null, which must be the
+   * whole text. Values that are not strings are returned as written.
+   *
+   * @return the values by key, in the order of the text; a repeated key keeps its last value
+   * @throws IllegalArgumentException if the text is not a valid flat object
+   */
+  Map<String, String> readObject() {
+    Map<String, String> values = new LinkedHashMap<>();
+    expect('{');
+    if (!consume('}')) {
+      do {
+        String name = string();
+        expect(':');
+        values.put(name, value());
+      } while (consume(','));
+      expect('}');
+    }
+    end();
+    return values;
+  }
+
+  private TeamMember player() {
+    String firstName = null;
+    String lastName = null;
+    String dateOfBirth = null;
+    Position preferredPosition = null;
+    SkillLevel skillLevel = null;
+    expect('{');
+    if (!consume('}')) {
+      do {
+        String name = string();
+        expect(':');
+        switch (name) {
+          case "firstName":
+            firstName = string();
+            break;
+          case "lastName":
+            lastName = string();
+            break;
+          case "dateOfBirth":
+            dateOfBirth = string();
+            break;
+          case "position":
+            preferredPosition = enumValue(Position.class, string());
+            break;
+          case "skillLevel":
+            skillLevel = enumValue(SkillLevel.class, string());
+            break;
+          default:
+            value();
+        }
+      } while (consume(','));
+      expect('}');
+    }
+    if (firstName == null || lastName == null || preferredPosition == null
+        || skillLevel == null) {
+      throw new IllegalArgumentException("A player needs firstName, lastName, dateOfBirth, "
+          + "position and skillLevel.");
+    }
+    return new TeamMember(firstName, lastName, dateOfBirth, preferredPosition, skillLevel);
+  }
+
+  private String string() {
+    expect('"');
+    StringBuilder value = new StringBuilder();
+    while (true) {
+      if (position == text.length()) {
+        throw error("Unterminated string");
+      }
+      char c = text.charAt(position++);
+      if (c == '"') {
+        return value.toString();
+      }
+      if (c != '\\') {
+        value.append(c);
+        continue;
+      }
+      if (position == text.length()) {
+        throw error("Unterminated escape");
+      }
+      char escaped = text.charAt(position++);
+      switch (escaped) {
+        case 'b':
+          value.append('\b');
+          break;
+        case 'f':
+          value.append('\f');
+          break;
+        case 'n':
+          value.append('\n');
+          break;
+        case 'r':
+          value.append('\r');
+          break;
+        case 't':
+          value.append('\t');
+          break;
+        case 'u':
+          if (position + 4 > text.length()) {
+            throw error("Truncated unicode escape");
+          }
+          try {
+            value.append((char) Integer.parseInt(text.subSequence(position, position + 4)
+                .toString(), 16));
+          } catch (NumberFormatException e) {
+            throw error("Invalid unicode escape");
+          }
+          position += 4;
+          break;
+        default:
+          value.append(escaped);
+      }
+    }
+  }
+
+  /**
+   * Reads a string, number, boolean or null value, returning anything but a string as written.
+   * Nested objects and arrays are not supported.
+   */
+  private String value() {
+    skipWhitespace();
+    if (position < text.length() && text.charAt(position) == '"') {
+      return string();
+    }
+    int start = position;
+    while (position < text.length() && "-+.0123456789eEtruefalsn".indexOf(
+        text.charAt(position)) >= 0) {
+      position++;
+    }
+    if (position == start) {
+      throw error("Unsupported value");
+    }
+    return text.subSequence(start, position).toString();
+  }
+
+  private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+    try {
+      return Enum.valueOf(type, name);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " \"" + name + "\".");
+    }
+  }
+
+  private boolean consume(char c) {
+    skipWhitespace();
+    if (position < text.length() && text.charAt(position) == c) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char c) {
+    if (!consume(c)) {
+      throw error("Expected '" + c + "'");
+    }
+  }
+
+  private void end() {
+    skipWhitespace();
+    if (position != text.length()) {
+      throw error("Unexpected content");
+    }
+  }
+
+  private void skipWhitespace() {
+    while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+      position++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at offset " + position + ".");
+  }
+}
@@ -0,0 +1,276 @@
+package team;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Writes JSON straight to an output stream as UTF-8. Characters, numbers and dates are encoded
+ * into a reused byte buffer, so writing a roster does not build any intermediate strings; the
+ * buffer is written to the stream whenever it fills up and by {@link #flush()}.
+ * <p>
+ * The writer keeps track of commas between values but does not validate the structure; callers are
+ * expected to balance {@link #beginObject()} and {@link #endObject()}, and to write a name before
+ * every value in an object.
+ */
+final class JsonWriter {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final OutputStream out;
+  private final byte[] buffer = new byte[8192];
+  private int position;
+  private boolean needsComma;
+
+  /**
+   * Constructs a writer that writes to the given stream.
+   *
+   * @param out the stream to write to; it is not closed by the writer
+   */
+  JsonWriter(OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes a list of players as a JSON array of player objects.
+   *
+   * @param players the players to write
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   * @see #player(TeamMember)
+   */
+  JsonWriter players(List<TeamMember> players) throws IOException {
+    beginArray();
+    for (TeamMember player : players) {
+      player(player);
+    }
+    return endArray();
+  }
+
+  /**
+   * Writes a player as a JSON object with the fields {@code firstName}, {@code lastName},
+   * {@code dateOfBirth}, {@code position}, {@code skillLevel}, {@code jerseyNumber} and, for
+   * players in a starting lineup, {@code actualPosition}.
+   *
+   * @param player the player to write
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter player(TeamMember player) throws IOException {
+    beginObject();
+    name("firstName").value(player.getFirstName());
+    name("lastName").value(player.getLastName());
+    name("dateOfBirth").value(player.getBirthDate());
+    name("position").value(player.getPreferredPosition().name());
+    name("skillLevel").value(player.getSkillLevel().name());
+    name("jerseyNumber").value(player.getJerseyNumber());
+    if (player.getActualPosition() != null) {
+      name("actualPosition").value(player.getActualPosition().name());
+    }
+    return endObject();
+  }
+
+  /**
+   * Starts an object.
+   *
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter beginObject() throws IOException {
+    separate();
+    write('{');
+    needsComma = false;
+    return this;
+  }
+
+  /**
+   * Ends the current object.
+   *
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter endObject() throws IOException {
+    write('}');
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Starts an array.
+   *
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter beginArray() throws IOException {
+    separate();
+    write('[');
+    needsComma = false;
+    return this;
+  }
+
+  /**
+   * Ends the current array.
+   *
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter endArray() throws IOException {
+    write(']');
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Writes the name of the next field of an object.
+   *
+   * @param name the field name
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter name(String name) throws IOException {
+    value(name);
+    write(':');
+    needsComma = false;
+    return this;
+  }
+
+  /**
+   * Writes a string value, escaping quotes, backslashes and control characters.
+   *
+   * @param value the string, or {@code null} to write {@code null}
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter value(CharSequence value) throws IOException {
+    separate();
+    if (value == null) {
+      writeAscii("null");
+    } else {
+      write('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '"' || c == '\\') {
+          write('\\');
+          write(c);
+        } else if (c < 0x20) {
+          writeAscii("\\u00");
+          write(HEX[c >> 4]);
+          write(HEX[c & 0xF]);
+        } else if (c < 0x80) {
+          write(c);
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          write(0xF0 | codePoint >> 18);
+          write(0x80 | (codePoint >> 12 & 0x3F));
+          write(0x80 | (codePoint >> 6 & 0x3F));
+          write(0x80 | (codePoint & 0x3F));
+        } else if (c < 0x800) {
+          write(0xC0 | c >> 6);
+          write(0x80 | (c & 0x3F));
+        } else {
+          write(0xE0 | c >> 12);
+          write(0x80 | (c >> 6 & 0x3F));
+          write(0x80 | (c & 0x3F));
+        }
+      }
+      write('"');
+    }
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Writes a number.
+   *
+   * @param value the number
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter value(long value) throws IOException {
+    separate();
+    if (value < 0) {
+      if (value == Long.MIN_VALUE) {
+        writeAscii(Long.toString(value));
+        needsComma = true;
+        return this;
+      }
+      write('-');
+      value = -value;
+    }
+    writeDigits(value, 1);
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Writes a date as an ISO-8601 string such as {@code "2016-05-01"}.
+   *
+   * @param date the date
+   * @return this writer
+   * @throws IOException if the stream cannot be written
+   */
+  JsonWriter value(LocalDate date) throws IOException {
+    separate();
+    write('"');
+    writeDigits(date.getYear(), 4);
+    write('-');
+    writeDigits(date.getMonthValue(), 2);
+    write('-');
+    writeDigits(date.getDayOfMonth(), 2);
+    write('"');
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Writes the buffered bytes to the stream and flushes it.
+   *
+   * @throws IOException if the stream cannot be written
+   */
+  void flush() throws IOException {
+    out.write(buffer, 0, position);
+    position = 0;
+    out.flush();
+  }
+
+  private void separate() throws IOException {
+    if (needsComma) {
+      write(',');
+    }
+  }
+
+  /**
+   * Writes a non-negative number with at least the given number of digits, padded with zeros.
+   */
+  private void writeDigits(long value, int minimumDigits) throws IOException {
+    int digits = 1;
+    for (long rest = value / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    for (int i = digits; i < minimumDigits; i++) {
+      write('0');
+    }
+    long divisor = 1;
+    for (int i = 1; i < digits; i++) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      write('0' + (int) (value / divisor % 10));
+    }
+  }
+
+  private void writeAscii(String text) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      write(text.charAt(i));
+    }
+  }
+
+  private void write(int b) throws IOException {
+    if (position == buffer.length) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+    buffer[position++] = (byte) b;
+  }
+}
@@ -0,0 +1,278 @@
+package team;
+
+import java.beans.ConstructorProperties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds, for reporting percentiles such as p50, p99
+ * and p99.9. Values are counted in log-linear buckets: every power of two is split into 32 equal
+ * buckets, so a reported percentile is within about 3% of the exact value, over the whole range of
+ * {@code long}, in a fixed array of under 2,000 counters.
+ * <p>
+ * Recording only updates atomic counters and never allocates, so it can be called from many
+ * threads on a hot path. Reads do not block recording; while values are being recorded, they may
+ * see some of the counters updated and others not yet.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = indexOf(Long.MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos the latency in nanoseconds; negative values are recorded as 0
+   */
+  public void record(long nanos) {
+    long value = Math.max(nanos, 0);
+    counts.incrementAndGet(indexOf(value));
+    count.increment();
+    sum.add(value);
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Records the time elapsed since the given start.
+   *
+   * @param startNanos a start time read from {@link System#nanoTime()}
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return the maximum in nanoseconds, or 0 if nothing has been recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return the mean in nanoseconds, or 0 if nothing has been recorded
+   */
+  public long getMean() {
+    long n = count.sum();
+    return n == 0 ? 0 : sum.sum() / n;
+  }
+
+  /**
+   * Returns the value below which the given percentage of the recorded values fall. The result is
+   * the upper bound of the bucket that holds the percentile, capped at the maximum.
+   *
+   * @param percentile the percentile, from 0 to 100, for example 99.9
+   * @return the value in nanoseconds, or 0 if nothing has been recorded
+   * @throws IllegalArgumentException if the percentile is outside 0 to 100
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("Invalid percentile: " + percentile + ".");
+    }
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      total += counts.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValueIn(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Adds the values recorded by another histogram to this one, for example to combine the
+   * histograms of several teams into a league-wide one.
+   *
+   * @param other the histogram whose values to add
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      long n = other.counts.get(i);
+      if (n != 0) {
+        counts.addAndGet(i, n);
+      }
+    }
+    count.add(other.count.sum());
+    sum.add(other.sum.sum());
+    long otherMax = other.max.get();
+    long current = max.get();
+    while (otherMax > current && !max.compareAndSet(current, otherMax)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Returns the count, mean, p50, p99, p99.9 and maximum as one value, as published over JMX.
+   *
+   * @return the summary
+   */
+  public Summary getSummary() {
+    return new Summary(getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(99),
+        getValueAtPercentile(99.9), getMax());
+  }
+
+  /**
+   * Clears all recorded values. Values recorded while the histogram is being reset may be lost or
+   * kept only partially.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts.set(i, 0);
+    }
+    count.reset();
+    sum.reset();
+    max.set(0);
+  }
+
+  /**
+   * Formats the count, mean and p50, p99, p99.9 and maximum latencies in microseconds.
+   */
+  @Override public String toString() {
+    return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+        getCount(), micros(getMean()), micros(getValueAtPercentile(50)),
+        micros(getValueAtPercentile(99)), micros(getValueAtPercentile(99.9)), micros(getMax()));
+  }
+
+  private static double micros(long nanos) {
+    return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+  }
+
+  /**
+   * Returns the bucket of a non-negative value. Values below 32 have a bucket each; above that,
+   * the bucket is given by the position of the highest bit and the 5 bits below it.
+   */
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  private static long highestValueIn(int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+  /**
+   * The count and main statistics of a histogram at one point in time. All latencies are in
+   * nanoseconds.
+   */
+  public static final class Summary {
+    private final long count;
+    private final long mean;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Constructs a summary.
+     *
+     * @param count the number of recorded values
+     * @param mean  the mean latency
+     * @param p50   the median latency
+     * @param p99   the 99th percentile latency
+     * @param p999  the 99.9th percentile latency
+     * @param max   the largest latency
+     */
+    @ConstructorProperties({"count", "meanNanos", "p50Nanos", "p99Nanos", "p999Nanos", "maxNanos"})
+    public Summary(long count, long mean, long p50, long p99, long p999, long max) {
+      this.count = count;
+      this.mean = mean;
+      this.p50 = p50;
+      this.p99 = p99;
+      this.p999 = p999;
+      this.max = max;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean in nanoseconds
+     */
+    public long getMeanNanos() {
+      return mean;
+    }
+
+    /**
+     * Returns the median latency.
+     *
+     * @return the p50 in nanoseconds
+     */
+    public long getP50Nanos() {
+      return p50;
+    }
+
+    /**
+     * Returns the 99th percentile latency.
+     *
+     * @return the p99 in nanoseconds
+     */
+    public long getP99Nanos() {
+      return p99;
+    }
+
+    /**
+     * Returns the 99.9th percentile latency.
+     *
+     * @return the p99.9 in nanoseconds
+     */
+    public long getP999Nanos() {
+      return p999;
+    }
+
+    /**
+     * Returns the largest latency.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long getMaxNanos() {
+      return max;
+    }
+  }
+}
@@ -0,0 +1,447 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * A registry of all teams in a league, keyed by team name. Teams are spread over a power-of-two
+ * number of shards by the hash of their name, and each shard has its own read-write lock, so
+ * registering teams and routing players to different teams rarely contend. Every team is wrapped in
+ * a {@link ConcurrentSoccerTeam}, so adding players to one team never blocks another.
+ * <p>
+ * League-wide operations split the shards over a {@link ForkJoinPool}. Each shard's teams are
+ * copied under its read lock and then processed without holding it, so these operations run in
+ * parallel with registrations. Reports that filter players across teams use {@link #query()}, which
+ * streams over the teams' snapshots without copying players.
+ */
+public class League {
+  private final Shard[] shards;
+  private final ForkJoinPool pool;
+  private final LeagueMetrics metrics = new LeagueMetrics();
+  private volatile boolean metricsEnabled;
+
+  /**
+   * Constructs an empty league with four shards per available processor, whose league-wide
+   * operations run on the common fork/join pool.
+   */
+  public League() {
+    this(4 * Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs an empty league.
+   *
+   * @param shardCount the minimum number of shards; it is rounded up to a power of two
+   * @param pool       the pool that league-wide operations run on
+   * @throws IllegalArgumentException if the shard count is not positive or above 2<sup>30</sup>
+   */
+  public League(int shardCount, ForkJoinPool pool) {
+    if (shardCount <= 0 || shardCount > 1 << 30) {
+      throw new IllegalArgumentException("Invalid shard count: " + shardCount + ".");
+    }
+    int size = Integer.highestOneBit(shardCount);
+    shards = new Shard[size < shardCount ? size << 1 : size];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = new Shard();
+    }
+    this.pool = pool;
+  }
+
+  /**
+   * Registers a team with the league. The team must not be used directly once it is registered.
+   *
+   * @param name the unique name of the team
+   * @param team the team to register
+   * @return the thread-safe team that the league manages
+   * @throws IllegalArgumentException if a team with that name is already registered
+   */
+  public ConcurrentSoccerTeam registerTeam(String name, SoccerTeam team) {
+    Shard shard = shardFor(name);
+    ConcurrentSoccerTeam concurrentTeam = new ConcurrentSoccerTeam(team);
+    shard.lock.writeLock().lock();
+    try {
+      if (shard.teams.putIfAbsent(name, concurrentTeam) != null) {
+        throw new IllegalArgumentException("A team named \"" + name + "\" is already registered.");
+      }
+      // Checked under the shard lock, so a concurrent enableMetrics() either finds this team or
+      // has already set the flag.
+      if (metricsEnabled) {
+        concurrentTeam.setMetrics(new TeamMetrics());
+      }
+    } finally {
+      shard.lock.writeLock().unlock();
+    }
+    return concurrentTeam;
+  }
+
+  /**
+   * Removes a team from the league.
+   *
+   * @param name the name of the team
+   * @return {@code true} if the team was registered
+   */
+  public boolean removeTeam(String name) {
+    Shard shard = shardFor(name);
+    shard.lock.writeLock().lock();
+    try {
+      return shard.teams.remove(name) != null;
+    } finally {
+      shard.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the team with the given name.
+   *
+   * @param name the name of the team
+   * @return the team, or {@code null} if no team with that name is registered
+   */
+  public ConcurrentSoccerTeam getTeam(String name) {
+    Shard shard = shardFor(name);
+    shard.lock.readLock().lock();
+    try {
+      return shard.teams.get(name);
+    } finally {
+      shard.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Adds a player to the named team, applying the team's rules as {@link Team#addPlayer} does.
+   *
+   * @param teamName the name of the team
+   * @param player   the player to add
+   * @return the result message of the team
+   * @throws IllegalArgumentException if no team with that name is registered
+   */
+  public String addPlayer(String teamName, TeamMember player) {
+    return requireTeam(teamName).addPlayer(player);
+  }
+
+  /**
+   * Adds several players to the named team, as {@link Team#addPlayers} does.
+   *
+   * @param teamName the name of the team
+   * @param players  the players to add, in order
+   * @return one result message per player
+   * @throws IllegalArgumentException if no team with that name is registered
+   */
+  public List<String> addPlayers(String teamName, Collection<TeamMember> players) {
+    return requireTeam(teamName).addPlayers(players);
+  }
+
+  /**
+   * Returns the number of registered teams.
+   *
+   * @return the number of teams
+   */
+  public int size() {
+    int size = 0;
+    for (Shard shard : shards) {
+      shard.lock.readLock().lock();
+      try {
+        size += shard.teams.size();
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Returns the names of all registered teams, sorted alphabetically.
+   *
+   * @return the team names
+   */
+  public List<String> getTeamNames() {
+    List<String> names = forAllTeams(() -> new ArrayList<String>(),
+        (list, entry) -> list.add(entry.getKey()), League::concat);
+    Collections.sort(names);
+    return names;
+  }
+
+  /**
+   * Counts the players of all teams in parallel.
+   *
+   * @return the number of players in the league
+   */
+  public long countPlayers() {
+    return forAllTeams(() -> new long[1],
+        (count, entry) -> count[0] += entry.getValue().getSnapshot().getAllPlayers().size(),
+        (a, b) -> {
+          a[0] += b[0];
+          return a;
+        })[0];
+  }
+
+  /**
+   * Sets the lineup strategy of every team and selects all starting lineups again, in parallel.
+   *
+   * @param lineupStrategy the strategy to use, or {@code null} for the built-in selection
+   */
+  public void setLineupStrategy(LineupStrategy lineupStrategy) {
+    forAllTeams(() -> null, (ignored, entry) -> entry.getValue().setLineupStrategy(lineupStrategy),
+        (a, b) -> null);
+  }
+
+  /**
+   * Returns the starting lineup of every team that has one, collected in parallel.
+   *
+   * @return the starting lineups, by team name
+   */
+  public Map<String, List<TeamMember>> getStartingLineups() {
+    return forAllTeams(HashMap::new, (lineups, entry) -> {
+      RosterSnapshot snapshot = entry.getValue().getSnapshot();
+      if (snapshot.hasStartingLineup()) {
+        lineups.put(entry.getKey(), snapshot.getStartingLineup());
+      }
+    }, League::merge);
+  }
+
+  /**
+   * Finds, in parallel, the players of every team who are no longer eligible on the given date,
+   * without changing any team. Use it to preview a season rollover.
+   *
+   * @param asOf the date the players' ages are computed on, usually the new season's cutoff
+   * @return the ineligible players, by team name; teams without any are left out
+   * @see SoccerTeam#isEligible(TeamMember, LocalDate)
+   */
+  public Map<String, List<TeamMember>> findIneligiblePlayers(LocalDate asOf) {
+    return forAllTeams(HashMap::new, (ineligible, entry) -> {
+      List<TeamMember> players = null;
+      for (TeamMember player : entry.getValue().getSnapshot().getAllPlayers()) {
+        if (!SoccerTeam.isEligible(player, asOf)) {
+          if (players == null) {
+            players = new ArrayList<>();
+          }
+          players.add(player);
+        }
+      }
+      if (players != null) {
+        ineligible.put(entry.getKey(), players);
+      }
+    }, League::merge);
+  }
+
+  /**
+   * Removes, in parallel, the players of every team who are no longer eligible on the given date.
+   * Each team is changed under its own lock and selects its starting lineup once, so adding
+   * players to other teams carries on during the rollover.
+   *
+   * @param asOf the date the players' ages are computed on, usually the new season's cutoff
+   * @return the removed players, by team name; teams without any are left out
+   * @see ConcurrentSoccerTeam#removeIneligiblePlayers(LocalDate)
+   */
+  public Map<String, List<TeamMember>> removeIneligiblePlayers(LocalDate asOf) {
+    return forAllTeams(HashMap::new, (removed, entry) -> {
+      List<TeamMember> players = entry.getValue().removeIneligiblePlayers(asOf);
+      if (!players.isEmpty()) {
+        removed.put(entry.getKey(), players);
+      }
+    }, League::merge);
+  }
+
+  /**
+   * Gives every registered team, and every team registered from now on, its own
+   * {@link TeamMetrics}. Teams that already have metrics keep them.
+   */
+  public void enableMetrics() {
+    metricsEnabled = true;
+    forAllTeams(() -> null, (ignored, entry) -> {
+      if (entry.getValue().getMetrics() == null) {
+        entry.getValue().setMetrics(new TeamMetrics());
+      }
+    }, (a, b) -> null);
+  }
+
+  /**
+   * Returns a live, league-wide view of the metrics of all teams that have them, suitable for
+   * {@link TeamMetrics#register(TeamMetricsMXBean, String)}. Nothing is recorded twice: each
+   * attribute read combines the teams' counters or histograms in parallel, so reading costs time in
+   * proportion to the number of teams while adding players costs nothing extra.
+   *
+   * @return the league-wide metrics
+   * @see #enableMetrics()
+   */
+  public TeamMetricsMXBean getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns a query over the players of all teams. The query reads the teams' current snapshots
+   * each time one of its streams runs a terminal operation; parallel streams run on the pool of
+   * the calling thread, not on this league's pool.
+   *
+   * @return a query that matches every player in the league
+   */
+  public PlayerQuery query() {
+    return new PlayerQuery(this::snapshots);
+  }
+
+  /**
+   * Returns the published snapshots of all teams, shard by shard. Each shard is read under its read
+   * lock, but no players are copied.
+   *
+   * @return the team snapshots
+   */
+  private RosterSnapshot[] snapshots() {
+    List<RosterSnapshot> snapshots = new ArrayList<>();
+    for (Shard shard : shards) {
+      shard.lock.readLock().lock();
+      try {
+        for (ConcurrentSoccerTeam team : shard.teams.values()) {
+          snapshots.add(team.getSnapshot());
+        }
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+    }
+    return snapshots.toArray(new RosterSnapshot[0]);
+  }
+
+  /**
+   * Runs an operation over all teams on the fork/join pool. Each shard is accumulated into its own
+   * container, and the containers are combined pairwise.
+   *
+   * @param supplier    creates an empty container
+   * @param accumulator adds a team to a container
+   * @param combiner    merges two containers and returns the result
+   * @return the combined container
+   */
+  private <A> A forAllTeams(Supplier<A> supplier,
+      BiConsumer<A, Map.Entry<String, ConcurrentSoccerTeam>> accumulator,
+      BinaryOperator<A> combiner) {
+    return pool.invoke(new ShardTask<>(0, shards.length, supplier, accumulator, combiner));
+  }
+
+  private ConcurrentSoccerTeam requireTeam(String name) {
+    ConcurrentSoccerTeam team = getTeam(name);
+    if (team == null) {
+      throw new IllegalArgumentException("No team named \"" + name + "\" is registered.");
+    }
+    return team;
+  }
+
+  private Shard shardFor(String name) {
+    int hash = name.hashCode();
+    return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+  }
+
+  private static <K, V> HashMap<K, V> merge(HashMap<K, V> a, HashMap<K, V> b) {
+    a.putAll(b);
+    return a;
+  }
+
+  private static <T> ArrayList<T> concat(ArrayList<T> a, ArrayList<T> b) {
+    a.addAll(b);
+    return a;
+  }
+
+  /**
+   * Combines the metrics of all teams on every read.
+   */
+  private final class LeagueMetrics extends AbstractTeamMetrics {
+    @Override long count(Outcome outcome) {
+      return forAllTeams(() -> new long[1], (count, entry) -> {
+        TeamMetrics teamMetrics = entry.getValue().getMetrics();
+        if (teamMetrics != null) {
+          count[0] += teamMetrics.count(outcome);
+        }
+      }, (a, b) -> {
+        a[0] += b[0];
+        return a;
+      })[0];
+    }
+
+    @Override LatencyHistogram.Summary latency(Operation operation) {
+      return forAllTeams(LatencyHistogram::new, (histogram, entry) -> {
+        TeamMetrics teamMetrics = entry.getValue().getMetrics();
+        if (teamMetrics != null) {
+          histogram.add(teamMetrics.histogram(operation));
+        }
+      }, (a, b) -> {
+        a.add(b);
+        return a;
+      }).getSummary();
+    }
+
+    @Override public void reset() {
+      forAllTeams(() -> null, (ignored, entry) -> {
+        TeamMetrics teamMetrics = entry.getValue().getMetrics();
+        if (teamMetrics != null) {
+          teamMetrics.reset();
+        }
+      }, (a, b) -> null);
+    }
+  }
+
+  /**
+   * A part of the league's teams with its own lock.
+   */
+  private static final class Shard {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, ConcurrentSoccerTeam> teams = new HashMap<>();
+  }
+
+  /**
+   * Splits a range of shards in halves until a single shard is left, which is processed directly.
+   */
+  private final class ShardTask<A> extends RecursiveTask<A> {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final Supplier<A> supplier;
+    private final BiConsumer<A, Map.Entry<String, ConcurrentSoccerTeam>> accumulator;
+    private final BinaryOperator<A> combiner;
+
+    private ShardTask(int from, int to, Supplier<A> supplier,
+        BiConsumer<A, Map.Entry<String, ConcurrentSoccerTeam>> accumulator,
+        BinaryOperator<A> combiner) {
+      this.from = from;
+      this.to = to;
+      this.supplier = supplier;
+      this.accumulator = accumulator;
+      this.combiner = combiner;
+    }
+
+    @Override protected A compute() {
+      if (to - from > 1) {
+        int middle = (from + to) >>> 1;
+        ShardTask<A> right = new ShardTask<>(middle, to, supplier, accumulator, combiner);
+        right.fork();
+        A left = new ShardTask<>(from, middle, supplier, accumulator, combiner).compute();
+        return combiner.apply(left, right.join());
+      }
+
+      Shard shard = shards[from];
+      List<Map.Entry<String, ConcurrentSoccerTeam>> teams;
+      shard.lock.readLock().lock();
+      try {
+        teams = new ArrayList<>(shard.teams.entrySet().size());
+        for (Map.Entry<String, ConcurrentSoccerTeam> entry : shard.teams.entrySet()) {
+          teams.add(Map.entry(entry.getKey(), entry.getValue()));
+        }
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+
+      A container = supplier.get();
+      for (Map.Entry<String, ConcurrentSoccerTeam> entry : teams) {
+        accumulator.accept(container, entry);
+      }
+      return container;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package team;
+
+import java.util.List;
+
+/**
+ * A strategy for selecting the starting lineup of a {@link SoccerTeam}. Teams use their built-in
+ * greedy selection unless a strategy is set with {@link SoccerTeam#setLineupStrategy}.
+ */
+public interface LineupStrategy {
+
+  /**
+   * Selects the starting lineup from the given players and sets the actual position of every
+   * selected player. The lineup must not hold more players for a position than the formation has
+   * slots for it.
+   *
+   * @param rankedPlayers the players on the roster, best first: by skill level (highest first),
+   *                      then preferred position, then last name, then the order they joined
+   * @param formation     the formation to fill
+   * @param lineup        the list to write the lineup into; it is empty when the method is called
+   */
+  void selectLineup(List<TeamMember> rankedPlayers, Formation formation, List<TeamMember> lineup);
+}
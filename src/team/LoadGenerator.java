@@ -0,0 +1,248 @@
+package team;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives teams with a mix of registrations and roster reads from many concurrent workers, to see
+ * how they behave under a registration surge. Players come from a {@link PlayerGenerator}; each
+ * operation picks a team at random and is a read with the given probability, otherwise an add.
+ * <p>
+ * With a target rate, the load is open-loop: every worker has a fixed schedule of intended start
+ * times, and each latency is measured from the intended start rather than from when the operation
+ * actually began. An operation that is held up therefore also counts against the operations
+ * queued behind it, as it would for real clients, instead of silently lowering the offered load.
+ * Without a target rate, every worker runs its operations back to back.
+ * <p>
+ * Workers run on virtual threads when the JDK supports them, so thousands of them are cheap.
+ */
+public final class LoadGenerator {
+  private final List<? extends Team> teams;
+  private final PlayerGenerator players;
+  private final int workers;
+  private final double operationsPerSecond;
+  private final double readFraction;
+
+  /**
+   * Constructs a load generator. The teams must be safe to use from many threads, such as
+   * {@link ConcurrentSoccerTeam} or the teams of a {@link League}.
+   *
+   * @param teams               the teams to drive
+   * @param players             the generator of the players to add
+   * @param workers             the number of concurrent workers
+   * @param operationsPerSecond the target rate over all workers, or 0 to run as fast as possible
+   * @param readFraction        the fraction of operations that are reads, from 0 to 1
+   * @throws IllegalArgumentException if there are no teams or workers, the rate is negative, or the
+   *                                  read fraction is outside 0 to 1
+   */
+  public LoadGenerator(List<? extends Team> teams, PlayerGenerator players, int workers,
+      double operationsPerSecond, double readFraction) {
+    if (teams.isEmpty() || workers <= 0) {
+      throw new IllegalArgumentException("At least one team and one worker are needed.");
+    }
+    if (!(operationsPerSecond >= 0)) {
+      throw new IllegalArgumentException("Invalid rate: " + operationsPerSecond + ".");
+    }
+    if (!(readFraction >= 0 && readFraction <= 1)) {
+      throw new IllegalArgumentException("Invalid read fraction: " + readFraction + ".");
+    }
+    this.teams = new ArrayList<>(teams);
+    this.players = players;
+    this.workers = workers;
+    this.operationsPerSecond = operationsPerSecond;
+    this.readFraction = readFraction;
+  }
+
+  /**
+   * Runs the load for the given duration and waits for the workers to finish.
+   *
+   * @param duration how long to generate load
+   * @return the throughput and latencies of the run
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public Report run(Duration duration) throws InterruptedException {
+    LatencyHistogram adds = new LatencyHistogram();
+    LatencyHistogram reads = new LatencyHistogram();
+    LocalDate today = LocalDate.now();
+    long interval = operationsPerSecond == 0 ? 0
+        : (long) (TimeUnit.SECONDS.toNanos(1) * workers / operationsPerSecond);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+
+    ExecutorService executor = VirtualThreads.newExecutor();
+    for (int i = 0; i < workers; i++) {
+      // Stagger the schedules so the workers do not all fire at the same instant.
+      long first = start + interval * i / workers;
+      executor.execute(() -> drive(first, interval, end, today, adds, reads));
+    }
+    executor.shutdown();
+    while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+      // The workers stop by themselves once the end time has passed.
+    }
+    return new Report(System.nanoTime() - start, adds, reads);
+  }
+
+  private void drive(long intended, long interval, long end, LocalDate today,
+      LatencyHistogram adds, LatencyHistogram reads) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (true) {
+      Team team = teams.get(random.nextInt(teams.size()));
+      boolean read = random.nextDouble() < readFraction;
+      TeamMember player = read ? null : players.next(random, today);
+      if (interval == 0) {
+        intended = System.nanoTime();
+      } else {
+        long wait = intended - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+      }
+      if (intended - end >= 0) {
+        return;
+      }
+      if (read) {
+        team.getAllPlayers();
+        reads.recordSince(intended);
+      } else {
+        team.addPlayer(player);
+        adds.recordSince(intended);
+      }
+      intended += interval;
+    }
+  }
+
+  /**
+   * Runs a load test against a new {@link League} and prints the report, followed by the league's
+   * add outcomes from its {@link TeamMetrics}. The options, all optional, are {@code --teams} (10),
+   * {@code --workers} (1000), {@code --rate} in operations per second over all workers (10000; 0
+   * runs as fast as possible), {@code --seconds} (10), {@code --reads} as the fraction of reads
+   * (0.5), and {@code --min-age} and {@code --max-age} in years (4 and 11, so some players are too
+   * old to register).
+   *
+   * @param args the options
+   * @throws InterruptedException if interrupted while the load runs
+   * @throws IllegalArgumentException if an option is unknown or its value is invalid
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int teamCount = 10;
+    int workers = 1000;
+    double rate = 10000;
+    double seconds = 10;
+    double reads = 0.5;
+    int minimumAge = 4;
+    int maximumAge = 11;
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("No value given for " + args[i] + ".");
+      }
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--teams":
+          teamCount = Integer.parseInt(value);
+          break;
+        case "--workers":
+          workers = Integer.parseInt(value);
+          break;
+        case "--rate":
+          rate = Double.parseDouble(value);
+          break;
+        case "--seconds":
+          seconds = Double.parseDouble(value);
+          break;
+        case "--reads":
+          reads = Double.parseDouble(value);
+          break;
+        case "--min-age":
+          minimumAge = Integer.parseInt(value);
+          break;
+        case "--max-age":
+          maximumAge = Integer.parseInt(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+      }
+    }
+
+    League league = new League();
+    league.enableMetrics();
+    List<Team> teams = new ArrayList<>();
+    for (int i = 0; i < teamCount; i++) {
+      teams.add(league.registerTeam("Team " + i, new SoccerTeam()));
+    }
+    LoadGenerator load = new LoadGenerator(teams, PlayerGenerator.uniform(minimumAge, maximumAge),
+        workers, rate, reads);
+    System.out.println(load.run(Duration.ofNanos((long) (seconds * 1e9))));
+    TeamMetricsMXBean metrics = league.getMetrics();
+    System.out.printf("  players: %d added, %d too old, %d roster full, %d evicted%n",
+        metrics.getPlayersAdded(), metrics.getPlayersRejectedForAge(),
+        metrics.getPlayersRejectedForFullRoster(), metrics.getPlayersEvicted());
+  }
+
+  /**
+   * The result of a load run: how long it took, and the latencies of the adds and reads. The
+   * latencies include any time an operation spent behind schedule.
+   */
+  public static final class Report {
+    private final long elapsedNanos;
+    private final LatencyHistogram adds;
+    private final LatencyHistogram reads;
+
+    private Report(long elapsedNanos, LatencyHistogram adds, LatencyHistogram reads) {
+      this.elapsedNanos = elapsedNanos;
+      this.adds = adds;
+      this.reads = reads;
+    }
+
+    /**
+     * Returns how long the run took, including waiting for the last operations to finish.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Returns the latencies of the adds.
+     *
+     * @return the histogram of add latencies
+     */
+    public LatencyHistogram getAdds() {
+      return adds;
+    }
+
+    /**
+     * Returns the latencies of the reads.
+     *
+     * @return the histogram of read latencies
+     */
+    public LatencyHistogram getReads() {
+      return reads;
+    }
+
+    /**
+     * Returns the number of operations completed per second, over adds and reads.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+      return (adds.getCount() + reads.getCount()) * (double) TimeUnit.SECONDS.toNanos(1)
+          / elapsedNanos;
+    }
+
+    /**
+     * Formats the throughput and the add and read latencies.
+     */
+    @Override public String toString() {
+      return String.format(Locale.ROOT, "%.0f ops/s over %.1fs%n  adds:  %s%n  reads: %s",
+          getThroughput(), elapsedNanos / 1e9, adds, reads);
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package team;
 
+import java.io.IOException;
+import java.util.Arrays;
 import javax.swing.SwingUtilities;
 
 /**
@@ -16,9 +18,15 @@ public class Main {
    * The main method is responsible for initializing the SoccerTeamView, SoccerTeam (as Team), and
    * SoccerTeamController components. It also sets the application window visible.
    *
-   * @param args The command-line arguments. This application does not use command-line arguments.
+   * @param args The command-line arguments. With {@code --server [port]}, the application runs the
+   *             headless {@link RegistrationServer} instead of the window.
+   * @throws IOException if the server's port cannot be bound
    */
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
+    if (args.length > 0 && "--server".equals(args[0])) {
+      RegistrationServer.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
     SwingUtilities.invokeLater(() -> {
       SoccerTeamView view = new SoccerTeamView();
       view.setVisible(true);
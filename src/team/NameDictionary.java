@@ -0,0 +1,89 @@
+package team;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe dictionary that maps names to compact integer ids. Names repeat heavily across a
+ * league, so stores of many players, such as {@link ColumnarPlayerStore} and
+ * {@link OffHeapPlayerRegistry}, keep the ids of names and every distinct name is stored once.
+ * <p>
+ * Looking up the id of a known name is a lock-free hash lookup and looking up the name of an id is
+ * an array read. Only adding a new name takes a lock. Ids are never reused and names are never
+ * removed, so a dictionary belongs to one store and is dropped with it.
+ */
+public final class NameDictionary {
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private final Object addLock = new Object();
+  private volatile String[] names = new String[1024];
+  private int size;
+
+  /**
+   * Constructs an empty dictionary.
+   */
+  public NameDictionary() {
+  }
+
+  /**
+   * Returns the id of a name, adding the name if it is new.
+   *
+   * @param name the name
+   * @return the id of the name
+   * @throws IllegalArgumentException if the name is null
+   */
+  public int idOf(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("A name cannot be null.");
+    }
+    Integer id = ids.get(name);
+    return id != null ? id : add(name);
+  }
+
+  /**
+   * Returns the name with the given id.
+   *
+   * @param id an id returned by {@link #idOf(String)}
+   * @return the name
+   * @throws IndexOutOfBoundsException if the id is not in the dictionary
+   */
+  public String nameOf(int id) {
+    String[] current = names;
+    String name = id >= 0 && id < current.length ? current[id] : null;
+    if (name == null) {
+      throw new IndexOutOfBoundsException("Unknown name id " + id + ".");
+    }
+    return name;
+  }
+
+  /**
+   * Returns the number of distinct names.
+   *
+   * @return the dictionary size
+   */
+  public int size() {
+    return ids.size();
+  }
+
+  /**
+   * Adds a name under the lock. The name is stored in the array before its id is published in the
+   * map, so any thread that obtains the id can read the name.
+   */
+  private int add(String name) {
+    synchronized (addLock) {
+      Integer existing = ids.get(name);
+      if (existing != null) {
+        return existing;
+      }
+      int id = size++;
+      String[] current = names;
+      if (id == current.length) {
+        current = Arrays.copyOf(current, id * 2);
+      }
+      current[id] = name;
+      names = current;
+      ids.put(name, id);
+      return id;
+    }
+  }
+}
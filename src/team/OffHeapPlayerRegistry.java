@@ -0,0 +1,277 @@
+package team;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A registry of players stored outside the Java heap, for registration pools of tens of millions
+ * of players. Every player is a fixed-width record of 16 bytes in a direct buffer:
+ * <pre>
+ *   int first name id, int last name id, int birth date as epoch day,
+ *   byte position ordinal, byte skill level ordinal, short reserved
+ * </pre>
+ * Records are stored in chunks of 2<sup>20</sup> players, so the registry grows without copying
+ * and is not limited by the 2 GB size of a single buffer. Names are stored as ids of a
+ * {@link NameDictionary} of the registry on the heap; a pool has far fewer distinct names than
+ * players.
+ * <p>
+ * Players are read through {@link PlayerRecord} flyweights, which implement {@link InterPlayer}
+ * over a record without copying it. {@link #forEach} scans all records with a single flyweight, and
+ * {@link #newTeamMember(int)} creates a team member that refers to its record, so a
+ * {@link SoccerTeam} only keeps the team-specific state of its players on the heap.
+ * <p>
+ * Appends must not run concurrently with any other use of the registry; reads may run concurrently
+ * with each other.
+ */
+public class OffHeapPlayerRegistry {
+  private static final int RECORD_SIZE = 16;
+  private static final int CHUNK_SHIFT = 20;
+  private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+  private static final int FIRST_NAME = 0;
+  private static final int LAST_NAME = 4;
+  private static final int BIRTH_DATE = 8;
+  private static final int POSITION = 12;
+  private static final int SKILL_LEVEL = 13;
+  private static final Position[] POSITIONS = Position.values();
+  private static final SkillLevel[] SKILL_LEVELS = SkillLevel.values();
+
+  private final NameDictionary names = new NameDictionary();
+  private ByteBuffer[] chunks = new ByteBuffer[0];
+  private int size;
+
+  /**
+   * Appends a player to the registry.
+   *
+   * @param player the player to append
+   * @return the id of the player's record
+   * @throws IllegalStateException if the registry is full
+   */
+  public int append(InterPlayer player) {
+    if (size == Integer.MAX_VALUE) {
+      throw new IllegalStateException("The player registry is full.");
+    }
+    int id = size;
+    int chunk = id >>> CHUNK_SHIFT;
+    if (chunk == chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunk + 1);
+      chunks[chunk] = ByteBuffer.allocateDirect(CHUNK_RECORDS * RECORD_SIZE);
+    }
+    chunks[chunk].putInt(offsetOf(id), names.idOf(player.getFirstName()))
+        .putInt(offsetOf(id) + LAST_NAME, names.idOf(player.getLastName()))
+        .putInt(offsetOf(id) + BIRTH_DATE, Math.toIntExact(player.getBirthDate().toEpochDay()))
+        .put(offsetOf(id) + POSITION, (byte) player.getPreferredPosition().ordinal())
+        .put(offsetOf(id) + SKILL_LEVEL, (byte) player.getSkillLevel().ordinal());
+    size++;
+    return id;
+  }
+
+  /**
+   * Returns the number of players in the registry.
+   *
+   * @return the number of records
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a view of the record with the given id.
+   *
+   * @param id the id of the record
+   * @return a flyweight positioned on the record
+   * @throws IndexOutOfBoundsException if there is no record with that id
+   */
+  public PlayerRecord get(int id) {
+    PlayerRecord record = new PlayerRecord(this);
+    record.moveTo(id);
+    return record;
+  }
+
+  /**
+   * Passes every record, in id order, to the given action. The same flyweight is moved from record
+   * to record, so the action must not keep it.
+   *
+   * @param action the action to perform on each record
+   */
+  public void forEach(Consumer<? super PlayerRecord> action) {
+    PlayerRecord record = new PlayerRecord(this);
+    for (int id = 0; id < size; id++) {
+      record.id = id;
+      action.accept(record);
+    }
+  }
+
+  /**
+   * Creates a team member whose name, birth date, position and skill level are read from the
+   * record with the given id. Only its jersey number and lineup position are held on the heap.
+   *
+   * @param id the id of the record
+   * @return the team member
+   * @throws IndexOutOfBoundsException if there is no record with that id
+   */
+  public TeamMember newTeamMember(int id) {
+    return new RegisteredTeamMember(get(id));
+  }
+
+  /**
+   * Returns the skill level ordinal of a record, without creating a view.
+   *
+   * @param id the id of the record
+   * @return the skill level ordinal
+   */
+  public int skillLevelOrdinal(int id) {
+    return chunkOf(checkId(id)).get(offsetOf(id) + SKILL_LEVEL);
+  }
+
+  /**
+   * Returns the position ordinal of a record, without creating a view.
+   *
+   * @param id the id of the record
+   * @return the preferred position ordinal
+   */
+  public int positionOrdinal(int id) {
+    return chunkOf(checkId(id)).get(offsetOf(id) + POSITION);
+  }
+
+  /**
+   * Returns the birth date of a record as an epoch day, without creating a view.
+   *
+   * @param id the id of the record
+   * @return the birth date as a number of days since 1970-01-01
+   */
+  public int birthEpochDay(int id) {
+    return chunkOf(checkId(id)).getInt(offsetOf(id) + BIRTH_DATE);
+  }
+
+  private int checkId(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("No player with id " + id + ".");
+    }
+    return id;
+  }
+
+  private ByteBuffer chunkOf(int id) {
+    return chunks[id >>> CHUNK_SHIFT];
+  }
+
+  private static int offsetOf(int id) {
+    return (id & (CHUNK_RECORDS - 1)) * RECORD_SIZE;
+  }
+
+  /**
+   * A flyweight {@link InterPlayer} over one record of the registry. Reading a name returns the
+   * dictionary's string without copying; the birth date is decoded on every call.
+   */
+  public static final class PlayerRecord implements InterPlayer {
+    private final OffHeapPlayerRegistry registry;
+    private int id;
+
+    private PlayerRecord(OffHeapPlayerRegistry registry) {
+      this.registry = registry;
+    }
+
+    /**
+     * Moves this view to another record.
+     *
+     * @param id the id of the record
+     * @throws IndexOutOfBoundsException if there is no record with that id
+     */
+    public void moveTo(int id) {
+      this.id = registry.checkId(id);
+    }
+
+    /**
+     * Returns the id of the record this view is on.
+     *
+     * @return the record id
+     */
+    public int getId() {
+      return id;
+    }
+
+    @Override public String getFirstName() {
+      return registry.names.nameOf(buffer().getInt(offsetOf(id) + FIRST_NAME));
+    }
+
+    @Override public String getLastName() {
+      return registry.names.nameOf(buffer().getInt(offsetOf(id) + LAST_NAME));
+    }
+
+    @Override public String getDateOfBirth() {
+      return getBirthDate().toString();
+    }
+
+    @Override public LocalDate getBirthDate() {
+      return LocalDate.ofEpochDay(buffer().getInt(offsetOf(id) + BIRTH_DATE));
+    }
+
+    @Override public Position getPreferredPosition() {
+      return POSITIONS[buffer().get(offsetOf(id) + POSITION)];
+    }
+
+    @Override public SkillLevel getSkillLevel() {
+      return SKILL_LEVELS[buffer().get(offsetOf(id) + SKILL_LEVEL)];
+    }
+
+    @Override public String getFullName() {
+      return getFirstName() + " " + getLastName();
+    }
+
+    @Override public int getAge() {
+      return getAge(LocalDate.now());
+    }
+
+    @Override public int getAge(LocalDate asOf) {
+      return AgeCalculator.ageOn(getBirthDate(), asOf);
+    }
+
+    private ByteBuffer buffer() {
+      return registry.chunkOf(id);
+    }
+  }
+
+  /**
+   * A team member whose player data lives in a registry record.
+   */
+  private static final class RegisteredTeamMember extends TeamMember {
+    private final PlayerRecord record;
+
+    private RegisteredTeamMember(PlayerRecord record) {
+      this.record = record;
+    }
+
+    @Override public String getFirstName() {
+      return record.getFirstName();
+    }
+
+    @Override public String getLastName() {
+      return record.getLastName();
+    }
+
+    @Override public String getDateOfBirth() {
+      return record.getDateOfBirth();
+    }
+
+    @Override public LocalDate getBirthDate() {
+      return record.getBirthDate();
+    }
+
+    @Override public Position getPreferredPosition() {
+      return record.getPreferredPosition();
+    }
+
+    @Override public SkillLevel getSkillLevel() {
+      return record.getSkillLevel();
+    }
+
+    @Override public String getFullName() {
+      return record.getFullName();
+    }
+
+    @Override public int getAge(LocalDate asOf) {
+      return record.getAge(asOf);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Creates synthetic players for load tests, with configurable distributions of ages, preferred
+ * positions and skill levels. Each distribution is given as relative weights: for ages, one weight
+ * per age in whole years starting at 0; for positions and skill levels, one weight per constant in
+ * declaration order. Birth dates are spread evenly over the year of the drawn age, and names are
+ * drawn from fixed pools, so generated players share their name strings.
+ * <p>
+ * A generator has no mutable state; each thread passes its own {@link Random}.
+ */
+public final class PlayerGenerator {
+  private static final Position[] POSITIONS = Position.values();
+  private static final SkillLevel[] SKILL_LEVELS = SkillLevel.values();
+  private static final String[] FIRST_NAMES = names("First", 200);
+  private static final String[] LAST_NAMES = names("Last", 1000);
+
+  private final double[] ageWeights;
+  private final double[] positionWeights;
+  private final double[] skillWeights;
+
+  /**
+   * Constructs a generator with the given distributions.
+   *
+   * @param ageWeights      the relative weight of each age in years, starting at age 0
+   * @param positionWeights the relative weight of each {@link Position}, by ordinal
+   * @param skillWeights    the relative weight of each {@link SkillLevel}, by ordinal
+   * @throws IllegalArgumentException if a weight is negative, all weights of a distribution are 0,
+   *                                  or the number of position or skill weights is wrong
+   */
+  public PlayerGenerator(double[] ageWeights, double[] positionWeights, double[] skillWeights) {
+    if (positionWeights.length != POSITIONS.length || skillWeights.length != SKILL_LEVELS.length) {
+      throw new IllegalArgumentException("Expected " + POSITIONS.length + " position weights and "
+          + SKILL_LEVELS.length + " skill weights.");
+    }
+    this.ageWeights = cumulative(ageWeights, "age");
+    this.positionWeights = cumulative(positionWeights, "position");
+    this.skillWeights = cumulative(skillWeights, "skill");
+  }
+
+  /**
+   * Returns a generator whose players are evenly spread over the given ages, positions and skill
+   * levels.
+   *
+   * @param minimumAge the lowest age in years
+   * @param maximumAge the highest age in years
+   * @return the generator
+   * @throws IllegalArgumentException if the minimum age is negative or above the maximum
+   */
+  public static PlayerGenerator uniform(int minimumAge, int maximumAge) {
+    if (minimumAge < 0 || minimumAge > maximumAge) {
+      throw new IllegalArgumentException(
+          "Invalid age range: " + minimumAge + " to " + maximumAge + ".");
+    }
+    double[] ages = new double[maximumAge + 1];
+    Arrays.fill(ages, minimumAge, maximumAge + 1, 1);
+    double[] positions = new double[POSITIONS.length];
+    Arrays.fill(positions, 1);
+    double[] skills = new double[SKILL_LEVELS.length];
+    Arrays.fill(skills, 1);
+    return new PlayerGenerator(ages, positions, skills);
+  }
+
+  /**
+   * Creates a player.
+   *
+   * @param random the source of randomness
+   * @param asOf   the date the player's age refers to
+   * @return the new player
+   */
+  public TeamMember next(Random random, LocalDate asOf) {
+    int age = draw(ageWeights, random);
+    LocalDate birthDate = asOf.minusYears(age + 1).plusDays(1 + random.nextInt(365));
+    return new TeamMember(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+        LAST_NAMES[random.nextInt(LAST_NAMES.length)], birthDate,
+        POSITIONS[draw(positionWeights, random)], SKILL_LEVELS[draw(skillWeights, random)]);
+  }
+
+  private static int draw(double[] cumulative, Random random) {
+    double target = random.nextDouble() * cumulative[cumulative.length - 1];
+    int index = Arrays.binarySearch(cumulative, target);
+    index = index < 0 ? -index - 1 : index + 1;
+    // Skip zero-weight entries that share their cumulative value with the previous entry.
+    while (index < cumulative.length - 1 && cumulative[index] <= target) {
+      index++;
+    }
+    return Math.min(index, cumulative.length - 1);
+  }
+
+  private static double[] cumulative(double[] weights, String what) {
+    double[] cumulative = new double[weights.length];
+    double total = 0;
+    for (int i = 0; i < weights.length; i++) {
+      if (!(weights[i] >= 0)) {
+        throw new IllegalArgumentException("Invalid " + what + " weight: " + weights[i] + ".");
+      }
+      total += weights[i];
+      cumulative[i] = total;
+    }
+    if (total == 0) {
+      throw new IllegalArgumentException("At least one " + what + " weight must be positive.");
+    }
+    return cumulative;
+  }
+
+  private static String[] names(String prefix, int count) {
+    String[] names = new String[count];
+    for (int i = 0; i < count; i++) {
+      names[i] = prefix + i;
+    }
+    return names;
+  }
+}
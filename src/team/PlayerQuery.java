@@ -0,0 +1,300 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy query over the players of every team in a {@link League}, for example all goalies under 8
+ * at skill level 4 or above:
+ * <pre>
+ *   long count = league.query()
+ *       .atPosition(Position.GOALIE)
+ *       .agedBetween(0, 7, LocalDate.now())
+ *       .withSkillAtLeast(SkillLevel.LEVEL_4)
+ *       .parallelStream()
+ *       .count();
+ * </pre>
+ * A query is immutable; every filter method returns a new query. Nothing is read from the league
+ * until a terminal operation runs on one of the query's streams. The stream then takes each team's
+ * published {@link RosterSnapshot} and walks its players in place, so no player is copied. When
+ * the query is restricted to a position or a single skill level, only that bucket of each team's
+ * index is read.
+ * <p>
+ * Parallel streams split the league into ranges of whole teams, so a team's players are always
+ * processed by one thread and each snapshot is read from a single worker. Players are streamed
+ * team by team and, within a team, sorted by last name and then first name.
+ */
+public final class PlayerQuery {
+  private static final SkillLevel[] SKILL_LEVELS = SkillLevel.values();
+
+  private final Supplier<RosterSnapshot[]> teams;
+  private final Position position;
+  private final SkillLevel minimumSkill;
+  private final SkillLevel maximumSkill;
+  private final int minimumAge;
+  private final int maximumAge;
+  private final LocalDate asOf;
+  private final Boolean starting;
+
+  /**
+   * Constructs a query that matches every player of the given teams.
+   *
+   * @param teams returns the snapshots of the teams to query, once per terminal operation
+   */
+  PlayerQuery(Supplier<RosterSnapshot[]> teams) {
+    this(teams, null, SKILL_LEVELS[0], SKILL_LEVELS[SKILL_LEVELS.length - 1], 0,
+        Integer.MAX_VALUE, null, null);
+  }
+
+  private PlayerQuery(Supplier<RosterSnapshot[]> teams, Position position,
+      SkillLevel minimumSkill, SkillLevel maximumSkill, int minimumAge, int maximumAge,
+      LocalDate asOf, Boolean starting) {
+    this.teams = teams;
+    this.position = position;
+    this.minimumSkill = minimumSkill;
+    this.maximumSkill = maximumSkill;
+    this.minimumAge = minimumAge;
+    this.maximumAge = maximumAge;
+    this.asOf = asOf;
+    this.starting = starting;
+  }
+
+  /**
+   * Restricts the query to players who prefer the given position.
+   *
+   * @param position the preferred position
+   * @return the restricted query
+   */
+  public PlayerQuery atPosition(Position position) {
+    return new PlayerQuery(teams, position, minimumSkill, maximumSkill, minimumAge, maximumAge,
+        asOf, starting);
+  }
+
+  /**
+   * Restricts the query to players with exactly the given skill level.
+   *
+   * @param skillLevel the skill level
+   * @return the restricted query
+   */
+  public PlayerQuery withSkill(SkillLevel skillLevel) {
+    return withSkillBetween(skillLevel, skillLevel);
+  }
+
+  /**
+   * Restricts the query to players with at least the given skill level.
+   *
+   * @param skillLevel the lowest skill level
+   * @return the restricted query
+   */
+  public PlayerQuery withSkillAtLeast(SkillLevel skillLevel) {
+    return withSkillBetween(skillLevel, maximumSkill);
+  }
+
+  /**
+   * Restricts the query to players whose skill level is in the given range.
+   *
+   * @param minimumSkill the lowest skill level, inclusive
+   * @param maximumSkill the highest skill level, inclusive
+   * @return the restricted query
+   * @throws IllegalArgumentException if the minimum is above the maximum
+   */
+  public PlayerQuery withSkillBetween(SkillLevel minimumSkill, SkillLevel maximumSkill) {
+    if (minimumSkill.compareTo(maximumSkill) > 0) {
+      throw new IllegalArgumentException(
+          "Invalid skill range: " + minimumSkill + " to " + maximumSkill + ".");
+    }
+    return new PlayerQuery(teams, position, minimumSkill, maximumSkill, minimumAge, maximumAge,
+        asOf, starting);
+  }
+
+  /**
+   * Restricts the query to players whose age on the given date is in the given band. An under-8
+   * band is {@code agedBetween(0, 7, date)}.
+   *
+   * @param minimumAge the lowest age in whole years, inclusive
+   * @param maximumAge the highest age in whole years, inclusive
+   * @param asOf       the date the ages are computed on
+   * @return the restricted query
+   * @throws IllegalArgumentException if the minimum is negative or above the maximum
+   * @throws NullPointerException     if the date is null
+   */
+  public PlayerQuery agedBetween(int minimumAge, int maximumAge, LocalDate asOf) {
+    Objects.requireNonNull(asOf, "The date the ages are computed on cannot be null.");
+    if (minimumAge < 0 || minimumAge > maximumAge) {
+      throw new IllegalArgumentException(
+          "Invalid age band: " + minimumAge + " to " + maximumAge + ".");
+    }
+    return new PlayerQuery(teams, position, minimumSkill, maximumSkill, minimumAge, maximumAge,
+        asOf, starting);
+  }
+
+  /**
+   * Restricts the query to players in or out of their team's starting lineup. Teams that cannot
+   * form a lineup yet have no starters.
+   *
+   * @param starting {@code true} for starters, {@code false} for players on the bench
+   * @return the restricted query
+   */
+  public PlayerQuery inStartingLineup(boolean starting) {
+    return new PlayerQuery(teams, position, minimumSkill, maximumSkill, minimumAge, maximumAge,
+        asOf, starting);
+  }
+
+  /**
+   * Returns a sequential stream of the matching players.
+   *
+   * @return the players, which are snapshot copies and cannot be modified
+   */
+  public Stream<TeamMember> stream() {
+    return stream(false);
+  }
+
+  /**
+   * Returns a parallel stream of the matching players that splits the league by team.
+   *
+   * @return the players, which are snapshot copies and cannot be modified
+   */
+  public Stream<TeamMember> parallelStream() {
+    return stream(true);
+  }
+
+  private Stream<TeamMember> stream(boolean parallel) {
+    return StreamSupport.stream(() -> {
+      RosterSnapshot[] snapshots = teams.get();
+      long size = 0;
+      for (RosterSnapshot snapshot : snapshots) {
+        size += snapshot.getAllPlayers().size();
+      }
+      return new PlayerSpliterator(snapshots, 0, snapshots.length, size);
+    }, Spliterator.NONNULL | Spliterator.IMMUTABLE | Spliterator.ORDERED, parallel);
+  }
+
+  /**
+   * Returns the players of a team that can match, using the smallest index bucket that the filters
+   * allow.
+   */
+  private List<TeamMember> candidates(RosterSnapshot snapshot) {
+    if (position != null) {
+      return snapshot.getPlayersByPosition(position);
+    }
+    if (minimumSkill == maximumSkill) {
+      return snapshot.getPlayersBySkillLevel(minimumSkill);
+    }
+    return snapshot.getAllPlayers();
+  }
+
+  private boolean matches(RosterSnapshot snapshot, TeamMember player) {
+    if (position != null && player.getPreferredPosition() != position) {
+      return false;
+    }
+    SkillLevel skill = player.getSkillLevel();
+    if (skill.compareTo(minimumSkill) < 0 || skill.compareTo(maximumSkill) > 0) {
+      return false;
+    }
+    if (asOf != null) {
+      int age = AgeCalculator.ageOn(player.getBirthDate(), asOf);
+      if (age < minimumAge || age > maximumAge) {
+        return false;
+      }
+    }
+    return starting == null || snapshot.isInStartingLineup(player) == starting;
+  }
+
+  /**
+   * Walks the candidates of a range of teams. Splitting hands the second half of the teams that
+   * have not been started to a new spliterator, so a team is never divided. The size is counted
+   * once for the whole league and halved on every split, as the stream framework asks for it on
+   * every split.
+   */
+  private final class PlayerSpliterator implements Spliterator<TeamMember> {
+    private final RosterSnapshot[] snapshots;
+    private int nextTeam;
+    private final int endTeam;
+    private RosterSnapshot current;
+    private List<TeamMember> players;
+    private int nextPlayer;
+    private long estimatedSize;
+
+    private PlayerSpliterator(RosterSnapshot[] snapshots, int fromTeam, int toTeam,
+        long estimatedSize) {
+      this.snapshots = snapshots;
+      this.nextTeam = fromTeam;
+      this.endTeam = toTeam;
+      this.estimatedSize = estimatedSize;
+    }
+
+    @Override public boolean tryAdvance(Consumer<? super TeamMember> action) {
+      while (true) {
+        if (players != null) {
+          while (nextPlayer < players.size()) {
+            TeamMember player = players.get(nextPlayer++);
+            if (matches(current, player)) {
+              action.accept(player);
+              return true;
+            }
+          }
+        }
+        if (nextTeam == endTeam) {
+          return false;
+        }
+        current = snapshots[nextTeam++];
+        players = candidates(current);
+        nextPlayer = 0;
+      }
+    }
+
+    @Override public void forEachRemaining(Consumer<? super TeamMember> action) {
+      if (players != null) {
+        while (nextPlayer < players.size()) {
+          TeamMember player = players.get(nextPlayer++);
+          if (matches(current, player)) {
+            action.accept(player);
+          }
+        }
+      }
+      while (nextTeam < endTeam) {
+        current = snapshots[nextTeam++];
+        players = candidates(current);
+        for (TeamMember player : players) {
+          if (matches(current, player)) {
+            action.accept(player);
+          }
+        }
+        nextPlayer = players.size();
+      }
+    }
+
+    @Override public Spliterator<TeamMember> trySplit() {
+      int remaining = endTeam - nextTeam;
+      if (remaining < 2) {
+        return null;
+      }
+      int middle = nextTeam + (remaining >>> 1);
+      long prefixSize = estimatedSize >>> 1;
+      PlayerSpliterator prefix = new PlayerSpliterator(snapshots, nextTeam, middle, prefixSize);
+      if (players != null && nextPlayer < players.size()) {
+        prefix.current = current;
+        prefix.players = players;
+        prefix.nextPlayer = nextPlayer;
+      }
+      players = null;
+      nextTeam = middle;
+      estimatedSize -= prefixSize;
+      return prefix;
+    }
+
+    @Override public long estimateSize() {
+      return estimatedSize;
+    }
+
+    @Override public int characteristics() {
+      return Spliterator.NONNULL | Spliterator.IMMUTABLE | Spliterator.ORDERED;
+    }
+  }
+}
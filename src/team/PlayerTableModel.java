@@ -0,0 +1,124 @@
+package team;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A table model over a list of players, such as a {@link RosterSnapshot}'s roster or starting
+ * lineup. The model keeps a reference to the list instead of copying it, and a {@link
+ * javax.swing.JTable} only asks for the cells of the rows it paints, so showing a roster of any
+ * size costs the same as showing one screen of it.
+ * <p>
+ * When a new list is set, the model compares it with the old one and fires events for the changed
+ * rows only: the rows before the first difference and after the last one are kept, so adding one
+ * player to a sorted roster is a single row insertion and the table repaints a single row. Like all
+ * Swing models, it must only be used on the event dispatch thread.
+ */
+public final class PlayerTableModel extends AbstractTableModel {
+  private static final long serialVersionUID = 1L;
+  private static final String[] COLUMNS = {"Name", "Jersey Number", "Position", "Skill Level",
+      "Date of Birth"};
+  private static final Class<?>[] COLUMN_CLASSES = {String.class, Integer.class, Position.class,
+      SkillLevel.class, LocalDate.class};
+
+  private transient List<TeamMember> players = Collections.emptyList();
+
+  /**
+   * Replaces the players shown by the model and fires events for the rows that differ. The list
+   * must not change afterwards; the lists of a {@link RosterSnapshot} never do.
+   *
+   * @param players the players to show, in display order
+   */
+  public void setPlayers(List<TeamMember> players) {
+    List<TeamMember> old = this.players;
+    this.players = players;
+
+    int oldSize = old.size();
+    int newSize = players.size();
+    int start = 0;
+    while (start < oldSize && start < newSize && sameRow(old.get(start), players.get(start))) {
+      start++;
+    }
+    int oldEnd = oldSize;
+    int newEnd = newSize;
+    while (oldEnd > start && newEnd > start
+        && sameRow(old.get(oldEnd - 1), players.get(newEnd - 1))) {
+      oldEnd--;
+      newEnd--;
+    }
+
+    // The rows in [start, oldEnd) were replaced by the rows in [start, newEnd).
+    int common = Math.min(oldEnd, newEnd) - start;
+    if (common > 0) {
+      fireTableRowsUpdated(start, start + common - 1);
+    }
+    if (oldEnd > newEnd) {
+      fireTableRowsDeleted(start + common, oldEnd - 1);
+    } else if (newEnd > oldEnd) {
+      fireTableRowsInserted(start + common, newEnd - 1);
+    }
+  }
+
+  /**
+   * Returns the player shown in the given row.
+   *
+   * @param row the row index
+   * @return the player
+   */
+  public TeamMember getPlayer(int row) {
+    return players.get(row);
+  }
+
+  @Override public int getRowCount() {
+    return players.size();
+  }
+
+  @Override public int getColumnCount() {
+    return COLUMNS.length;
+  }
+
+  @Override public String getColumnName(int column) {
+    return COLUMNS[column];
+  }
+
+  @Override public Class<?> getColumnClass(int column) {
+    return COLUMN_CLASSES[column];
+  }
+
+  @Override public Object getValueAt(int row, int column) {
+    TeamMember player = players.get(row);
+    switch (column) {
+      case 0:
+        return player.getFullName();
+      case 1:
+        return player.getJerseyNumber();
+      case 2:
+        return displayedPosition(player);
+      case 3:
+        return player.getSkillLevel();
+      case 4:
+        return player.getBirthDate();
+      default:
+        throw new IndexOutOfBoundsException("No column " + column + ".");
+    }
+  }
+
+  /**
+   * Returns whether two players are shown the same way, so their row does not need repainting.
+   * Players are snapshot copies, so the same player is matched by the order in which they joined
+   * the team rather than by identity; names and birth dates never change.
+   */
+  private static boolean sameRow(TeamMember a, TeamMember b) {
+    return a.getRosterSequence() == b.getRosterSequence()
+        && a.getJerseyNumber() == b.getJerseyNumber()
+        && displayedPosition(a) == displayedPosition(b)
+        && a.getSkillLevel() == b.getSkillLevel();
+  }
+
+  private static Position displayedPosition(TeamMember player) {
+    Position actualPosition = player.getActualPosition();
+    return actualPosition != null ? actualPosition : player.getPreferredPosition();
+  }
+}
@@ -20,4 +20,15 @@ public enum Position {
 
     this.maxPlayers = maxPlayers;
   }
+
+  /**
+   * Returns the maximum number of players allowed in the starting lineup for this position in the
+   * default 7-a-side formation.
+   *
+   * @return the maximum number of players for this position
+   * @see Formation#SEVEN_A_SIDE
+   */
+  public int getMaxPlayers() {
+    return maxPlayers;
+  }
 }
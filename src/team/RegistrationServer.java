@@ -0,0 +1,254 @@
+package team;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A headless HTTP server for registering players with the teams of a {@link League}, built on the
+ * JDK's {@link HttpServer}. All bodies are JSON in the shape read by {@link JsonReader} and written
+ * by {@link JsonWriter}:
+ * <pre>
+ *   PUT  /teams/{team}                registers an empty team   201, or 409 if it exists
+ *   POST /teams/{team}/players        adds one player           {"message": "..."}
+ *   POST /teams/{team}/players/batch  adds an array of players  {"messages": ["...", ...]}
+ *   GET  /teams/{team}/players        the roster, by name       [player, ...]
+ *   GET  /teams/{team}/lineup         the starting lineup       [player, ...], or 409 if none
+ * </pre>
+ * Malformed bodies and invalid dates are answered with 400, unknown teams with 404, and bodies over
+ * 1 MB or batches of more than 1,000 players with 413, so a client cannot make the server buffer
+ * an unbounded request. Every error body is {@code {"error": "..."}}. Unexpected failures are
+ * answered with 500 and a generic message, and their cause is logged on the server only.
+ * Responses are encoded straight into the response stream from the teams' published snapshots,
+ * so reads never wait for writers and build no intermediate strings.
+ * <p>
+ * Each exchange runs on its own virtual thread when the JDK supports them (Java 21 and later), so
+ * thousands of concurrent clients do not need thousands of platform threads. On older JDKs the
+ * server falls back to a cached thread pool.
+ */
+public final class RegistrationServer implements Closeable {
+  private static final System.Logger LOG = System.getLogger(RegistrationServer.class.getName());
+  private static final String JSON = "application/json; charset=utf-8";
+  private static final int MAX_BODY_BYTES = 1 << 20;
+  private static final int MAX_BATCH_PLAYERS = 1000;
+
+  private final League league;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Creates a server for the given league and binds it to the given address. The server does not
+   * accept requests until {@link #start()} is called.
+   *
+   * @param league  the league whose teams are served
+   * @param address the address to bind to; port 0 picks a free port
+   * @throws IOException if the address cannot be bound
+   */
+  public RegistrationServer(League league, InetSocketAddress address) throws IOException {
+    this.league = league;
+    this.server = HttpServer.create(address, 1024);
+    this.executor = VirtualThreads.newExecutor();
+    server.setExecutor(executor);
+    server.createContext("/teams/", this::handle);
+  }
+
+  /**
+   * Starts accepting requests.
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Returns the port the server is bound to.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops the server, waiting up to a second for exchanges in progress to finish.
+   */
+  @Override public void close() {
+    server.stop(1);
+    executor.shutdown();
+  }
+
+  /**
+   * Runs a server on the given port, 8080 by default, with an empty league. Teams are registered
+   * with {@code PUT /teams/{team}}. The league's metrics are enabled and published over JMX as
+   * {@code team:type=TeamMetrics,name="league"}.
+   *
+   * @param args the port, optionally
+   * @throws IOException if the port cannot be bound
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+    League league = new League();
+    league.enableMetrics();
+    TeamMetrics.register(league.getMetrics(), "league");
+    RegistrationServer server = new RegistrationServer(league, new InetSocketAddress(port));
+    server.start();
+    System.out.println("Registration server listening on port " + server.getPort() + ".");
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      route(exchange);
+    } catch (IllegalArgumentException e) {
+      sendError(exchange, 400, e.getMessage());
+    } catch (RuntimeException e) {
+      LOG.log(System.Logger.Level.ERROR, exchange.getRequestMethod() + " "
+          + exchange.getRequestURI() + " failed.", e);
+      sendError(exchange, 500, "Internal server error.");
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void route(HttpExchange exchange) throws IOException {
+    // The path is /teams/{team}, /teams/{team}/players, /teams/{team}/players/batch or
+    // /teams/{team}/lineup; team names are percent-decoded by URI.getPath().
+    String path = exchange.getRequestURI().getPath().substring("/teams/".length());
+    int slash = path.indexOf('/');
+    String teamName = slash < 0 ? path : path.substring(0, slash);
+    String resource = slash < 0 ? "" : path.substring(slash + 1);
+    String method = exchange.getRequestMethod();
+    if (teamName.isEmpty()) {
+      sendError(exchange, 404, "No team given.");
+      return;
+    }
+
+    if (resource.isEmpty()) {
+      if (!requireMethod(exchange, method, "PUT")) {
+        return;
+      }
+      try {
+        league.registerTeam(teamName, new SoccerTeam());
+      } catch (IllegalArgumentException e) {
+        sendError(exchange, 409, e.getMessage());
+        return;
+      }
+      exchange.sendResponseHeaders(201, -1);
+      return;
+    }
+
+    ConcurrentSoccerTeam team = league.getTeam(teamName);
+    if (team == null) {
+      sendError(exchange, 404, "No team named \"" + teamName + "\" is registered.");
+      return;
+    }
+    switch (resource) {
+      case "players":
+        if ("GET".equals(method)) {
+          JsonWriter json = beginJson(exchange, 200);
+          json.players(team.getSnapshot().getAllPlayers());
+          json.flush();
+        } else if (requireMethod(exchange, method, "POST")) {
+          String body = readBody(exchange);
+          if (body == null) {
+            return;
+          }
+          TeamMember player = new JsonReader(body).readPlayer();
+          String message = team.addPlayer(player);
+          JsonWriter json = beginJson(exchange, 200);
+          json.beginObject().name("message").value(message).endObject();
+          json.flush();
+        }
+        break;
+      case "players/batch":
+        if (requireMethod(exchange, method, "POST")) {
+          String body = readBody(exchange);
+          if (body == null) {
+            return;
+          }
+          List<TeamMember> players = new JsonReader(body).readPlayers();
+          if (players.size() > MAX_BATCH_PLAYERS) {
+            sendError(exchange, 413, "A batch can have at most " + MAX_BATCH_PLAYERS
+                + " players, not " + players.size() + ".");
+            return;
+          }
+          List<String> messages = team.addPlayers(players);
+          JsonWriter json = beginJson(exchange, 200);
+          json.beginObject().name("messages").beginArray();
+          for (String message : messages) {
+            json.value(message);
+          }
+          json.endArray().endObject();
+          json.flush();
+        }
+        break;
+      case "lineup":
+        if (requireMethod(exchange, method, "GET")) {
+          List<TeamMember> lineup;
+          try {
+            lineup = team.getStartingLineup();
+          } catch (IllegalStateException e) {
+            sendError(exchange, 409, e.getMessage());
+            return;
+          }
+          JsonWriter json = beginJson(exchange, 200);
+          json.players(lineup);
+          json.flush();
+        }
+        break;
+      default:
+        sendError(exchange, 404, "Unknown resource \"" + resource + "\".");
+    }
+  }
+
+  private static boolean requireMethod(HttpExchange exchange, String method, String expected)
+      throws IOException {
+    if (expected.equals(method)) {
+      return true;
+    }
+    exchange.getResponseHeaders().set("Allow", expected);
+    sendError(exchange, 405, "Use " + expected + ".");
+    return false;
+  }
+
+  /**
+   * Sends the response headers for a chunked JSON body and returns a writer for the body.
+   */
+  private static JsonWriter beginJson(HttpExchange exchange, int status) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", JSON);
+    exchange.sendResponseHeaders(status, 0);
+    return new JsonWriter(exchange.getResponseBody());
+  }
+
+  private static void sendError(HttpExchange exchange, int status, String message)
+      throws IOException {
+    JsonWriter json = beginJson(exchange, status);
+    json.beginObject().name("error").value(message).endObject();
+    json.flush();
+  }
+
+  /**
+   * Reads the request body, or answers 413 and returns null as soon as it is longer than
+   * {@link #MAX_BODY_BYTES}, without reading the rest of it.
+   */
+  private static String readBody(HttpExchange exchange) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    try (InputStream in = exchange.getRequestBody()) {
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        if (body.size() + read > MAX_BODY_BYTES) {
+          sendError(exchange, 413, "A request body can have at most " + MAX_BODY_BYTES
+              + " bytes.");
+          return null;
+        }
+        body.write(buffer, 0, read);
+      }
+    }
+    return new String(body.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
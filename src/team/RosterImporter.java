@@ -0,0 +1,495 @@
+package team;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The RosterImporter class bulk-loads players from registration exports into {@link Team}s. Files
+ * are streamed through a fixed-size NIO buffer, so memory use does not depend on the file size.
+ * <p>
+ * Each row names the team the player registers for, and the importer routes it to the team returned
+ * by its router function, which is asked once per team name. Rows are buffered per team and added
+ * with {@link Team#addPlayersWithResults} in batches. At most 10,000 rows are buffered over all
+ * teams; when a file spreads its rows over so many teams that the cap is reached before their
+ * batches fill up, every buffered batch is added early. Rows that cannot be parsed, that name an
+ * unknown team, or that the team rejects (for example because of the player's age or a full
+ * roster, as told by the {@link AddResult.Outcome}) are written to an error file together with
+ * their line number and the reason.
+ * <p>
+ * Two formats are supported:
+ * <ul>
+ *   <li>CSV with a header row naming the columns {@code team}, {@code firstName},
+ *   {@code lastName}, {@code dateOfBirth}, {@code position} and {@code skillLevel}, in any
+ *   order. Fields may be quoted with double quotes.</li>
+ *   <li>NDJSON, one flat JSON object per line with the same keys.</li>
+ * </ul>
+ * Positions are given by name (e.g. {@code DEFENDER}) and skill levels either by name
+ * ({@code LEVEL_3}) or by number ({@code 3}).
+ */
+public class RosterImporter {
+  private static final String[] COLUMNS =
+      {"team", "firstName", "lastName", "dateOfBirth", "position", "skillLevel"};
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_BUFFERED_ROWS = 10_000;
+  private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+  private final Function<String, Team> router;
+  private final int batchSize;
+  private final PrintStream progress;
+
+  /**
+   * The file formats understood by the importer.
+   */
+  public enum Format {
+    CSV, NDJSON;
+
+    /**
+     * Guesses the format of a file from its extension: {@code .ndjson}, {@code .jsonl} and
+     * {@code .json} are read as NDJSON, everything else as CSV.
+     *
+     * @param file the file to import
+     * @return the format of the file
+     */
+    public static Format of(Path file) {
+      String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+      return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")
+          ? NDJSON : CSV;
+    }
+  }
+
+  /**
+   * Constructs an importer that adds players in batches of 500 and does not report progress.
+   *
+   * @param router maps the team name of a row to the team to add the player to, or to
+   *               {@code null} if the team is unknown
+   */
+  public RosterImporter(Function<String, Team> router) {
+    this(router, 500, null);
+  }
+
+  /**
+   * Constructs an importer.
+   *
+   * @param router    maps the team name of a row to the team to add the player to, or to
+   *                  {@code null} if the team is unknown
+   * @param batchSize the number of rows buffered per team before they are added
+   * @param progress  the stream to report progress to about once a second, or {@code null}
+   * @throws IllegalArgumentException if the batch size is not positive
+   */
+  public RosterImporter(Function<String, Team> router, int batchSize, PrintStream progress) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("The batch size must be positive.");
+    }
+    this.router = router;
+    this.batchSize = batchSize;
+    this.progress = progress;
+  }
+
+  /**
+   * Imports a file, guessing its format from the file extension.
+   *
+   * @param input     the file to import
+   * @param errorFile the file rejected rows are written to; it is replaced if it exists
+   * @return a summary of the import
+   * @throws IOException if the input cannot be read or the error file cannot be written
+   */
+  public ImportSummary importFile(Path input, Path errorFile) throws IOException {
+    return importFile(input, Format.of(input), errorFile);
+  }
+
+  /**
+   * Imports a file in the given format.
+   *
+   * @param input     the file to import
+   * @param format    the format of the file
+   * @param errorFile the file rejected rows are written to; it is replaced if it exists
+   * @return a summary of the import
+   * @throws IOException              if the input cannot be read or the error file cannot be
+   *                                  written
+   * @throws IllegalArgumentException if a CSV file does not start with a valid header row
+   */
+  public ImportSummary importFile(Path input, Format format, Path errorFile) throws IOException {
+    try (LineReader reader = new LineReader(FileChannel.open(input, StandardOpenOption.READ));
+        BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+      Run run = new Run(errors);
+      int[] columns = null;
+      String line;
+
+      while ((line = reader.readLine()) != null) {
+        long lineNumber = reader.lineNumber();
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        if (format == Format.CSV && columns == null) {
+          columns = parseHeader(splitCsv(line));
+          continue;
+        }
+        run.rowsRead++;
+        try {
+          String[] fields = format == Format.CSV ? pick(splitCsv(line), columns) : parseJson(line);
+          run.route(fields, lineNumber, line);
+        } catch (IllegalArgumentException e) {
+          run.reject(lineNumber, e.getMessage(), line);
+        }
+        run.reportProgress(false);
+      }
+      run.flushAll();
+      run.reportProgress(true);
+      return run.summary();
+    }
+  }
+
+  /**
+   * The state of one call to {@link #importFile}.
+   */
+  private final class Run {
+    private final BufferedWriter errors;
+    private final Map<String, Team> teams = new HashMap<>();
+    private final Map<Team, Batch> batches = new IdentityHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long lastReportNanos = startNanos;
+    private long rowsRead;
+    private long playersAdded;
+    private long rowsRejected;
+    private int bufferedRows;
+
+    private Run(BufferedWriter errors) {
+      this.errors = errors;
+    }
+
+    private void route(String[] fields, long lineNumber, String line) throws IOException {
+      String teamName = fields[0];
+      Team team = teams.get(teamName);
+      if (team == null && !teams.containsKey(teamName)) {
+        // An unknown team is cached as null too, so the router runs once per team name.
+        team = router.apply(teamName);
+        teams.put(teamName, team);
+      }
+      if (team == null) {
+        reject(lineNumber, "Unknown team \"" + teamName + "\".", line);
+        return;
+      }
+      TeamMember player = new TeamMember(fields[1], fields[2], fields[3],
+          parsePosition(fields[4]), parseSkillLevel(fields[5]));
+
+      Batch batch = batches.computeIfAbsent(team, t -> new Batch());
+      batch.add(player, lineNumber, line);
+      bufferedRows++;
+      if (batch.players.size() >= batchSize) {
+        flush(team, batch);
+      } else if (bufferedRows >= MAX_BUFFERED_ROWS) {
+        flushAll();
+      }
+    }
+
+    private void flush(Team team, Batch batch) throws IOException {
+      List<AddResult> results = team.addPlayersWithResults(batch.players);
+      for (int i = 0; i < results.size(); i++) {
+        AddResult result = results.get(i);
+        if (result.isAdded()) {
+          playersAdded++;
+        } else {
+          reject(batch.lineNumbers.get(i), result.getMessage(), batch.lines.get(i));
+        }
+      }
+      bufferedRows -= batch.players.size();
+      batch.clear();
+    }
+
+    /**
+     * Adds every buffered batch and drops the batches, so teams that only had a few rows do not
+     * keep their buffers.
+     */
+    private void flushAll() throws IOException {
+      for (Map.Entry<Team, Batch> entry : batches.entrySet()) {
+        flush(entry.getKey(), entry.getValue());
+      }
+      batches.clear();
+    }
+
+    private void reject(long lineNumber, String reason, String line) throws IOException {
+      rowsRejected++;
+      errors.write(Long.toString(lineNumber));
+      errors.write('\t');
+      errors.write(reason);
+      errors.write('\t');
+      errors.write(line);
+      errors.newLine();
+    }
+
+    private void reportProgress(boolean done) {
+      if (progress == null) {
+        return;
+      }
+      long now = System.nanoTime();
+      if (done || now - lastReportNanos >= PROGRESS_INTERVAL_NANOS) {
+        lastReportNanos = now;
+        progress.printf("%s %d rows (%.0f rows/s), %d added, %d rejected%n",
+            done ? "Imported" : "Importing", rowsRead, rowsPerSecond(rowsRead, now - startNanos),
+            playersAdded, rowsRejected);
+      }
+    }
+
+    private ImportSummary summary() {
+      return new ImportSummary(rowsRead, playersAdded, rowsRejected,
+          System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * The rows buffered for one team.
+   */
+  private static final class Batch {
+    private final List<TeamMember> players = new ArrayList<>();
+    private final List<Long> lineNumbers = new ArrayList<>();
+    private final List<String> lines = new ArrayList<>();
+
+    private void add(TeamMember player, long lineNumber, String line) {
+      players.add(player);
+      lineNumbers.add(lineNumber);
+      lines.add(line);
+    }
+
+    private void clear() {
+      players.clear();
+      lineNumbers.clear();
+      lines.clear();
+    }
+  }
+
+  /**
+   * The result of an import.
+   */
+  public static final class ImportSummary {
+    private final long rowsRead;
+    private final long playersAdded;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+
+    private ImportSummary(long rowsRead, long playersAdded, long rowsRejected,
+        long elapsedNanos) {
+      this.rowsRead = rowsRead;
+      this.playersAdded = playersAdded;
+      this.rowsRejected = rowsRejected;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of data rows read, excluding the header and blank lines.
+     *
+     * @return the number of rows read
+     */
+    public long getRowsRead() {
+      return rowsRead;
+    }
+
+    /**
+     * Returns the number of rows whose player was added to a team.
+     *
+     * @return the number of players added
+     */
+    public long getPlayersAdded() {
+      return playersAdded;
+    }
+
+    /**
+     * Returns the number of rows written to the error file.
+     *
+     * @return the number of rejected rows
+     */
+    public long getRowsRejected() {
+      return rowsRejected;
+    }
+
+    /**
+     * Returns the average import throughput.
+     *
+     * @return the number of rows read per second
+     */
+    public double getRowsPerSecond() {
+      return rowsPerSecond(rowsRead, elapsedNanos);
+    }
+
+    @Override public String toString() {
+      return String.format("%d rows read, %d players added, %d rows rejected (%.0f rows/s)",
+          rowsRead, playersAdded, rowsRejected, getRowsPerSecond());
+    }
+  }
+
+  private static double rowsPerSecond(long rows, long nanos) {
+    return nanos <= 0 ? 0 : rows * 1e9 / nanos;
+  }
+
+  private static Position parsePosition(String text) {
+    try {
+      return Position.valueOf(text.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid position \"" + text + "\".");
+    }
+  }
+
+  private static SkillLevel parseSkillLevel(String text) {
+    String value = text.trim().toUpperCase(Locale.ROOT);
+    if (value.length() == 1 && value.charAt(0) >= '1'
+        && value.charAt(0) < '1' + SkillLevel.values().length) {
+      return SkillLevel.values()[value.charAt(0) - '1'];
+    }
+    try {
+      return SkillLevel.valueOf(value);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid skill level \"" + text + "\".");
+    }
+  }
+
+  /**
+   * Maps the header row of a CSV file to the index of each required column.
+   */
+  private static int[] parseHeader(List<String> header) {
+    int[] columns = new int[COLUMNS.length];
+    for (int i = 0; i < COLUMNS.length; i++) {
+      columns[i] = -1;
+      for (int j = 0; j < header.size(); j++) {
+        if (header.get(j).trim().equalsIgnoreCase(COLUMNS[i])) {
+          columns[i] = j;
+        }
+      }
+      if (columns[i] < 0) {
+        throw new IllegalArgumentException("The CSV header has no \"" + COLUMNS[i] + "\" column.");
+      }
+    }
+    return columns;
+  }
+
+  private static String[] pick(List<String> row, int[] columns) {
+    String[] fields = new String[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i] >= row.size()) {
+        throw new IllegalArgumentException("Missing \"" + COLUMNS[i] + "\" field.");
+      }
+      fields[i] = row.get(columns[i]);
+    }
+    return fields;
+  }
+
+  /**
+   * Splits one CSV line into fields. Fields may be enclosed in double quotes, in which case commas
+   * are kept and a doubled quote stands for a single quote.
+   */
+  private static List<String> splitCsv(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * Parses a flat JSON object whose values are strings or numbers, and returns the values of the
+   * required keys in column order.
+   */
+  private static String[] parseJson(String line) {
+    Map<String, String> values = new JsonReader(line).readObject();
+    String[] fields = new String[COLUMNS.length];
+    for (int i = 0; i < COLUMNS.length; i++) {
+      fields[i] = values.get(COLUMNS[i]);
+      if (fields[i] == null) {
+        throw new IllegalArgumentException("Missing \"" + COLUMNS[i] + "\" field.");
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Reads UTF-8 lines from a channel through a fixed-size direct buffer. Only the current line is
+   * held in memory besides the buffer.
+   */
+  private static final class LineReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private long lineNumber;
+    private boolean endOfInput;
+
+    private LineReader(FileChannel channel) {
+      this.channel = channel;
+      buffer.flip();
+    }
+
+    private String readLine() throws IOException {
+      lineLength = 0;
+      while (true) {
+        while (buffer.hasRemaining()) {
+          byte b = buffer.get();
+          if (b == '\n') {
+            return finishLine();
+          }
+          if (lineLength == line.length) {
+            line = Arrays.copyOf(line, line.length * 2);
+          }
+          line[lineLength++] = b;
+        }
+        if (endOfInput) {
+          return lineLength > 0 ? finishLine() : null;
+        }
+        buffer.clear();
+        endOfInput = channel.read(buffer) < 0;
+        buffer.flip();
+      }
+    }
+
+    private String finishLine() {
+      lineNumber++;
+      int length = lineLength;
+      if (length > 0 && line[length - 1] == '\r') {
+        length--;
+      }
+      return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private long lineNumber() {
+      return lineNumber;
+    }
+
+    @Override public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Secondary indexes over a team's roster, kept up to date as players are added and evicted:
+ * <ul>
+ *   <li>jersey number to player, in an array indexed by the number's offset in the jersey range;
+ *   <li>one bucket per {@link Position} and one per {@link SkillLevel}, indexed by ordinal;
+ *   <li>all players ordered by last name, first name and join order, for prefix lookups.
+ * </ul>
+ * Every bucket is a sorted list in that same name order, maintained by binary search, so a bucket
+ * can be read as is and copied without sorting. Rosters are small, so shifting a list on insert is
+ * cheaper than the node allocation of a tree.
+ * <p>
+ * An index is not thread-safe. {@link #copy(UnaryOperator)} creates a read-only copy over other
+ * player instances, which {@link RosterSnapshot} uses to publish the indexes.
+ */
+final class RosterIndex {
+  private static final Comparator<TeamMember> NAME_ORDER = Comparator.comparing(
+      TeamMember::getLastName).thenComparing(TeamMember::getFirstName)
+      .thenComparingLong(TeamMember::getRosterSequence);
+  private static final Position[] POSITIONS = Position.values();
+  private static final SkillLevel[] SKILL_LEVELS = SkillLevel.values();
+
+  private final int firstJersey;
+  private final TeamMember[] byJersey;
+  private final List<TeamMember> byName;
+  private final List<List<TeamMember>> byPosition;
+  private final List<List<TeamMember>> bySkill;
+  private final boolean readOnly;
+
+  /**
+   * Constructs an empty index for players numbered from the given jersey range.
+   *
+   * @param firstJersey the lowest jersey number
+   * @param lastJersey  the highest jersey number
+   */
+  RosterIndex(int firstJersey, int lastJersey) {
+    this.firstJersey = firstJersey;
+    this.byJersey = new TeamMember[lastJersey - firstJersey + 1];
+    this.byName = new ArrayList<>();
+    this.byPosition = newBuckets(POSITIONS.length);
+    this.bySkill = newBuckets(SKILL_LEVELS.length);
+    this.readOnly = false;
+  }
+
+  private RosterIndex(RosterIndex source, UnaryOperator<TeamMember> copier) {
+    this.firstJersey = source.firstJersey;
+    this.byJersey = new TeamMember[source.byJersey.length];
+    List<TeamMember> byName = new ArrayList<>(source.byName.size());
+    List<List<TeamMember>> byPosition = newBuckets(POSITIONS.length);
+    List<List<TeamMember>> bySkill = newBuckets(SKILL_LEVELS.length);
+    for (TeamMember player : source.byName) {
+      TeamMember copy = copier.apply(player);
+      byName.add(copy);
+      byPosition.get(copy.getPreferredPosition().ordinal()).add(copy);
+      bySkill.get(copy.getSkillLevel().ordinal()).add(copy);
+      byJersey[copy.getJerseyNumber() - firstJersey] = copy;
+    }
+    this.byName = Collections.unmodifiableList(byName);
+    this.byPosition = unmodifiable(byPosition);
+    this.bySkill = unmodifiable(bySkill);
+    this.readOnly = true;
+  }
+
+  /**
+   * Adds a player who already has a jersey number and a roster sequence.
+   *
+   * @param player the player to add
+   * @throws IllegalStateException if the index is a read-only copy or another player already wears
+   *                               the same jersey number
+   */
+  void add(TeamMember player) {
+    checkWritable();
+    int offset = player.getJerseyNumber() - firstJersey;
+    if (byJersey[offset] != null) {
+      throw new IllegalStateException(
+          "Jersey number " + player.getJerseyNumber() + " is already indexed.");
+    }
+    byJersey[offset] = player;
+    insert(byName, player);
+    insert(byPosition.get(player.getPreferredPosition().ordinal()), player);
+    insert(bySkill.get(player.getSkillLevel().ordinal()), player);
+  }
+
+  /**
+   * Removes a player from every index. Removing a player that is not indexed has no effect.
+   *
+   * @param player the player to remove
+   * @throws IllegalStateException if the index is a read-only copy
+   */
+  void remove(TeamMember player) {
+    checkWritable();
+    int offset = player.getJerseyNumber() - firstJersey;
+    if (byJersey[offset] == player) {
+      byJersey[offset] = null;
+    }
+    delete(byName, player);
+    delete(byPosition.get(player.getPreferredPosition().ordinal()), player);
+    delete(bySkill.get(player.getSkillLevel().ordinal()), player);
+  }
+
+  /**
+   * Returns the player wearing the given jersey number.
+   *
+   * @param jerseyNumber the jersey number
+   * @return the player, or {@code null} if no player wears that number
+   */
+  TeamMember byJerseyNumber(int jerseyNumber) {
+    int offset = jerseyNumber - firstJersey;
+    return offset < 0 || offset >= byJersey.length ? null : byJersey[offset];
+  }
+
+  /**
+   * Returns the players who prefer the given position, in name order. The list is a live view of
+   * a writable index and must not be modified.
+   *
+   * @param position the preferred position
+   * @return the players at that position
+   */
+  List<TeamMember> atPosition(Position position) {
+    return byPosition.get(position.ordinal());
+  }
+
+  /**
+   * Returns the players with the given skill level, in name order. The list is a live view of a
+   * writable index and must not be modified.
+   *
+   * @param skillLevel the skill level
+   * @return the players with that skill level
+   */
+  List<TeamMember> withSkill(SkillLevel skillLevel) {
+    return bySkill.get(skillLevel.ordinal());
+  }
+
+  /**
+   * Returns all players, ordered by last name, first name and the order in which they joined. The
+   * list is a live view of a writable index and must not be modified.
+   *
+   * @return all indexed players in name order
+   */
+  List<TeamMember> inNameOrder() {
+    return byName;
+  }
+
+  /**
+   * Returns the players whose last name starts with the given prefix, in name order. The players
+   * are found by binary search, so the lookup takes O(log n) plus the number of matches.
+   *
+   * @param prefix the start of the last name; case-sensitive
+   * @return a new list of the matching players
+   */
+  List<TeamMember> byLastNamePrefix(String prefix) {
+    int low = 0;
+    int high = byName.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (byName.get(middle).getLastName().compareTo(prefix) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    List<TeamMember> matches = new ArrayList<>();
+    for (int i = low; i < byName.size() && byName.get(i).getLastName().startsWith(prefix); i++) {
+      matches.add(byName.get(i));
+    }
+    return matches;
+  }
+
+  /**
+   * Returns a read-only copy of this index over copies of its players. The copy keeps the order of
+   * every bucket, so no sorting is needed.
+   *
+   * @param copier creates the copy of each player
+   * @return the read-only copy
+   */
+  RosterIndex copy(UnaryOperator<TeamMember> copier) {
+    return new RosterIndex(this, copier);
+  }
+
+  private void checkWritable() {
+    if (readOnly) {
+      throw new IllegalStateException("A copied roster index cannot be modified.");
+    }
+  }
+
+  private static void insert(List<TeamMember> bucket, TeamMember player) {
+    int index = Collections.binarySearch(bucket, player, NAME_ORDER);
+    bucket.add(index < 0 ? -index - 1 : index, player);
+  }
+
+  private static void delete(List<TeamMember> bucket, TeamMember player) {
+    int index = Collections.binarySearch(bucket, player, NAME_ORDER);
+    if (index >= 0 && bucket.get(index) == player) {
+      bucket.remove(index);
+    }
+  }
+
+  private static List<List<TeamMember>> newBuckets(int count) {
+    List<List<TeamMember>> buckets = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      buckets.add(new ArrayList<>());
+    }
+    return buckets;
+  }
+
+  private static List<List<TeamMember>> unmodifiable(List<List<TeamMember>> buckets) {
+    for (int i = 0; i < buckets.size(); i++) {
+      buckets.set(i, Collections.unmodifiableList(buckets.get(i)));
+    }
+    return buckets;
+  }
+}
@@ -0,0 +1,755 @@
+package team;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * The RosterJournal class makes roster changes durable with an append-only write-ahead log. Teams
+ * registered with the journal are wrapped in a thread-safe {@link Team} that records every player
+ * added and every player evicted, with the jersey numbers actually assigned, and only returns from
+ * {@link Team#addPlayer} once those records are on disk. The records of a change are appended
+ * before the change is applied, so a change whose records cannot be appended, because a name is
+ * too long or the log has failed, leaves the team as it was.
+ * <p>
+ * Records are checksummed with CRC-32. Writers that wait for durability at the same time share one
+ * {@code fsync}: the first waiter writes and syncs everything appended so far, and the others wait
+ * for it (group commit).
+ * <p>
+ * Every {@code checkpointInterval} events, and whenever {@link #checkpoint()} is called, the state
+ * of all teams is written to a {@link RosterSnapshotFile} and a new, empty log is started. Opening
+ * a journal directory restores the latest checkpoint and replays the log written after it,
+ * discarding a torn record at the end, so the teams come back exactly as they were, with the same
+ * players, jersey numbers and evictions.
+ * <p>
+ * Directory layout: {@code checkpoint-N.snapshot} holds the state at checkpoint {@code N} and
+ * {@code journal-N.log} the changes made after it.
+ */
+public class RosterJournal implements Closeable {
+  private static final String CHECKPOINT_PREFIX = "checkpoint-";
+  private static final String CHECKPOINT_SUFFIX = ".snapshot";
+  private static final String JOURNAL_PREFIX = "journal-";
+  private static final String JOURNAL_SUFFIX = ".log";
+  private static final byte CREATE_TEAM = 1;
+  private static final byte ADD_PLAYER = 2;
+  private static final byte EVICT_PLAYER = 3;
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  private final Path directory;
+  private final int checkpointInterval;
+  private final List<JournaledTeam> teams = new ArrayList<>();
+  private final Map<String, JournaledTeam> teamsByName = new HashMap<>();
+  private final Object registryLock = new Object();
+
+  private final ReentrantLock logLock = new ReentrantLock();
+  private final Condition flushed = logLock.newCondition();
+  private final CRC32 crc = new CRC32();
+  private FileChannel channel;
+  private long generation;
+  private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+  private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+  private long appendedBytes;
+  private long durableBytes;
+  private boolean flushInProgress;
+  private IOException failure;
+  private long syncCount;
+
+  private final AtomicLong eventsSinceCheckpoint = new AtomicLong();
+  private final AtomicBoolean checkpointRunning = new AtomicBoolean();
+  private volatile IOException checkpointFailure;
+  private long replayedEvents;
+  private long replayNanos;
+
+  private RosterJournal(Path directory, int checkpointInterval) {
+    this.directory = directory;
+    this.checkpointInterval = checkpointInterval;
+  }
+
+  /**
+   * Opens the journal in the given directory, creating it if needed, and recovers all teams
+   * recorded in it.
+   *
+   * @param directory          the journal directory
+   * @param checkpointInterval the number of events after which a checkpoint is taken automatically,
+   *                           or 0 to only take checkpoints when {@link #checkpoint()} is called
+   * @return the opened journal
+   * @throws IOException if the directory cannot be read or contains a corrupt checkpoint or log
+   */
+  public static RosterJournal open(Path directory, int checkpointInterval) throws IOException {
+    if (checkpointInterval < 0) {
+      throw new IllegalArgumentException("The checkpoint interval cannot be negative.");
+    }
+    Files.createDirectories(directory);
+    RosterJournal journal = new RosterJournal(directory, checkpointInterval);
+    journal.recover();
+    return journal;
+  }
+
+  /**
+   * Registers a new, empty team with the journal. The returned team must be used for all further
+   * changes; the given {@link SoccerTeam} must not be used directly any more.
+   *
+   * @param name the unique name of the team
+   * @param team the empty team to register
+   * @return the journaled team
+   * @throws IllegalArgumentException if a team with that name exists or the team is not empty
+   * @throws UncheckedIOException     if the registration cannot be written to the log
+   */
+  public Team createTeam(String name, SoccerTeam team) {
+    if (!team.roster().isEmpty()) {
+      throw new IllegalArgumentException("Only empty teams can be registered with a journal.");
+    }
+    JournaledTeam journaled;
+    long position;
+    synchronized (registryLock) {
+      if (teamsByName.containsKey(name)) {
+        throw new IllegalArgumentException("A team named \"" + name + "\" already exists.");
+      }
+      journaled = register(name, team);
+      position = appendCreateTeam(journaled);
+      team.setRosterListener(journaled);
+    }
+    awaitDurable(position);
+    return journaled;
+  }
+
+  /**
+   * Returns the journaled team with the given name.
+   *
+   * @param name the name of the team
+   * @return the team, or {@code null} if there is no team with that name
+   */
+  public Team getTeam(String name) {
+    synchronized (registryLock) {
+      return teamsByName.get(name);
+    }
+  }
+
+  /**
+   * Returns the names of all teams in the journal, in the order they were created.
+   *
+   * @return the team names
+   */
+  public List<String> getTeamNames() {
+    synchronized (registryLock) {
+      List<String> names = new ArrayList<>(teams.size());
+      for (JournaledTeam team : teams) {
+        names.add(team.name);
+      }
+      return names;
+    }
+  }
+
+  /**
+   * Returns the number of events replayed from the log when the journal was opened.
+   *
+   * @return the number of replayed events
+   */
+  public long getReplayedEvents() {
+    return replayedEvents;
+  }
+
+  /**
+   * Returns how long it took to restore the checkpoint and replay the log when the journal was
+   * opened.
+   *
+   * @return the recovery time in nanoseconds
+   */
+  public long getReplayNanos() {
+    return replayNanos;
+  }
+
+  /**
+   * Returns the number of times the log has been synced to disk. Compared with the number of
+   * events written, this shows how well concurrent writes are batched.
+   *
+   * @return the number of {@code fsync} calls
+   */
+  public long getSyncCount() {
+    logLock.lock();
+    try {
+      return syncCount;
+    } finally {
+      logLock.unlock();
+    }
+  }
+
+  /**
+   * Returns why the last automatic checkpoint failed. A failed checkpoint does not fail the write
+   * that triggered it, since that write is already durable in the log; it is tried again on the
+   * next write.
+   *
+   * @return the failure, or {@code null} if the last automatic checkpoint succeeded or none has
+   *     been taken
+   */
+  public IOException getCheckpointFailure() {
+    return checkpointFailure;
+  }
+
+  /**
+   * Writes the state of all teams to a new checkpoint and starts a new, empty log. Changes to the
+   * teams wait while the checkpoint is written.
+   *
+   * @throws IOException if the checkpoint cannot be written
+   */
+  public void checkpoint() throws IOException {
+    synchronized (registryLock) {
+      for (JournaledTeam team : teams) {
+        team.lock.lock();
+      }
+      try {
+        awaitDurable(appendedBytes());
+        long next = generation + 1;
+        Map<String, SoccerTeam> state = new LinkedHashMap<>();
+        for (JournaledTeam team : teams) {
+          state.put(team.name, team.team);
+        }
+        RosterSnapshotFile.write(checkpointFile(next), state);
+        FileChannel nextChannel = FileChannel.open(journalFile(next), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        FileChannel previous;
+        logLock.lock();
+        try {
+          previous = channel;
+          channel = nextChannel;
+          generation = next;
+        } finally {
+          logLock.unlock();
+        }
+        previous.close();
+        deleteOlderGenerations(next);
+        eventsSinceCheckpoint.set(0);
+      } finally {
+        for (JournaledTeam team : teams) {
+          team.lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * Syncs everything written so far and closes the log.
+   *
+   * @throws IOException if the log cannot be synced or closed
+   */
+  @Override public void close() throws IOException {
+    try {
+      awaitDurable(appendedBytes());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      channel.close();
+    }
+  }
+
+  private JournaledTeam register(String name, SoccerTeam team) {
+    JournaledTeam journaled = new JournaledTeam(teams.size(), name, team);
+    teams.add(journaled);
+    teamsByName.put(name, journaled);
+    return journaled;
+  }
+
+  // Recovery
+
+  private void recover() throws IOException {
+    long start = System.nanoTime();
+    generation = latestCheckpoint();
+    if (generation > 0) {
+      for (Map.Entry<String, SoccerTeam> entry
+          : RosterSnapshotFile.read(checkpointFile(generation)).entrySet()) {
+        register(entry.getKey(), entry.getValue());
+      }
+    }
+
+    Path log = journalFile(generation);
+    long validLength = Files.exists(log) ? replay(log) : 0;
+    for (JournaledTeam team : teams) {
+      team.team.finishRestore();
+      team.team.setRosterListener(team);
+    }
+
+    channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    channel.truncate(validLength);
+    channel.position(validLength);
+    deleteOlderGenerations(generation);
+    replayNanos = System.nanoTime() - start;
+  }
+
+  /**
+   * Applies every intact record of the log and returns the length of the intact prefix. Replay
+   * stops at the first record that is truncated or fails its checksum, as left by a crash in the
+   * middle of a write.
+   */
+  private long replay(Path log) throws IOException {
+    try (FileChannel in = FileChannel.open(log, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+      CRC32 checksum = new CRC32();
+      long validLength = 0;
+
+      while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+        int length = buffer.getInt();
+        int expected = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+          break;
+        }
+        ByteBuffer payload = buffer.slice();
+        payload.limit(length);
+        checksum.reset();
+        checksum.update(payload.duplicate());
+        if ((int) checksum.getValue() != expected) {
+          break;
+        }
+        try {
+          apply(payload);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+            | IllegalStateException e) {
+          throw new IOException("Corrupt roster journal " + log + " at offset " + validLength
+              + ": " + e.getMessage(), e);
+        }
+        buffer.position(buffer.position() + length);
+        validLength = buffer.position();
+        replayedEvents++;
+      }
+      return validLength;
+    }
+  }
+
+  private void apply(ByteBuffer record) {
+    byte type = record.get();
+    int teamId = record.getInt();
+    if (type == CREATE_TEAM) {
+      if (teamId != teams.size()) {
+        throw new IllegalStateException("Unexpected team id " + teamId + ".");
+      }
+      String name = getString(record);
+      int minimumPlayers = record.getShort();
+      int maximumPlayers = record.getShort();
+      int firstJersey = record.getShort();
+      int lastJersey = record.getShort();
+      boolean incremental = record.get() != 0;
+      int[] slots = new int[Position.values().length];
+      for (int i = 0; i < slots.length; i++) {
+        slots[i] = record.get();
+      }
+      register(name, new SoccerTeam(Formation.forSlots(slots, minimumPlayers, maximumPlayers),
+          minimumPlayers, maximumPlayers, incremental,
+          new JerseyNumberAllocator(firstJersey, lastJersey)));
+      return;
+    }
+
+    SoccerTeam team = teams.get(teamId).team;
+    if (type == ADD_PLAYER) {
+      TeamMember player = new TeamMember(getString(record), getString(record),
+          LocalDate.ofEpochDay(record.getInt()), Position.values()[record.get()],
+          SkillLevel.values()[record.get()]);
+      player.setJerseyNumber(record.getShort());
+      team.restorePlayer(player);
+    } else if (type == EVICT_PLAYER) {
+      team.restoreEviction(record.getShort());
+    } else {
+      throw new IllegalStateException("Unknown record type " + type + ".");
+    }
+  }
+
+  private long latestCheckpoint() throws IOException {
+    long latest = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+        CHECKPOINT_PREFIX + "*" + CHECKPOINT_SUFFIX)) {
+      for (Path file : files) {
+        latest = Math.max(latest, generationOf(file, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX));
+      }
+    }
+    return latest;
+  }
+
+  private void deleteOlderGenerations(long current) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        long checkpoint = generationOf(file, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        long journal = generationOf(file, JOURNAL_PREFIX, JOURNAL_SUFFIX);
+        if ((checkpoint >= 0 && checkpoint < current) || (journal >= 0 && journal < current)) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  private static long generationOf(Path file, String prefix, String suffix) {
+    String name = file.getFileName().toString();
+    if (!name.startsWith(prefix) || !name.endsWith(suffix)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private Path checkpointFile(long generation) {
+    return directory.resolve(CHECKPOINT_PREFIX + generation + CHECKPOINT_SUFFIX);
+  }
+
+  private Path journalFile(long generation) {
+    return directory.resolve(JOURNAL_PREFIX + generation + JOURNAL_SUFFIX);
+  }
+
+  // Appending and group commit
+
+  private long appendCreateTeam(JournaledTeam journaled) {
+    byte[] name = encode(journaled.name);
+    SoccerTeam team = journaled.team;
+    JerseyNumberAllocator jerseyNumbers = team.jerseyNumbers();
+    logLock.lock();
+    try {
+      ByteBuffer record = beginRecord(CREATE_TEAM, journaled.id,
+          2 + name.length + 9 + Position.values().length);
+      putString(record, name);
+      record.putShort((short) team.getMinimumPlayers()).putShort((short) team.getMaximumPlayers())
+          .putShort((short) jerseyNumbers.getFirstNumber())
+          .putShort((short) jerseyNumbers.getLastNumber())
+          .put((byte) (team.isIncrementalLineup() ? 1 : 0));
+      for (Position position : Position.values()) {
+        record.put((byte) team.getFormation().getSlots(position));
+      }
+      return endRecord();
+    } finally {
+      logLock.unlock();
+    }
+  }
+
+  /**
+   * Appends the records of a player joining a team, preceded by the eviction it causes, if any.
+   * Everything that can fail is checked before the first record is started, so either both
+   * records are appended or neither is.
+   */
+  private long appendAddPlayer(int teamId, TeamMember player, TeamMember evicted) {
+    byte[] firstName = encode(player.getFirstName());
+    byte[] lastName = encode(player.getLastName());
+    int birthDay = Math.toIntExact(player.getBirthDate().toEpochDay());
+    logLock.lock();
+    try {
+      checkNotFailed();
+      if (evicted != null) {
+        appendEvictPlayer(teamId, evicted);
+      }
+      ByteBuffer record = beginRecord(ADD_PLAYER, teamId,
+          4 + firstName.length + lastName.length + 8);
+      putString(record, firstName);
+      putString(record, lastName);
+      record.putInt(birthDay)
+          .put((byte) player.getPreferredPosition().ordinal())
+          .put((byte) player.getSkillLevel().ordinal())
+          .putShort((short) player.getJerseyNumber());
+      return endRecord();
+    } finally {
+      logLock.unlock();
+    }
+  }
+
+  private long appendRemovePlayer(int teamId, TeamMember player) {
+    logLock.lock();
+    try {
+      return appendEvictPlayer(teamId, player);
+    } finally {
+      logLock.unlock();
+    }
+  }
+
+  /**
+   * Appends the record of a player leaving a team. Must be called with the log lock held.
+   */
+  private long appendEvictPlayer(int teamId, TeamMember player) {
+    beginRecord(EVICT_PLAYER, teamId, 2).putShort((short) player.getJerseyNumber());
+    return endRecord();
+  }
+
+  private int recordStart;
+
+  /**
+   * Reserves room for a record in the pending buffer and writes its type and team id. Must be
+   * called with the log lock held and followed by {@link #endRecord()}.
+   */
+  private ByteBuffer beginRecord(byte type, int teamId, int bodySize) {
+    checkNotFailed();
+    int size = RECORD_HEADER_SIZE + 5 + bodySize;
+    if (pending.remaining() < size) {
+      ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2,
+          pending.position() + size));
+      pending.flip();
+      larger.put(pending);
+      pending = larger;
+    }
+    recordStart = pending.position();
+    pending.position(recordStart + RECORD_HEADER_SIZE);
+    return pending.put(type).putInt(teamId);
+  }
+
+  /**
+   * Throws if writing the log has failed, since nothing more can be made durable. Must be called
+   * with the log lock held.
+   */
+  private void checkNotFailed() {
+    if (failure != null) {
+      throw new UncheckedIOException("The roster journal has failed.", failure);
+    }
+  }
+
+  /**
+   * Fills in the length and checksum of the record started by {@link #beginRecord} and returns the
+   * log position after it.
+   */
+  private long endRecord() {
+    int payloadStart = recordStart + RECORD_HEADER_SIZE;
+    int length = pending.position() - payloadStart;
+    ByteBuffer payload = pending.duplicate();
+    payload.position(payloadStart).limit(payloadStart + length);
+    crc.reset();
+    crc.update(payload);
+    pending.putInt(recordStart, length).putInt(recordStart + 4, (int) crc.getValue());
+
+    appendedBytes += RECORD_HEADER_SIZE + length;
+    eventsSinceCheckpoint.incrementAndGet();
+    return appendedBytes;
+  }
+
+  private long appendedBytes() {
+    logLock.lock();
+    try {
+      return appendedBytes;
+    } finally {
+      logLock.unlock();
+    }
+  }
+
+  /**
+   * Waits until the log is durable up to the given position. If no sync is in progress, the caller
+   * writes and syncs everything appended so far on behalf of all waiting writers.
+   */
+  private void awaitDurable(long position) {
+    logLock.lock();
+    try {
+      while (durableBytes < position) {
+        if (failure != null) {
+          throw new UncheckedIOException("The roster journal has failed.", failure);
+        }
+        if (flushInProgress) {
+          flushed.awaitUninterruptibly();
+          continue;
+        }
+        flushInProgress = true;
+        ByteBuffer batch = pending;
+        pending = spare;
+        long target = appendedBytes;
+        FileChannel out = channel;
+        IOException error = null;
+
+        logLock.unlock();
+        try {
+          batch.flip();
+          while (batch.hasRemaining()) {
+            out.write(batch);
+          }
+          out.force(false);
+        } catch (IOException e) {
+          error = e;
+        } finally {
+          logLock.lock();
+        }
+
+        batch.clear();
+        spare = batch;
+        flushInProgress = false;
+        if (error != null) {
+          failure = error;
+        } else {
+          durableBytes = target;
+          syncCount++;
+        }
+        flushed.signalAll();
+      }
+    } finally {
+      logLock.unlock();
+    }
+  }
+
+  private static byte[] encode(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > 0xFFFF) {
+      throw new IllegalArgumentException("Name too long for the roster journal.");
+    }
+    return bytes;
+  }
+
+  private static void putString(ByteBuffer buffer, byte[] bytes) {
+    buffer.putShort((short) bytes.length).put(bytes);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Takes a checkpoint if enough events have been written since the last one. Called after a write
+   * is durable, so a failure is only recorded; the event count is not reset, and the next write
+   * tries again.
+   */
+  private void maybeCheckpoint() {
+    if (checkpointInterval > 0 && eventsSinceCheckpoint.get() >= checkpointInterval
+        && checkpointRunning.compareAndSet(false, true)) {
+      try {
+        checkpoint();
+        checkpointFailure = null;
+      } catch (IOException e) {
+        checkpointFailure = e;
+      } catch (UncheckedIOException e) {
+        checkpointFailure = e.getCause();
+      } finally {
+        checkpointRunning.set(false);
+      }
+    }
+  }
+
+  /**
+   * A team whose changes are recorded in the journal. Changes and reads are serialized on the
+   * team's lock; waiting for durability happens after the lock is released, so that writers to
+   * different teams share syncs.
+   */
+  private final class JournaledTeam implements Team, RosterListener {
+    private final int id;
+    private final String name;
+    private final SoccerTeam team;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastPosition;
+
+    private JournaledTeam(int id, String name, SoccerTeam team) {
+      this.id = id;
+      this.name = name;
+      this.team = team;
+    }
+
+    @Override public String addPlayer(TeamMember player) {
+      String message;
+      long position;
+      lock.lock();
+      try {
+        message = team.addPlayer(player);
+        position = lastPosition;
+      } finally {
+        lock.unlock();
+      }
+      awaitDurable(position);
+      maybeCheckpoint();
+      return message;
+    }
+
+    @Override public List<String> addPlayers(Collection<TeamMember> players) {
+      List<String> messages;
+      long position;
+      lock.lock();
+      try {
+        messages = team.addPlayers(players);
+        position = lastPosition;
+      } finally {
+        lock.unlock();
+      }
+      awaitDurable(position);
+      maybeCheckpoint();
+      return messages;
+    }
+
+    @Override public List<AddResult> addPlayersWithResults(Collection<TeamMember> players) {
+      List<AddResult> results;
+      long position;
+      lock.lock();
+      try {
+        results = team.addPlayersWithResults(players);
+        position = lastPosition;
+      } finally {
+        lock.unlock();
+      }
+      awaitDurable(position);
+      maybeCheckpoint();
+      return results;
+    }
+
+    @Override public List<TeamMember> getAllPlayers() {
+      return getSnapshot().getAllPlayers();
+    }
+
+    @Override public List<TeamMember> getStartingLineup() {
+      return getSnapshot().getStartingLineup();
+    }
+
+    @Override public TeamMember getPlayerByJerseyNumber(int jerseyNumber) {
+      return getSnapshot().getPlayerByJerseyNumber(jerseyNumber);
+    }
+
+    @Override public List<TeamMember> getPlayersByPosition(Position position) {
+      return getSnapshot().getPlayersByPosition(position);
+    }
+
+    @Override public List<TeamMember> getPlayersBySkillLevel(SkillLevel skillLevel) {
+      return getSnapshot().getPlayersBySkillLevel(skillLevel);
+    }
+
+    @Override public List<TeamMember> getPlayers(Position position, SkillLevel skillLevel) {
+      return getSnapshot().getPlayers(position, skillLevel);
+    }
+
+    @Override public List<TeamMember> findPlayersByLastName(String prefix) {
+      return getSnapshot().findPlayersByLastName(prefix);
+    }
+
+    @Override public RosterSnapshot getSnapshot() {
+      lock.lock();
+      try {
+        return team.getSnapshot();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override public boolean hasChangedSince(long version) {
+      lock.lock();
+      try {
+        return team.hasChangedSince(version);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override public void beforePlayerAdded(TeamMember player, TeamMember evicted) {
+      lastPosition = appendAddPlayer(id, player, evicted);
+    }
+
+    @Override public void beforePlayerRemoved(TeamMember player) {
+      lastPosition = appendRemovePlayer(id, player);
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package team;
+
+/**
+ * Receives a callback before every change to the roster of a {@link SoccerTeam}, in the order the
+ * changes are made, so the change can be recorded before it is applied. If a callback throws, the
+ * change is not made.
+ */
+interface RosterListener {
+
+  /**
+   * Called before a player joins the roster, once they have received a jersey number. When the
+   * new player evicts a weaker one, both changes are reported by this one call, before either is
+   * made.
+   *
+   * @param player  the player about to be added
+   * @param evicted the player about to be evicted to make room, or {@code null}
+   */
+  void beforePlayerAdded(TeamMember player, TeamMember evicted);
+
+  /**
+   * Called before a player is removed from the roster for any other reason than an eviction, for
+   * example by a season rollover.
+   *
+   * @param player the player about to be removed
+   */
+  void beforePlayerRemoved(TeamMember player);
+}
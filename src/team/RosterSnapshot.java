@@ -0,0 +1,209 @@
+package team;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable, versioned view of a team's roster and starting lineup at one point in time. The
+ * players are copied once, when the snapshot is taken, so reading a snapshot never copies or sorts.
+ * Players in a snapshot cannot be modified.
+ * <p>
+ * A snapshot also carries a copy of the team's {@link RosterIndex}, so players can be looked up by
+ * jersey number, position, skill level or last name without scanning the roster.
+ * <p>
+ * Every change to a team's roster produces a snapshot with a higher version, so callers that
+ * remember the version they last processed can skip work when nothing has changed.
+ */
+public final class RosterSnapshot {
+  private static final Comparator<TeamMember> LINEUP_ORDER = Comparator.comparing(
+      TeamMember::getActualPosition).thenComparing(TeamMember::getLastName);
+
+  private final long version;
+  private final RosterIndex index;
+  private final List<TeamMember> startingLineup;
+  private final long[] lineupSequences;
+  private final String lineupError;
+
+  /**
+   * Takes a snapshot of the given roster and lineup.
+   *
+   * @param version        the version of the roster
+   * @param index          the index of all players on the roster
+   * @param startingLineup the players in the starting lineup with their actual positions set, or
+   *                       {@code null} if the team cannot form a lineup yet
+   * @param lineupError    the reason the team cannot form a lineup, used if the lineup is null
+   */
+  RosterSnapshot(long version, RosterIndex index, List<TeamMember> startingLineup,
+      String lineupError) {
+    this.version = version;
+    this.index = index.copy(player -> new FrozenTeamMember(player, false));
+    this.startingLineup = startingLineup == null ? null : freeze(startingLineup);
+    this.lineupSequences = new long[startingLineup == null ? 0 : startingLineup.size()];
+    for (int i = 0; i < lineupSequences.length; i++) {
+      lineupSequences[i] = startingLineup.get(i).getRosterSequence();
+    }
+    Arrays.sort(lineupSequences);
+    this.lineupError = lineupError;
+  }
+
+  /**
+   * Returns the version of the roster this snapshot was taken from.
+   *
+   * @return the roster version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns whether this snapshot reflects a different roster than the given version.
+   *
+   * @param version a version previously read from {@link #getVersion()}
+   * @return {@code true} if the roster has changed since that version
+   */
+  public boolean hasChangedSince(long version) {
+    return this.version != version;
+  }
+
+  /**
+   * Returns all players, sorted by last name and then first name.
+   *
+   * @return an unmodifiable list of all players
+   */
+  public List<TeamMember> getAllPlayers() {
+    return index.inNameOrder();
+  }
+
+  /**
+   * Returns whether the given player of this snapshot is in the starting lineup. Players are
+   * matched by the order in which they joined the team, so the check works for the copies in
+   * {@link #getAllPlayers()} and the index lookups, and does not allocate.
+   *
+   * @param player a player of this snapshot
+   * @return {@code true} if the player starts
+   */
+  public boolean isInStartingLineup(TeamMember player) {
+    return Arrays.binarySearch(lineupSequences, player.getRosterSequence()) >= 0;
+  }
+
+  /**
+   * Returns the player wearing the given jersey number.
+   *
+   * @param jerseyNumber the jersey number
+   * @return the player, or {@code null} if no player wears that number
+   */
+  public TeamMember getPlayerByJerseyNumber(int jerseyNumber) {
+    return index.byJerseyNumber(jerseyNumber);
+  }
+
+  /**
+   * Returns the players who prefer the given position, sorted by last name and then first name.
+   *
+   * @param position the preferred position
+   * @return an unmodifiable list of the players at that position
+   */
+  public List<TeamMember> getPlayersByPosition(Position position) {
+    return index.atPosition(position);
+  }
+
+  /**
+   * Returns the players with the given skill level, sorted by last name and then first name.
+   *
+   * @param skillLevel the skill level
+   * @return an unmodifiable list of the players with that skill level
+   */
+  public List<TeamMember> getPlayersBySkillLevel(SkillLevel skillLevel) {
+    return index.withSkill(skillLevel);
+  }
+
+  /**
+   * Returns the players who prefer the given position and have the given skill level, sorted by
+   * last name and then first name. Only the smaller of the two buckets is scanned.
+   *
+   * @param position   the preferred position
+   * @param skillLevel the skill level
+   * @return an unmodifiable list of the matching players
+   */
+  public List<TeamMember> getPlayers(Position position, SkillLevel skillLevel) {
+    List<TeamMember> atPosition = index.atPosition(position);
+    List<TeamMember> withSkill = index.withSkill(skillLevel);
+    List<TeamMember> matches = new ArrayList<>();
+    if (atPosition.size() <= withSkill.size()) {
+      for (TeamMember player : atPosition) {
+        if (player.getSkillLevel() == skillLevel) {
+          matches.add(player);
+        }
+      }
+    } else {
+      for (TeamMember player : withSkill) {
+        if (player.getPreferredPosition() == position) {
+          matches.add(player);
+        }
+      }
+    }
+    return Collections.unmodifiableList(matches);
+  }
+
+  /**
+   * Returns the players whose last name starts with the given prefix, sorted by last name and then
+   * first name.
+   *
+   * @param prefix the start of the last name; case-sensitive
+   * @return an unmodifiable list of the matching players
+   */
+  public List<TeamMember> findPlayersByLastName(String prefix) {
+    return Collections.unmodifiableList(index.byLastNamePrefix(prefix));
+  }
+
+  /**
+   * Returns whether the team had enough players to form a starting lineup.
+   *
+   * @return {@code true} if {@link #getStartingLineup()} will succeed
+   */
+  public boolean hasStartingLineup() {
+    return startingLineup != null;
+  }
+
+  /**
+   * Returns the starting lineup, sorted by actual position and then last name.
+   *
+   * @return an unmodifiable list of the players in the starting lineup
+   * @throws IllegalStateException if there were not enough players to form a starting lineup
+   */
+  public List<TeamMember> getStartingLineup() {
+    if (startingLineup == null) {
+      throw new IllegalStateException(lineupError);
+    }
+    return startingLineup;
+  }
+
+  private static List<TeamMember> freeze(List<TeamMember> players) {
+    List<TeamMember> frozen = new ArrayList<>(players.size());
+    for (TeamMember player : players) {
+      frozen.add(new FrozenTeamMember(player, true));
+    }
+    frozen.sort(LINEUP_ORDER);
+    return Collections.unmodifiableList(frozen);
+  }
+
+  /**
+   * A copy of a team member whose jersey number and actual position cannot be changed.
+   */
+  private static final class FrozenTeamMember extends TeamMember {
+
+    private FrozenTeamMember(TeamMember player, boolean withActualPosition) {
+      super(player, withActualPosition);
+    }
+
+    @Override public void setJerseyNumber(int jerseyNumber) {
+      throw new UnsupportedOperationException("Players in a roster snapshot cannot be modified.");
+    }
+
+    @Override public void setActualPosition(Position actualPosition) {
+      throw new UnsupportedOperationException("Players in a roster snapshot cannot be modified.");
+    }
+  }
+}
@@ -0,0 +1,299 @@
+package team;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes compact binary snapshots of one or many {@link SoccerTeam}s.
+ * <p>
+ * A snapshot file is laid out as follows (all numbers big-endian):
+ * <pre>
+ *   header       int magic "STM1", short format version, short reserved,
+ *                int team count, int string count, int string table size in bytes
+ *   string table per string: unsigned short UTF-8 length, UTF-8 bytes
+ *   teams        per team: int name id, short minimum players, short maximum players,
+ *                short first jersey number, short last jersey number, byte flags,
+ *                one byte per position with the formation's lineup slots (since version 2),
+ *                int player count, followed by the players in the order they joined:
+ *                int first name id, int last name id, int birth date as epoch day,
+ *                byte position ordinal, byte skill level ordinal, byte jersey number
+ * </pre>
+ * Team and player names are stored once in the shared string table and referenced by index, so
+ * every player record has a fixed size of 15 bytes. Starting lineups are not stored, since they are
+ * selected again from the restored rosters. Version 1 files, written before teams had formations,
+ * are read as 7-a-side teams.
+ * <p>
+ * Snapshots are written to a temporary file with a single gathering channel write and then moved
+ * into place, so a crash never leaves a half-written snapshot behind. They are read through a
+ * memory-mapped buffer.
+ */
+public final class RosterSnapshotFile {
+  private static final int MAGIC = 0x53544D31;
+  private static final short FORMAT_VERSION = 2;
+  private static final short FIRST_FORMAT_VERSION = 1;
+  private static final int HEADER_SIZE = 20;
+  private static final int POSITION_COUNT = Position.values().length;
+  private static final int TEAM_HEADER_SIZE = 17 + POSITION_COUNT;
+  private static final int PLAYER_SIZE = 15;
+  private static final byte FLAG_INCREMENTAL_LINEUP = 1;
+
+  private RosterSnapshotFile() {
+  }
+
+  /**
+   * Writes a snapshot of a single team.
+   *
+   * @param file the file to write; it is replaced if it exists
+   * @param name the name of the team
+   * @param team the team to write
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if a value does not fit the snapshot format
+   */
+  public static void write(Path file, String name, SoccerTeam team) throws IOException {
+    Map<String, SoccerTeam> teams = new LinkedHashMap<>();
+    teams.put(name, team);
+    write(file, teams);
+  }
+
+  /**
+   * Writes a snapshot of several teams, keyed by team name.
+   *
+   * @param file  the file to write; it is replaced if it exists
+   * @param teams the teams to write, by name
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if a value does not fit the snapshot format, for example a
+   *                                  jersey number above 255
+   */
+  public static void write(Path file, Map<String, SoccerTeam> teams) throws IOException {
+    StringTable strings = new StringTable();
+    int playerCount = 0;
+    for (Map.Entry<String, SoccerTeam> entry : teams.entrySet()) {
+      strings.idOf(entry.getKey());
+      for (TeamMember player : entry.getValue().roster()) {
+        strings.idOf(player.getFirstName());
+        strings.idOf(player.getLastName());
+        playerCount++;
+      }
+    }
+
+    ByteBuffer stringTable = strings.encode();
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) 0).putInt(teams.size())
+        .putInt(strings.size()).putInt(stringTable.remaining()).flip();
+
+    ByteBuffer records = ByteBuffer.allocate(
+        teams.size() * TEAM_HEADER_SIZE + playerCount * PLAYER_SIZE);
+    for (Map.Entry<String, SoccerTeam> entry : teams.entrySet()) {
+      writeTeam(records, strings, entry.getKey(), entry.getValue());
+    }
+    records.flip();
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer[] buffers = {header, stringTable, records};
+      while (records.hasRemaining()) {
+        channel.write(buffers);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads all teams from a snapshot file. Each team is restored with the roster caps, jersey number
+   * range and lineup mode it was written with, and with its players' jersey numbers and join
+   * order, so its starting lineup is the same as when it was written.
+   *
+   * @param file the snapshot file to read
+   * @return the restored teams, by name, in the order they were written
+   * @throws IOException if the file cannot be read or is not a valid snapshot
+   */
+  public static Map<String, SoccerTeam> read(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return read(buffer);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+        | IllegalStateException e) {
+      throw new IOException("Corrupt roster snapshot " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static Map<String, SoccerTeam> read(ByteBuffer buffer) throws IOException {
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("Not a roster snapshot.");
+    }
+    short version = buffer.getShort();
+    if (version < FIRST_FORMAT_VERSION || version > FORMAT_VERSION) {
+      throw new IOException("Unsupported roster snapshot version " + version + ".");
+    }
+    buffer.getShort();
+    int teamCount = buffer.getInt();
+    int stringCount = checkCount(buffer, buffer.getInt(), 2, "string");
+    buffer.getInt(); // String table size, only needed by readers that skip the table.
+    String[] strings = readStrings(buffer, stringCount);
+    checkCount(buffer, teamCount,
+        version > FIRST_FORMAT_VERSION ? TEAM_HEADER_SIZE : TEAM_HEADER_SIZE - POSITION_COUNT,
+        "team");
+
+    Position[] positions = Position.values();
+    SkillLevel[] skillLevels = SkillLevel.values();
+    Map<String, SoccerTeam> teams = new LinkedHashMap<>(teamCount * 2);
+    for (int t = 0; t < teamCount; t++) {
+      String name = strings[buffer.getInt()];
+      int minimumPlayers = buffer.getShort();
+      int maximumPlayers = buffer.getShort();
+      int firstJersey = buffer.getShort();
+      int lastJersey = buffer.getShort();
+      byte flags = buffer.get();
+      Formation formation = Formation.SEVEN_A_SIDE;
+      if (version > FIRST_FORMAT_VERSION) {
+        int[] slots = new int[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+          slots[i] = buffer.get();
+        }
+        formation = Formation.forSlots(slots, minimumPlayers, maximumPlayers);
+      }
+      int playerCount = checkCount(buffer, buffer.getInt(), PLAYER_SIZE, "player");
+
+      List<TeamMember> roster = new ArrayList<>(playerCount);
+      for (int p = 0; p < playerCount; p++) {
+        TeamMember player = new TeamMember(strings[buffer.getInt()], strings[buffer.getInt()],
+            LocalDate.ofEpochDay(buffer.getInt()), positions[buffer.get()],
+            skillLevels[buffer.get()]);
+        player.setJerseyNumber(buffer.get() & 0xFF);
+        roster.add(player);
+      }
+
+      SoccerTeam team = new SoccerTeam(formation, minimumPlayers, maximumPlayers,
+          (flags & FLAG_INCREMENTAL_LINEUP) != 0,
+          new JerseyNumberAllocator(firstJersey, lastJersey));
+      team.restoreRoster(roster);
+      teams.put(name, team);
+    }
+    return teams;
+  }
+
+  private static void writeTeam(ByteBuffer records, StringTable strings, String name,
+      SoccerTeam team) {
+    JerseyNumberAllocator jerseyNumbers = team.jerseyNumbers();
+    Collection<TeamMember> roster = team.roster();
+    records.putInt(strings.idOf(name))
+        .putShort(toShort(team.getMinimumPlayers(), "minimum roster size"))
+        .putShort(toShort(team.getMaximumPlayers(), "maximum roster size"))
+        .putShort(toShort(jerseyNumbers.getFirstNumber(), "jersey number"))
+        .putShort(toShort(jerseyNumbers.getLastNumber(), "jersey number"))
+        .put(team.isIncrementalLineup() ? FLAG_INCREMENTAL_LINEUP : 0);
+    for (Position position : Position.values()) {
+      records.put((byte) team.getFormation().getSlots(position));
+    }
+    records.putInt(roster.size());
+
+    for (TeamMember player : roster) {
+      if (player.getJerseyNumber() > 0xFF) {
+        throw new IllegalArgumentException("Jersey number " + player.getJerseyNumber()
+            + " does not fit in a roster snapshot.");
+      }
+      records.putInt(strings.idOf(player.getFirstName()))
+          .putInt(strings.idOf(player.getLastName()))
+          .putInt(Math.toIntExact(player.getBirthDate().toEpochDay()))
+          .put((byte) player.getPreferredPosition().ordinal())
+          .put((byte) player.getSkillLevel().ordinal())
+          .put((byte) player.getJerseyNumber());
+    }
+  }
+
+  private static short toShort(int value, String what) {
+    if (value < 0 || value > Short.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "The " + what + " " + value + " does not fit in a roster snapshot.");
+    }
+    return (short) value;
+  }
+
+  /**
+   * Checks a count read from a snapshot against the bytes left in it, so a corrupt count is
+   * reported as such instead of sizing an array from it.
+   *
+   * @param size the smallest number of bytes each counted item takes
+   */
+  private static int checkCount(ByteBuffer buffer, int count, int size, String what)
+      throws IOException {
+    if (count < 0 || (long) count * size > buffer.remaining()) {
+      throw new IOException("Corrupt roster snapshot: invalid " + what + " count " + count
+          + " with " + buffer.remaining() + " bytes left.");
+    }
+    return count;
+  }
+
+  private static String[] readStrings(ByteBuffer buffer, int count) throws IOException {
+    String[] strings = new String[count];
+    byte[] bytes = new byte[256];
+    for (int i = 0; i < count; i++) {
+      int length = buffer.getShort() & 0xFFFF;
+      if (length > buffer.remaining()) {
+        throw new IOException("Corrupt roster snapshot: invalid string length " + length
+            + " with " + buffer.remaining() + " bytes left.");
+      }
+      if (length > bytes.length) {
+        bytes = new byte[Math.max(length, bytes.length * 2)];
+      }
+      buffer.get(bytes, 0, length);
+      strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+    return strings;
+  }
+
+  /**
+   * Assigns ids to distinct strings in the order they are first seen.
+   */
+  private static final class StringTable {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<byte[]> encoded = new ArrayList<>();
+    private int byteSize;
+
+    private int idOf(String value) {
+      Integer id = ids.get(value);
+      if (id == null) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+          throw new IllegalArgumentException("Name too long for a roster snapshot.");
+        }
+        id = encoded.size();
+        ids.put(value, id);
+        encoded.add(bytes);
+        byteSize += 2 + bytes.length;
+      }
+      return id;
+    }
+
+    private int size() {
+      return encoded.size();
+    }
+
+    private ByteBuffer encode() {
+      ByteBuffer buffer = ByteBuffer.allocate(byteSize);
+      for (byte[] bytes : encoded) {
+        buffer.putShort((short) bytes.length).put(bytes);
+      }
+      buffer.flip();
+      return buffer;
+    }
+  }
+}
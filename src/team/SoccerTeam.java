@@ -1,166 +1,711 @@
 package team;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.TreeSet;
+import team.AbstractTeamMetrics.Operation;
+import team.AbstractTeamMetrics.Outcome;
 
 /**
- * Represents a soccer team that implements the {@link Team} interface. The team consists of players
- * under 10 years old with a minimum of 10 players and a maximum of 20 players. This class also
- * manages the starting lineup of the team, which consists of 7 players.
+ * Represents a soccer team that implements the {@link Team} interface. The team consists of
+ * players under 10 years old with a minimum of 10 players and a maximum of 20 players by default.
+ * This class also manages the starting lineup of the team, which consists of 7 players by default,
+ * or as many as the team's {@link Formation} has slots.
  */
 public class SoccerTeam implements Team {
   private static final int MINIMUM_AGE = 10;
-  private static final int MINIMUM_PLAYERS = 10;
-  private static final int MAXIMUM_PLAYERS = 20;
-  private List<TeamMember> players;
+  private static final Position[] POSITIONS = Position.values();
+  private static final Comparator<TeamMember> LINEUP_ORDER = Comparator.comparing(
+      TeamMember::getSkillLevel).reversed().thenComparing(TeamMember::getPreferredPosition)
+      .thenComparing(TeamMember::getLastName);
+  private static final Comparator<TeamMember> EVICTION_ORDER = Comparator.comparing(
+      TeamMember::getSkillLevel).thenComparing(TeamMember::getPreferredPosition)
+      .thenComparing(TeamMember::getLastName).thenComparingLong(TeamMember::getRosterSequence);
+  private final Formation formation;
+  private final int minimumPlayers;
+  private final int maximumPlayers;
+  private final AddResult[] results = new AddResult[AddResult.Outcome.values().length];
+  private Set<TeamMember> players;
   private List<TeamMember> startingLineup;
-  private final Map<Position, Integer> positionCounts = new HashMap<Position, Integer>() {{
-      put(Position.GOALIE, 1);
-      put(Position.DEFENDER, 2);
-      put(Position.MIDFIELDER, 3);
-      put(Position.FORWARD, 1);
-    }};
+  private final List<TeamMember> rankedPlayers = new ArrayList<>();
+  private final int[] openSlots = new int[POSITIONS.length];
+  private boolean[] selected = new boolean[0];
+  private final TreeSet<TeamMember> evictionOrder = new TreeSet<>(EVICTION_ORDER);
+  private final RosterIndex index;
+  private final IncrementalLineup incrementalLineup;
+  private LineupStrategy lineupStrategy;
+  private final JerseyNumberAllocator jerseyNumbers;
+  private long nextRosterSequence;
+  private boolean rosterChanged;
+  private long version;
+  private RosterSnapshot snapshot;
+  private RosterListener rosterListener;
+  private TeamMetrics metrics;
 
   /**
    * Constructs a new SoccerTeam with empty lists for players and starting lineup.
    */
   public SoccerTeam() {
-    players = new ArrayList<>();
-    startingLineup = new ArrayList<>();
+    this(false);
+  }
+
+  /**
+   * Constructs a new SoccerTeam with empty lists for players and starting lineup.
+   * <p>
+   * In incremental mode the starting lineup is kept in per-position ordered structures that are
+   * updated on every add and eviction, instead of re-sorting and re-selecting the whole roster.
+   * Both modes select the same lineup.
+   *
+   * @param incrementalLineup {@code true} to maintain the starting lineup incrementally
+   */
+  public SoccerTeam(boolean incrementalLineup) {
+    this(incrementalLineup,
+        new JerseyNumberAllocator(1, Formation.SEVEN_A_SIDE.getMaximumPlayers()));
+  }
+
+  /**
+   * Constructs a new SoccerTeam that draws jersey numbers from the given allocator. Passing a
+   * seeded allocator makes the jersey numbers of a run reproducible.
+   *
+   * @param incrementalLineup {@code true} to maintain the starting lineup incrementally
+   * @param jerseyNumbers     the allocator to draw jersey numbers from
+   * @throws IllegalArgumentException if the allocator cannot number a full roster
+   */
+  public SoccerTeam(boolean incrementalLineup, JerseyNumberAllocator jerseyNumbers) {
+    this(Formation.SEVEN_A_SIDE.getMinimumPlayers(), Formation.SEVEN_A_SIDE.getMaximumPlayers(),
+        incrementalLineup, jerseyNumbers);
+  }
+
+  /**
+   * Constructs a new SoccerTeam with custom roster caps, numbered from 1 to the maximum roster
+   * size.
+   *
+   * @param minimumPlayers the number of players needed to form a team and a starting lineup
+   * @param maximumPlayers the number of players after which new players must evict weaker ones
+   * @throws IllegalArgumentException if the caps are not positive, the minimum exceeds the maximum,
+   *                                  or the minimum is below the 7 players of a starting lineup
+   */
+  public SoccerTeam(int minimumPlayers, int maximumPlayers) {
+    this(minimumPlayers, maximumPlayers, false, new JerseyNumberAllocator(1, maximumPlayers));
+  }
+
+  /**
+   * Constructs a new SoccerTeam with custom roster caps and jersey numbers.
+   *
+   * @param minimumPlayers    the number of players needed to form a team and a starting lineup
+   * @param maximumPlayers    the number of players after which new players must evict weaker ones
+   * @param incrementalLineup {@code true} to maintain the starting lineup incrementally
+   * @param jerseyNumbers     the allocator to draw jersey numbers from
+   * @throws IllegalArgumentException if the caps are not positive, the minimum exceeds the maximum
+   *                                  or is below the 7 players of a starting lineup, or the
+   *                                  allocator cannot number a full roster
+   */
+  public SoccerTeam(int minimumPlayers, int maximumPlayers, boolean incrementalLineup,
+      JerseyNumberAllocator jerseyNumbers) {
+    this(Formation.SEVEN_A_SIDE, minimumPlayers, maximumPlayers, incrementalLineup, jerseyNumbers);
+  }
+
+  /**
+   * Constructs a new SoccerTeam that plays the given formation, with the formation's roster caps
+   * and jersey numbers from 1 to its maximum roster size.
+   *
+   * @param formation the formation that decides how many players start at each position
+   * @throws IllegalArgumentException if the formation's minimum roster size is below its lineup
+   *                                  size
+   */
+  public SoccerTeam(Formation formation) {
+    this(formation, formation.getMinimumPlayers(), formation.getMaximumPlayers(), false,
+        new JerseyNumberAllocator(1, formation.getMaximumPlayers()));
+  }
+
+  /**
+   * Constructs a new SoccerTeam that plays the given formation, with custom roster caps and jersey
+   * numbers.
+   *
+   * @param formation         the formation that decides how many players start at each position
+   * @param minimumPlayers    the number of players needed to form a team and a starting lineup
+   * @param maximumPlayers    the number of players after which new players must evict weaker ones
+   * @param incrementalLineup {@code true} to maintain the starting lineup incrementally
+   * @param jerseyNumbers     the allocator to draw jersey numbers from
+   * @throws IllegalArgumentException if the caps are not positive, the minimum exceeds the maximum
+   *                                  or is below the formation's lineup size, or the allocator
+   *                                  cannot number a full roster
+   */
+  public SoccerTeam(Formation formation, int minimumPlayers, int maximumPlayers,
+      boolean incrementalLineup, JerseyNumberAllocator jerseyNumbers) {
+    if (minimumPlayers <= 0 || minimumPlayers > maximumPlayers) {
+      throw new IllegalArgumentException(
+          "Invalid roster caps: " + minimumPlayers + " to " + maximumPlayers + " players.");
+    }
+    if (minimumPlayers < formation.getLineupSize()) {
+      throw new IllegalArgumentException("A " + formation + " team needs at least "
+          + formation.getLineupSize() + " players to form a starting lineup, not "
+          + minimumPlayers + ".");
+    }
+    if (jerseyNumbers.available() < maximumPlayers) {
+      throw new IllegalArgumentException(
+          "The jersey number range must hold at least " + maximumPlayers + " free numbers.");
+    }
+    this.formation = formation;
+    this.minimumPlayers = minimumPlayers;
+    this.maximumPlayers = maximumPlayers;
+    players = new LinkedHashSet<>();
+    startingLineup = new ArrayList<>(formation.getLineupSize());
+    this.incrementalLineup = incrementalLineup
+        ? new IncrementalLineup(LINEUP_ORDER, formation) : null;
+    this.jerseyNumbers = jerseyNumbers;
+    this.index = new RosterIndex(jerseyNumbers.getFirstNumber(), jerseyNumbers.getLastNumber());
+    setResult(AddResult.Outcome.ADDED, "Player added successfully.");
+    setResult(AddResult.Outcome.ADDED_BEFORE_TEAM_FORMED, "You need at least " + minimumPlayers
+        + " players to create a team. Player added, but team not created yet.");
+    setResult(AddResult.Outcome.ALREADY_ON_TEAM,
+        "Player not added. The player is already on the team.");
+    setResult(AddResult.Outcome.TOO_OLD,
+        "Player not added. The team is for children under 10 years old.");
+    setResult(AddResult.Outcome.ROSTER_FULL,
+        "The team already has " + maximumPlayers + " players with higher or equal skill level.");
+  }
+
+  private void setResult(AddResult.Outcome outcome, String message) {
+    results[outcome.ordinal()] = new AddResult(outcome, message);
   }
 
   @Override public String addPlayer(TeamMember player) {
+    long start = metrics == null ? 0 : System.nanoTime();
+    try {
+      return admitPlayer(player).getMessage();
+    } finally {
+      refreshStartingLineup();
+      if (metrics != null) {
+        metrics.record(Operation.ADD_PLAYER, start);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If adding a player fails, the players before it stay on the roster and the starting lineup is
+   * still selected for them, so the lineup always matches the roster.
+   *
+   * @throws IllegalArgumentException if the collection contains null; no player is added then
+   */
+  @Override public List<String> addPlayers(Collection<TeamMember> newPlayers) {
+    List<AddResult> added = addPlayersWithResults(newPlayers);
+    List<String> messages = new ArrayList<>(added.size());
+    for (AddResult result : added) {
+      messages.add(result.getMessage());
+    }
+    return messages;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if the collection contains null; no player is added then
+   * @see #addPlayers(Collection)
+   */
+  @Override public List<AddResult> addPlayersWithResults(Collection<TeamMember> newPlayers) {
+    for (TeamMember player : newPlayers) {
+      if (player == null) {
+        throw new IllegalArgumentException("Cannot add a null player.");
+      }
+    }
+    long start = metrics == null ? 0 : System.nanoTime();
+    List<AddResult> added = new ArrayList<>(newPlayers.size());
+    try {
+      for (TeamMember player : newPlayers) {
+        added.add(admitPlayer(player));
+      }
+    } finally {
+      refreshStartingLineup();
+      if (metrics != null) {
+        metrics.record(Operation.ADD_PLAYERS, start);
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Applies the age, roster-minimum and eviction rules to a single player and updates the roster,
+   * without selecting the starting lineup.
+   *
+   * @param player The {@link TeamMember} to add.
+   * @return the result for this player, whose message {@link #addPlayer(TeamMember)} returns
+   */
+  private AddResult admitPlayer(TeamMember player) {
+    // Re-adding a player would take a second jersey number and change the roster sequence the
+    // ordered indexes are keyed on.
+    if (players.contains(player)) {
+      return results[AddResult.Outcome.ALREADY_ON_TEAM.ordinal()];
+    }
     int age = player.getAge();
 
     if (age >= MINIMUM_AGE) {
-      return "Player not added. The team is for children under 10 years old.";
+      count(Outcome.REJECTED_FOR_AGE);
+      return results[AddResult.Outcome.TOO_OLD.ordinal()];
     }
-    if (players.size() < MINIMUM_PLAYERS) {
-      players.add(player);
-      assignJerseyNumber(player);
+    if (players.size() < minimumPlayers) {
+      admitToRoster(player, null);
 
-      if (players.size() == MINIMUM_PLAYERS) {
-        selectStartingLineup();
-      } else {
-        return "You need at least 10 players to create a team. "
-            + "Player added, but team not created yet.";
+      if (players.size() < minimumPlayers) {
+        count(Outcome.ADDED);
+        return results[AddResult.Outcome.ADDED_BEFORE_TEAM_FORMED.ordinal()];
       }
-    } else if (players.size() < MAXIMUM_PLAYERS) {
-      players.add(player);
-      assignJerseyNumber(player);
-      selectStartingLineup();
+    } else if (players.size() < maximumPlayers) {
+      admitToRoster(player, null);
     } else {
-      TeamMember lowestSkillPlayer = players.stream().min(
-          Comparator.comparing(TeamMember::getSkillLevel)
-              .thenComparing(TeamMember::getPreferredPosition)
-              .thenComparing(TeamMember::getLastName)).orElse(null);
-
-      if (lowestSkillPlayer != null
-          && player.getSkillLevel().compareTo(lowestSkillPlayer.getSkillLevel()) > 0) {
-        players.remove(lowestSkillPlayer);
-        players.add(player);
-        assignJerseyNumber(player);
-        selectStartingLineup();
+      TeamMember lowestSkillPlayer = evictionOrder.first();
+
+      if (player.getSkillLevel().compareTo(lowestSkillPlayer.getSkillLevel()) > 0) {
+        admitToRoster(player, lowestSkillPlayer);
       } else {
-        return "The team already has 20 players with higher or equal skill level.";
+        count(Outcome.REJECTED_FOR_FULL_ROSTER);
+        return results[AddResult.Outcome.ROSTER_FULL.ordinal()];
+      }
+    }
+
+    count(Outcome.ADDED);
+    return results[AddResult.Outcome.ADDED.ordinal()];
+  }
+
+  /**
+   * Gives a player a jersey number and adds them to the roster, evicting the given player first if
+   * there is one. The roster listener is told about the change before anything on the roster
+   * changes; if it fails, the jersey numbers are put back as they were and the failure is thrown.
+   *
+   * @param player  the player to add
+   * @param evicted the player to evict to make room, or {@code null}
+   */
+  private void admitToRoster(TeamMember player, TeamMember evicted) {
+    int previousNumber = player.getJerseyNumber();
+    if (evicted != null) {
+      // The new player may take over the number of the player they evict.
+      jerseyNumbers.release(evicted.getJerseyNumber());
+    }
+    assignJerseyNumber(player);
+    if (rosterListener != null) {
+      try {
+        rosterListener.beforePlayerAdded(player, evicted);
+      } catch (RuntimeException | Error e) {
+        jerseyNumbers.release(player.getJerseyNumber());
+        if (evicted != null) {
+          jerseyNumbers.reserve(evicted.getJerseyNumber());
+        }
+        player.setJerseyNumber(previousNumber);
+        throw e;
+      }
+    }
+    if (evicted != null) {
+      long start = metrics == null ? 0 : System.nanoTime();
+      removeFromRoster(evicted);
+      if (metrics != null) {
+        metrics.record(Operation.EVICTION, start);
+        metrics.increment(Outcome.EVICTED);
+      }
+    }
+    addToRoster(player);
+  }
+
+  /**
+   * Counts an outcome of adding a player if metrics are set.
+   *
+   * @param outcome the outcome
+   */
+  private void count(Outcome outcome) {
+    if (metrics != null) {
+      metrics.increment(outcome);
+    }
+  }
+
+  /**
+   * Returns whether the given player is young enough to play on a soccer team on the given date.
+   * {@link #addPlayer(TeamMember)} applies the same rule on the current date.
+   *
+   * @param player the player to check
+   * @param asOf   the date the player's age is computed on, usually the season cutoff
+   * @return {@code true} if the player is under 10 years old on that date
+   */
+  public static boolean isEligible(TeamMember player, LocalDate asOf) {
+    return AgeCalculator.ageOn(player.getBirthDate(), asOf) < MINIMUM_AGE;
+  }
+
+  /**
+   * Removes every player who is no longer eligible on the given date, for example when a new
+   * season's cutoff date is set. Their jersey numbers are released, and the starting lineup is
+   * selected again once, after all of them have been removed, even if removing one of them fails.
+   *
+   * @param asOf the date the players' ages are computed on
+   * @return the removed players, in the order they joined the team
+   */
+  public List<TeamMember> removeIneligiblePlayers(LocalDate asOf) {
+    List<TeamMember> ineligible = new ArrayList<>();
+    for (TeamMember player : players) {
+      if (!isEligible(player, asOf)) {
+        ineligible.add(player);
       }
     }
+    try {
+      for (TeamMember player : ineligible) {
+        if (rosterListener != null) {
+          rosterListener.beforePlayerRemoved(player);
+        }
+        removeFromRoster(player);
+        jerseyNumbers.release(player.getJerseyNumber());
+      }
+    } finally {
+      refreshStartingLineup();
+    }
+    return ineligible;
+  }
 
-    return "Player added successfully.";
+  /**
+   * If the roster changed since the last call, bumps the roster version, discards the published
+   * snapshot and selects the starting lineup when the team has at least the minimum number of
+   * players.
+   */
+  private void refreshStartingLineup() {
+    if (rosterChanged) {
+      rosterChanged = false;
+      version++;
+      snapshot = null;
+      if (players.size() >= minimumPlayers) {
+        long start = metrics == null ? 0 : System.nanoTime();
+        selectStartingLineup();
+        if (metrics != null) {
+          metrics.record(Operation.LINEUP_SELECTION, start);
+        }
+      }
+    }
+  }
+
+  /**
+   * Restores players that were previously on this team, keeping their jersey numbers and the order
+   * in which they joined. No age or roster rules are applied. The starting lineup is selected once
+   * all players have been restored.
+   *
+   * @param roster the players to restore, in the order they joined the team
+   * @throws IllegalStateException    if the team already has players
+   * @throws IllegalArgumentException if the roster is larger than the team's maximum or a jersey
+   *                                  number is outside the allocator's range
+   */
+  void restoreRoster(List<TeamMember> roster) {
+    if (!players.isEmpty()) {
+      throw new IllegalStateException("Players can only be restored into an empty team.");
+    }
+    if (roster.size() > maximumPlayers) {
+      throw new IllegalArgumentException("Cannot restore " + roster.size()
+          + " players into a team of at most " + maximumPlayers + ".");
+    }
+    for (TeamMember player : roster) {
+      restorePlayer(player);
+    }
+    finishRestore();
+  }
+
+  /**
+   * Restores a single player with the jersey number already set on it, without applying any rules
+   * or selecting the starting lineup. Call {@link #finishRestore()} once all changes have been
+   * restored.
+   *
+   * @param player the player to restore
+   * @throws IllegalArgumentException if the jersey number is outside the allocator's range
+   * @throws IllegalStateException    if the jersey number is already taken
+   */
+  void restorePlayer(TeamMember player) {
+    jerseyNumbers.reserve(player.getJerseyNumber());
+    addToRoster(player);
+  }
+
+  /**
+   * Restores the eviction of the player wearing the given jersey number, without selecting the
+   * starting lineup. Call {@link #finishRestore()} once all changes have been restored.
+   *
+   * @param jerseyNumber the jersey number of the evicted player
+   * @throws IllegalStateException if no player wears that jersey number
+   */
+  void restoreEviction(int jerseyNumber) {
+    TeamMember player = index.byJerseyNumber(jerseyNumber);
+    if (player == null) {
+      throw new IllegalStateException("No player wears jersey number " + jerseyNumber + ".");
+    }
+    removeFromRoster(player);
+    jerseyNumbers.release(jerseyNumber);
+  }
+
+  /**
+   * Selects the starting lineup after players have been restored.
+   */
+  void finishRestore() {
+    refreshStartingLineup();
+  }
+
+  /**
+   * Sets the listener that is told about every player added to or removed from the roster, before
+   * the change is made.
+   *
+   * @param rosterListener the listener, or {@code null} to remove it
+   */
+  void setRosterListener(RosterListener rosterListener) {
+    this.rosterListener = rosterListener;
+  }
+
+  /**
+   * Returns the players on the roster in the order they joined the team. The returned collection is
+   * a live, unmodifiable view.
+   *
+   * @return the roster in join order
+   */
+  Collection<TeamMember> roster() {
+    return Collections.unmodifiableCollection(players);
+  }
+
+  /**
+   * Sets the strategy that selects the starting lineup, replacing the built-in greedy or
+   * incremental selection, and selects the lineup again. The strategy is not stored in snapshots
+   * or journals; set it again on restored teams.
+   *
+   * @param lineupStrategy the strategy to use, or {@code null} to go back to the built-in selection
+   */
+  public void setLineupStrategy(LineupStrategy lineupStrategy) {
+    this.lineupStrategy = lineupStrategy;
+    rosterChanged = true;
+    refreshStartingLineup();
+  }
+
+  /**
+   * Sets the metrics that count this team's add outcomes and time its operations.
+   *
+   * @param metrics the metrics to record into, or {@code null} to stop recording
+   */
+  public void setMetrics(TeamMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Returns the metrics this team records into.
+   *
+   * @return the metrics, or {@code null} if none are set
+   */
+  public TeamMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the strategy that selects the starting lineup.
+   *
+   * @return the strategy, or {@code null} if the built-in selection is used
+   */
+  public LineupStrategy getLineupStrategy() {
+    return lineupStrategy;
+  }
+
+  /**
+   * Returns the formation this team plays.
+   *
+   * @return the formation
+   */
+  public Formation getFormation() {
+    return formation;
+  }
+
+  /**
+   * Returns the number of players needed to form a team and a starting lineup.
+   *
+   * @return the minimum roster size
+   */
+  public int getMinimumPlayers() {
+    return minimumPlayers;
+  }
+
+  /**
+   * Returns the number of players after which new players must evict weaker ones.
+   *
+   * @return the maximum roster size
+   */
+  public int getMaximumPlayers() {
+    return maximumPlayers;
+  }
+
+  /**
+   * Returns whether the starting lineup is maintained incrementally.
+   *
+   * @return {@code true} in incremental lineup mode
+   */
+  public boolean isIncrementalLineup() {
+    return incrementalLineup != null;
+  }
+
+  /**
+   * Returns the allocator this team draws jersey numbers from.
+   *
+   * @return the jersey number allocator
+   */
+  JerseyNumberAllocator jerseyNumbers() {
+    return jerseyNumbers;
+  }
+
+  /**
+   * Adds the given player to the roster, the eviction index, the {@link RosterIndex} and, in
+   * incremental mode, to the lineup structures.
+   *
+   * @param player The {@link TeamMember} to add.
+   */
+  private void addToRoster(TeamMember player) {
+    player.setRosterSequence(nextRosterSequence++);
+    players.add(player);
+    evictionOrder.add(player);
+    index.add(player);
+    rosterChanged = true;
+    if (incrementalLineup != null) {
+      incrementalLineup.add(player);
+    }
+  }
+
+  /**
+   * Removes the given player from the roster, the eviction index, the {@link RosterIndex} and, in
+   * incremental mode, from the lineup structures. The caller releases the player's jersey number,
+   * since an evicting player may already have taken it over.
+   *
+   * @param player The {@link TeamMember} to remove.
+   */
+  private void removeFromRoster(TeamMember player) {
+    players.remove(player);
+    evictionOrder.remove(player);
+    index.remove(player);
+    rosterChanged = true;
+    if (incrementalLineup != null) {
+      incrementalLineup.remove(player);
+    }
   }
 
   /**
    * Assigns a random jersey number to the given player that is not already assigned to any other
-   * player in the team.
+   * player in the team. Numbers of evicted players are released back to the allocator.
    *
    * @param player The {@link TeamMember} to assign a jersey number.
    */
   private void assignJerseyNumber(TeamMember player) {
-    List<Integer> availableNumbers = IntStream.rangeClosed(1, MAXIMUM_PLAYERS)
-        .filter(num -> players.stream().noneMatch(p -> p.getJerseyNumber() == num)).boxed()
-        .collect(Collectors.toList());
-
-    Random random = new Random();
-    int randomIndex = random.nextInt(availableNumbers.size());
-    int jerseyNumber = availableNumbers.get(randomIndex);
-
-    player.setJerseyNumber(jerseyNumber);
+    player.setJerseyNumber(jerseyNumbers.allocate());
   }
 
   /**
    * Selects the starting lineup for the team based on the players' skill levels, preferred
-   * positions, and last names. This method is called when the team has at least the minimum number
-   * of required players and when a new player is added.
+   * positions, and last names. Players that tie on all three keep the order in which they joined.
+   * This method is called when the team has at least the minimum number of required players and the
+   * roster has changed, once per call to {@link #addPlayer} or {@link #addPlayers}. Each position
+   * first gets as many of its best players as the formation has slots for it; positions left open
+   * after the first pass are backfilled in {@link Position} order with the best remaining players.
+   * The slot counts and the ranking are kept in reused arrays, so no maps are created per call.
+   * If a {@link LineupStrategy} is set, it selects the lineup from the ranked players instead.
    */
   private void selectStartingLineup() {
-    players.sort(Comparator.comparing(TeamMember::getSkillLevel).reversed()
-        .thenComparing(TeamMember::getPreferredPosition).thenComparing(TeamMember::getLastName));
+    if (lineupStrategy == null && incrementalLineup != null) {
+      incrementalLineup.fill(startingLineup);
+      return;
+    }
 
+    rankedPlayers.clear();
+    for (TeamMember player : players) {
+      rankedPlayers.add(player);
+    }
+    rankedPlayers.sort(LINEUP_ORDER);
     startingLineup.clear();
-    Map<Position, Integer> positionCounts = new HashMap<>(this.positionCounts);
+    if (lineupStrategy != null) {
+      lineupStrategy.selectLineup(Collections.unmodifiableList(rankedPlayers), formation,
+          startingLineup);
+      return;
+    }
 
-    for (TeamMember player : players) {
+    int size = rankedPlayers.size();
+    if (selected.length < size) {
+      selected = new boolean[Math.max(size, maximumPlayers)];
+    }
+
+    formation.copySlots(openSlots);
+
+    for (int i = 0; i < size; i++) {
+      TeamMember player = rankedPlayers.get(i);
       Position position = player.getPreferredPosition();
-      if (positionCounts.get(position) > 0 && !startingLineup.contains(player)) {
+      selected[i] = openSlots[position.ordinal()] > 0;
+      if (selected[i]) {
         player.setActualPosition(position);
         startingLineup.add(player);
-        positionCounts.put(position, positionCounts.get(position) - 1);
+        openSlots[position.ordinal()]--;
       }
     }
 
-    for (Map.Entry<Position, Integer> entry : positionCounts.entrySet()) {
-      if (entry.getValue() > 0) {
-        int requiredCount = entry.getValue();
-        Position position = entry.getKey();
-
-        List<TeamMember> remainingPlayers = players.stream()
-            .filter(player -> startingLineup.stream().noneMatch(p -> p.equals(player)))
-            .collect(Collectors.toList());
-
-        remainingPlayers.sort(Comparator.comparing(TeamMember::getSkillLevel).reversed());
-
-        for (int i = 0; i < requiredCount && i < remainingPlayers.size(); i++) {
-          TeamMember player = remainingPlayers.get(i);
-          if (!startingLineup.contains(player)) {
-            player.setActualPosition(position);
-            startingLineup.add(player);
-          }
+    int next = 0;
+    for (Position position : POSITIONS) {
+      for (int open = openSlots[position.ordinal()]; open > 0; open--) {
+        while (next < size && selected[next]) {
+          next++;
         }
+        if (next == size) {
+          return;
+        }
+        TeamMember player = rankedPlayers.get(next++);
+        player.setActualPosition(position);
+        startingLineup.add(player);
       }
     }
   }
 
-  /**
-   * Creates a deep copy of the given {@link TeamMember} instance.
-   *
-   * @param player The {@link TeamMember} instance to be copied.
-   * @return A new {@link TeamMember} instance with the same properties as the input player.
-   */
-  private TeamMember deepCopy(TeamMember player) {
-    TeamMember copiedPlayer = new TeamMember(player.getFirstName(), player.getLastName(),
-        player.getDateOfBirth(), player.getPreferredPosition(), player.getSkillLevel());
-    copiedPlayer.setJerseyNumber(player.getJerseyNumber());
-    return copiedPlayer;
-  }
-
   @Override public List<TeamMember> getAllPlayers() {
-    return players.stream().sorted(Comparator.comparing(TeamMember::getLastName))
-        .map(this::deepCopy).collect(Collectors.toList());
+    if (metrics == null) {
+      return getSnapshot().getAllPlayers();
+    }
+    long start = System.nanoTime();
+    List<TeamMember> players = getSnapshot().getAllPlayers();
+    metrics.record(Operation.GET_ALL_PLAYERS, start);
+    return players;
   }
 
   @Override public List<TeamMember> getStartingLineup() {
-    if (players.size() < MINIMUM_PLAYERS) {
-      throw new IllegalStateException(
-          "A soccer team must have at least 10 players to form a starting lineup.");
+    return getSnapshot().getStartingLineup();
+  }
+
+  @Override public TeamMember getPlayerByJerseyNumber(int jerseyNumber) {
+    return getSnapshot().getPlayerByJerseyNumber(jerseyNumber);
+  }
+
+  @Override public List<TeamMember> getPlayersByPosition(Position position) {
+    return getSnapshot().getPlayersByPosition(position);
+  }
+
+  @Override public List<TeamMember> getPlayersBySkillLevel(SkillLevel skillLevel) {
+    return getSnapshot().getPlayersBySkillLevel(skillLevel);
+  }
+
+  @Override public List<TeamMember> getPlayers(Position position, SkillLevel skillLevel) {
+    return getSnapshot().getPlayers(position, skillLevel);
+  }
+
+  @Override public List<TeamMember> findPlayersByLastName(String prefix) {
+    return getSnapshot().findPlayersByLastName(prefix);
+  }
+
+  /**
+   * {@inheritDoc} The snapshot is taken on the first read after the roster changes and reused until
+   * the next change.
+   */
+  @Override public RosterSnapshot getSnapshot() {
+    if (snapshot == null) {
+      boolean formed = players.size() >= minimumPlayers;
+      snapshot = new RosterSnapshot(version, index, formed ? startingLineup : null,
+          "A soccer team must have at least " + minimumPlayers
+              + " players to form a starting lineup.");
     }
-    return startingLineup.stream().sorted(
-            Comparator.comparing(TeamMember::getActualPosition)
-                .thenComparing(TeamMember::getLastName)).collect(Collectors.toList());
+    return snapshot;
+  }
+
+  @Override public boolean hasChangedSince(long version) {
+    return this.version != version;
   }
 }
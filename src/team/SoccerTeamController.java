@@ -2,68 +2,116 @@ package team;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.List;
+import javax.swing.SwingUtilities;
 
 /**
  * The SoccerTeamController class is responsible for managing the interactions between the
  * SoccerTeamView and the Team model. It handles user actions, updates the model, and refreshes the
  * view accordingly.
+ * <p>
+ * Model calls are submitted to a {@link TeamCommandQueue}, so the event dispatch thread only reads
+ * the form and displays results. Players added in quick succession, for example by scanning
+ * registration cards, are applied in one batch, and the view is refreshed once for all of them.
  */
 public class SoccerTeamController {
   private SoccerTeamView view;
-  private Team team;
+  private TeamCommandQueue commands;
 
   /**
    * Constructs a SoccerTeamController with the specified SoccerTeamView and Team model.
    *
    * @param view the SoccerTeamView instance to be managed by this controller
-   * @param team the Team model instance to be managed by this controller
+   * @param team the Team model instance to be managed by this controller; from now on it is only
+   *             used from the controller's command queue
    */
   public SoccerTeamController(SoccerTeamView view, Team team) {
     this.view = view;
-    this.team = team;
+    this.commands = new TeamCommandQueue(team, SwingUtilities::invokeLater, this::showResults);
 
     this.view.addAddPlayerButtonListener(new AddPlayerListener());
     this.view.addCreateTeamButtonListener(new CreateTeamListener());
   }
 
+  /**
+   * Returns the queue that applies the controller's commands to the team, for monitoring its depth
+   * and latency.
+   *
+   * @return the command queue
+   */
+  public TeamCommandQueue getCommandQueue() {
+    return commands;
+  }
+
+  /**
+   * Shows the result messages of the players added since the last refresh and the new player list.
+   * Called on the event dispatch thread.
+   */
+  private void showResults(RosterSnapshot snapshot, List<TeamMember> players,
+      List<String> messages) {
+    // Update the player list immediately after adding players
+    view.displayAllPlayers(snapshot.getAllPlayers());
+
+    if (messages.size() == 1) {
+      view.showMessage(messages.get(0));
+    } else {
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < messages.size(); i++) {
+        text.append(players.get(i).getFullName()).append(": ").append(messages.get(i))
+            .append('\n');
+      }
+      view.showMessage(text.toString());
+    }
+  }
+
   /**
    * The AddPlayerListener is an ActionListener that handles the "Add Player" button events. It
-   * retrieves the player data from the view, validates the date of birth, updates the model, and
-   * refreshes the view accordingly.
+   * retrieves the player data from the view, validates the date of birth and submits the player to
+   * the command queue. The results are shown once the player has been added.
    */
   private class AddPlayerListener implements ActionListener {
     @Override public void actionPerformed(ActionEvent e) {
-      TeamMember player = view.getPlayerFromForm();
-
-      if (player.getAge() == -1) {
+      TeamMember player;
+      try {
+        player = view.getPlayerFromForm();
+      } catch (IllegalArgumentException ex) {
         view.showMessage("Please enter a valid date of birth in the format YYYY-MM-DD.");
         return; // Do not proceed if the date of birth is invalid
       }
 
-      String message = team.addPlayer(player);
-      view.showMessage(message);
-
-      // Update the player list immediately after adding a player
-      view.displayAllPlayers(team.getAllPlayers());
+      commands.addPlayer(player).exceptionally(ex -> {
+        SwingUtilities.invokeLater(() -> view.showMessage(
+            "The player could not be added: " + ex.getMessage()));
+        return null;
+      });
 
+      // The form is ready for the next player while this one is being added
       view.clearForm();
     }
   }
 
   /**
    * The CreateTeamListener is an ActionListener that handles the "Create Team" button events. It
-   * checks if the team has at least 10 players, and if so, it displays the team list and starting
-   * lineup in the view. Otherwise, it shows an error message.
+   * checks if the team has enough players to form a starting lineup, and if so, it displays the
+   * team list and starting lineup in the view. Otherwise, it shows an error message.
    */
   private class CreateTeamListener implements ActionListener {
     @Override public void actionPerformed(ActionEvent e) {
-      if (team.getAllPlayers().size() < 10) {
-        view.showMessage("You need at least 10 players to create a team.");
-      } else {
-        view.displayAllPlayers(team.getAllPlayers());
-        view.displayStartingLineup(team.getStartingLineup());
-        view.showMessage("Team created successfully.");
+      commands.snapshot().thenAcceptAsync(this::showTeam, SwingUtilities::invokeLater);
+    }
+
+    private void showTeam(RosterSnapshot snapshot) {
+      List<TeamMember> startingLineup;
+      try {
+        startingLineup = snapshot.getStartingLineup();
+      } catch (IllegalStateException ex) {
+        view.showMessage(ex.getMessage());
+        return; // The team does not have enough players for its formation yet
       }
+
+      view.displayAllPlayers(snapshot.getAllPlayers());
+      view.displayStartingLineup(startingLineup);
+      view.showMessage("Team created successfully.");
     }
   }
 }
@@ -1,6 +1,7 @@
 package team;
 
 import java.awt.BorderLayout;
+import java.awt.Dimension;
 import java.awt.event.ActionListener;
 import java.awt.GridLayout;
 import java.util.List;
@@ -14,13 +15,17 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
+import javax.swing.JTable;
 import javax.swing.JTextField;
 
 /**
  * The SoccerTeamView class represents the user interface for managing a U10 soccer team. It allows
  * users to input player details, add players to the team, and create the team with a starting
  * lineup. It extends the JFrame class to create a graphical user interface.
+ * <p>
+ * The team list and starting lineup are {@link JTable}s over {@link PlayerTableModel}s, which only
+ * render the visible rows and repaint only the rows that change, so large rosters stay responsive.
+ * All methods must be called on the event dispatch thread.
  */
 public class SoccerTeamView extends JFrame {
   private JPanel mainPanel;
@@ -31,8 +36,8 @@ public class SoccerTeamView extends JFrame {
   private JComboBox<SkillLevel> skillLevelComboBox;
   private JButton addButton;
   private JButton createTeamButton;
-  private JTextArea teamListTextArea;
-  private JTextArea startingLineupTextArea;
+  private final PlayerTableModel teamListModel = new PlayerTableModel();
+  private final PlayerTableModel startingLineupModel = new PlayerTableModel();
 
   /**
    * Constructs a SoccerTeamView instance, initializing the user interface components and setting up
@@ -79,14 +84,13 @@ public class SoccerTeamView extends JFrame {
     // Create and add the team list and starting lineup panels
     JPanel teamListPanel = new JPanel(new BorderLayout());
     teamListPanel.setBorder(BorderFactory.createTitledBorder("Team List"));
-    teamListTextArea = new JTextArea(10, 20);
-    teamListPanel.add(new JScrollPane(teamListTextArea), BorderLayout.CENTER);
+    teamListPanel.add(new JScrollPane(newPlayerTable(teamListModel)), BorderLayout.CENTER);
     JPanel listsPanel = new JPanel(new GridLayout(1, 2));
     listsPanel.add(teamListPanel);
     JPanel startingLineupPanel = new JPanel(new BorderLayout());
     startingLineupPanel.setBorder(BorderFactory.createTitledBorder("Starting Lineup"));
-    startingLineupTextArea = new JTextArea(10, 20);
-    startingLineupPanel.add(new JScrollPane(startingLineupTextArea), BorderLayout.CENTER);
+    startingLineupPanel.add(new JScrollPane(newPlayerTable(startingLineupModel)),
+        BorderLayout.CENTER);
     listsPanel.add(startingLineupPanel);
 
     mainPanel.add(listsPanel);
@@ -121,6 +125,7 @@ public class SoccerTeamView extends JFrame {
    * Retrieves the player data from the form and returns a new TeamMember instance.
    *
    * @return a new TeamMember instance with the data from the form
+   * @throws IllegalArgumentException if the date of birth entered is not a valid date
    */
   public TeamMember getPlayerFromForm() {
     String firstName = firstNameField.getText();
@@ -142,27 +147,25 @@ public class SoccerTeamView extends JFrame {
   }
 
   /**
-   * Displays a list of players in the team list text area.
+   * Displays a list of players in the team list table. Only the rows that differ from the players
+   * displayed before are repainted.
    *
-   * @param players a list of TeamMember instances representing the players
+   * @param players a list of TeamMember instances representing the players; it is displayed as is
+   *                and must not change afterwards
    */
   public void displayAllPlayers(List<TeamMember> players) {
-    teamListTextArea.setText("");
-    for (TeamMember player : players) {
-      teamListTextArea.append(player.toString() + "\n");
-    }
+    teamListModel.setPlayers(players);
   }
 
   /**
-   * Displays a list of players in the starting lineup text area.
+   * Displays a list of players in the starting lineup table. Only the rows that differ from the
+   * players displayed before are repainted.
    *
-   * @param lineup a list of TeamMember instances representing the starting lineup
+   * @param lineup a list of TeamMember instances representing the starting lineup; it is displayed
+   *               as is and must not change afterwards
    */
   public void displayStartingLineup(List<TeamMember> lineup) {
-    startingLineupTextArea.setText("");
-    for (TeamMember player : lineup) {
-      startingLineupTextArea.append(player.toString() + "\n");
-    }
+    startingLineupModel.setPlayers(lineup);
   }
 
   /**
@@ -173,4 +176,11 @@ public class SoccerTeamView extends JFrame {
   public void showMessage(String message) {
     JOptionPane.showMessageDialog(this, message);
   }
-}
\ No newline at end of file
+
+  private static JTable newPlayerTable(PlayerTableModel model) {
+    JTable table = new JTable(model);
+    table.setFillsViewportHeight(true);
+    table.setPreferredScrollableViewportSize(new Dimension(360, 10 * table.getRowHeight()));
+    return table;
+  }
+}
@@ -1,10 +1,12 @@
 package team;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Represents a team in a sports organization. Provides methods to add a player to the team,
- * retrieve all players on the team, and obtain the starting lineup.
+ * retrieve all players on the team, look players up by jersey number, position, skill level or
+ * last name, and obtain the starting lineup.
  */
 public interface Team {
 
@@ -20,9 +22,30 @@ public interface Team {
   String addPlayer(TeamMember player);
 
   /**
-   * Retrieves a list of all players on the team, sorted by their last names.
+   * Adds several players to the team, applying the same rules as if each player were passed to
+   * {@link #addPlayer(TeamMember)} in iteration order. The starting lineup is updated only once,
+   * after all players have been processed.
    *
-   * @return A {@link List} of {@link TeamMember} objects representing all players on the team.
+   * @param players The {@link TeamMember}s to be added to the team, in order.
+   * @return A list with one result message per player, in the same order as the players.
+   */
+  List<String> addPlayers(Collection<TeamMember> players);
+
+  /**
+   * Adds several players to the team exactly as {@link #addPlayers(Collection)} does, and returns
+   * what happened to each player together with its result message.
+   *
+   * @param players The {@link TeamMember}s to be added to the team, in order.
+   * @return A list with one result per player, in the same order as the players.
+   */
+  List<AddResult> addPlayersWithResults(Collection<TeamMember> players);
+
+  /**
+   * Retrieves a list of all players on the team, sorted by their last names and then by their first
+   * names.
+   *
+   * @return An unmodifiable {@link List} of {@link TeamMember} objects representing all players on
+   *     the team. The players are copies and cannot be modified.
    */
   List<TeamMember> getAllPlayers();
 
@@ -30,8 +53,71 @@ public interface Team {
    * Retrieves the starting lineup for the team. The specific rules for selecting the starting
    * lineup may vary depending on the implementation.
    *
-   * @return A {@link List} of {@link TeamMember} objects representing the starting lineup.
+   * @return An unmodifiable {@link List} of {@link TeamMember} objects representing the starting
+   *     lineup.
    * @throws IllegalStateException if there are not enough players to form a starting lineup.
    */
   List<TeamMember> getStartingLineup();
+
+  /**
+   * Finds the player wearing the given jersey number, using an index instead of scanning the
+   * roster.
+   *
+   * @param jerseyNumber The jersey number to look up.
+   * @return A copy of the player wearing that number, or {@code null} if no player wears it.
+   */
+  TeamMember getPlayerByJerseyNumber(int jerseyNumber);
+
+  /**
+   * Retrieves the players whose preferred position is the given one, sorted by their last names and
+   * then by their first names.
+   *
+   * @param position The preferred {@link Position} to look up.
+   * @return An unmodifiable {@link List} of copies of the matching players.
+   */
+  List<TeamMember> getPlayersByPosition(Position position);
+
+  /**
+   * Retrieves the players with the given skill level, sorted by their last names and then by their
+   * first names.
+   *
+   * @param skillLevel The {@link SkillLevel} to look up.
+   * @return An unmodifiable {@link List} of copies of the matching players.
+   */
+  List<TeamMember> getPlayersBySkillLevel(SkillLevel skillLevel);
+
+  /**
+   * Retrieves the players with the given preferred position and skill level, for example all
+   * level-5 defenders, sorted by their last names and then by their first names.
+   *
+   * @param position   The preferred {@link Position} to look up.
+   * @param skillLevel The {@link SkillLevel} to look up.
+   * @return An unmodifiable {@link List} of copies of the matching players.
+   */
+  List<TeamMember> getPlayers(Position position, SkillLevel skillLevel);
+
+  /**
+   * Retrieves the players whose last name starts with the given prefix, sorted by their last names
+   * and then by their first names. The comparison is case-sensitive.
+   *
+   * @param prefix The start of the last name; an empty prefix matches every player.
+   * @return An unmodifiable {@link List} of copies of the matching players.
+   */
+  List<TeamMember> findPlayersByLastName(String prefix);
+
+  /**
+   * Retrieves an immutable snapshot of the current roster and starting lineup. Repeated calls
+   * return the same snapshot until the roster changes.
+   *
+   * @return A {@link RosterSnapshot} of the team.
+   */
+  RosterSnapshot getSnapshot();
+
+  /**
+   * Checks whether the roster has changed since the given version, without taking a snapshot.
+   *
+   * @param version A version previously read from {@link RosterSnapshot#getVersion()}.
+   * @return {@code true} if the roster has changed since that version.
+   */
+  boolean hasChangedSince(long version);
 }
@@ -0,0 +1,311 @@
+package team;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A single-writer command queue in front of a {@link Team}. Commands are submitted from any thread
+ * and applied in order by one writer thread, so the team itself does not need to be thread-safe.
+ * <p>
+ * The writer drains every command that is waiting when it wakes up, and applies a run of
+ * consecutive player additions with one call to {@link Team#addPlayers}, so a burst of additions,
+ * such as scanning a stack of registration cards, selects the starting lineup once. Changes are
+ * reported to a {@link Listener} on a delivery executor, such as the event dispatch thread. While
+ * a delivery is pending, the results of later batches are merged into it, so the listener is called
+ * at most once per turn of the delivery executor, with the latest snapshot.
+ * <p>
+ * A command that fails completes its future exceptionally and the writer goes on with the next
+ * command, so one bad command never stops the queue. If the delivery executor or the listener
+ * fails, the results pending delivery are dropped; they were already reported through the futures.
+ * <p>
+ * The queue depth, the number of commands and batches applied, and the latency from submitting a
+ * command to applying it are available for monitoring.
+ */
+public final class TeamCommandQueue implements Closeable {
+  private final Team team;
+  private final Executor deliveryExecutor;
+  private final Listener listener;
+  private final BlockingQueue<Command> commands = new LinkedBlockingQueue<>();
+  private final Thread writer;
+  private final LongAdder completedCommands = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder totalLatencyNanos = new LongAdder();
+  private final AtomicLong maxLatencyNanos = new AtomicLong();
+  private final Object deliveryLock = new Object();
+  private List<TeamMember> pendingPlayers = new ArrayList<>();
+  private List<String> pendingMessages = new ArrayList<>();
+  private RosterSnapshot pendingSnapshot;
+  private boolean closed;
+
+  /**
+   * Receives the results of player additions.
+   */
+  public interface Listener {
+
+    /**
+     * Called on the delivery executor after one or more batches of players have been applied.
+     *
+     * @param snapshot the roster after the latest batch
+     * @param players  the players submitted since the last call, in order
+     * @param messages the team's result message for each of those players
+     */
+    void rosterChanged(RosterSnapshot snapshot, List<TeamMember> players, List<String> messages);
+  }
+
+  /**
+   * Constructs a queue and starts its writer thread.
+   *
+   * @param team             the team to apply the commands to; it must not be used directly anymore
+   * @param deliveryExecutor runs the listener, for example {@code SwingUtilities::invokeLater}
+   * @param listener         receives the results of player additions
+   */
+  public TeamCommandQueue(Team team, Executor deliveryExecutor, Listener listener) {
+    this.team = team;
+    this.deliveryExecutor = deliveryExecutor;
+    this.listener = listener;
+    this.writer = new Thread(this::run, "team-commands");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Submits a player to be added to the team.
+   *
+   * @param player the player to add
+   * @return a future that completes on the writer thread with the team's result message
+   * @throws IllegalStateException if the queue has been closed
+   */
+  public CompletableFuture<String> addPlayer(TeamMember player) {
+    Command command = new Command(player, new CompletableFuture<>(), null);
+    submit(command);
+    return command.message;
+  }
+
+  /**
+   * Submits a read of the team's snapshot. The snapshot includes every player submitted before.
+   *
+   * @return a future that completes on the writer thread with the snapshot
+   * @throws IllegalStateException if the queue has been closed
+   */
+  public CompletableFuture<RosterSnapshot> snapshot() {
+    Command command = new Command(null, null, new CompletableFuture<>());
+    submit(command);
+    return command.snapshot;
+  }
+
+  /**
+   * Returns the number of commands waiting for the writer.
+   *
+   * @return the queue depth
+   */
+  public int getQueueDepth() {
+    return commands.size();
+  }
+
+  /**
+   * Returns the number of commands applied so far.
+   *
+   * @return the number of completed commands
+   */
+  public long getCompletedCommands() {
+    return completedCommands.sum();
+  }
+
+  /**
+   * Returns the number of times the writer has applied the commands it drained from the queue.
+   * Divided into {@link #getCompletedCommands()}, it gives the average batch size.
+   *
+   * @return the number of batches
+   */
+  public long getBatches() {
+    return batches.sum();
+  }
+
+  /**
+   * Returns the average time from submitting a command to applying it.
+   *
+   * @return the mean latency in nanoseconds, or 0 if no command has completed
+   */
+  public long getMeanLatencyNanos() {
+    long count = completedCommands.sum();
+    return count == 0 ? 0 : totalLatencyNanos.sum() / count;
+  }
+
+  /**
+   * Returns the longest time from submitting a command to applying it.
+   *
+   * @return the maximum latency in nanoseconds
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos.get();
+  }
+
+  /**
+   * Stops accepting commands. Commands already submitted are still applied.
+   */
+  @Override public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      commands.add(Command.STOP);
+    }
+  }
+
+  private synchronized void submit(Command command) {
+    if (closed) {
+      throw new IllegalStateException("The command queue is closed.");
+    }
+    commands.add(command);
+  }
+
+  private void run() {
+    List<Command> batch = new ArrayList<>();
+    List<TeamMember> players = new ArrayList<>();
+    while (true) {
+      try {
+        batch.add(commands.take());
+      } catch (InterruptedException e) {
+        return;
+      }
+      commands.drainTo(batch);
+      batches.increment();
+      boolean stop = false;
+      int start = 0;
+      for (int i = 0; i <= batch.size(); i++) {
+        Command command = i < batch.size() ? batch.get(i) : null;
+        if (command != null && command.player != null) {
+          continue;
+        }
+        // Apply the run of additions before this read or stop command.
+        if (i > start) {
+          players.clear();
+          for (int j = start; j < i; j++) {
+            players.add(batch.get(j).player);
+          }
+          addPlayers(batch.subList(start, i), players);
+        }
+        start = i + 1;
+        if (command == Command.STOP) {
+          stop = true;
+        } else if (command != null) {
+          readSnapshot(command);
+        }
+      }
+      batch.clear();
+      if (stop) {
+        return;
+      }
+    }
+  }
+
+  private void readSnapshot(Command command) {
+    RosterSnapshot snapshot;
+    try {
+      snapshot = team.getSnapshot();
+    } catch (RuntimeException | Error e) {
+      record(command);
+      command.snapshot.completeExceptionally(e);
+      return;
+    }
+    record(command);
+    command.snapshot.complete(snapshot);
+  }
+
+  private void addPlayers(List<Command> additions, List<TeamMember> players) {
+    List<String> messages;
+    RosterSnapshot snapshot;
+    try {
+      messages = team.addPlayers(players);
+      if (messages.size() != players.size()) {
+        throw new IllegalStateException("The team returned " + messages.size()
+            + " result messages for " + players.size() + " players.");
+      }
+      snapshot = team.getSnapshot();
+    } catch (RuntimeException | Error e) {
+      for (Command command : additions) {
+        record(command);
+        command.message.completeExceptionally(e);
+      }
+      return;
+    }
+    for (int i = 0; i < additions.size(); i++) {
+      Command command = additions.get(i);
+      record(command);
+      command.message.complete(messages.get(i));
+    }
+    try {
+      deliver(snapshot, players, messages);
+    } catch (RuntimeException | Error e) {
+      // The delivery executor rejected the delivery, or ran it here and the listener failed. The
+      // results already completed their futures, so drop them rather than stop the writer.
+      synchronized (deliveryLock) {
+        pendingSnapshot = null;
+        pendingPlayers = new ArrayList<>();
+        pendingMessages = new ArrayList<>();
+      }
+    }
+  }
+
+  /**
+   * Adds the results of a batch to the pending delivery, and schedules the delivery if it is not
+   * scheduled yet.
+   */
+  private void deliver(RosterSnapshot snapshot, List<TeamMember> players, List<String> messages) {
+    boolean schedule;
+    synchronized (deliveryLock) {
+      schedule = pendingSnapshot == null;
+      pendingSnapshot = snapshot;
+      pendingPlayers.addAll(players);
+      pendingMessages.addAll(messages);
+    }
+    if (schedule) {
+      deliveryExecutor.execute(() -> {
+        RosterSnapshot latest;
+        List<TeamMember> deliveredPlayers;
+        List<String> deliveredMessages;
+        synchronized (deliveryLock) {
+          latest = pendingSnapshot;
+          deliveredPlayers = pendingPlayers;
+          deliveredMessages = pendingMessages;
+          pendingSnapshot = null;
+          pendingPlayers = new ArrayList<>();
+          pendingMessages = new ArrayList<>();
+        }
+        listener.rosterChanged(latest, deliveredPlayers, deliveredMessages);
+      });
+    }
+  }
+
+  private void record(Command command) {
+    long latency = System.nanoTime() - command.submitNanos;
+    completedCommands.increment();
+    totalLatencyNanos.add(latency);
+    maxLatencyNanos.accumulateAndGet(latency, Math::max);
+  }
+
+  /**
+   * A submitted command: a player to add with the future of its result message, or a snapshot read
+   * with the future of the snapshot.
+   */
+  private static final class Command {
+    private static final Command STOP = new Command(null, null, null);
+
+    private final TeamMember player;
+    private final CompletableFuture<String> message;
+    private final CompletableFuture<RosterSnapshot> snapshot;
+    private final long submitNanos = System.nanoTime();
+
+    private Command(TeamMember player, CompletableFuture<String> message,
+        CompletableFuture<RosterSnapshot> snapshot) {
+      this.player = player;
+      this.message = message;
+      this.snapshot = snapshot;
+    }
+  }
+}
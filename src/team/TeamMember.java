@@ -1,5 +1,7 @@
 package team;
 
+import java.time.LocalDate;
+
 /**
  * The TeamMember class represents a team member in a sports team, specifically a soccer team. It
  * extends the BasePlayer class and provides additional properties and methods for a team member.
@@ -7,6 +9,8 @@ package team;
 public class TeamMember extends BasePlayer {
   private int jerseyNumber;
   private Position actualPosition;
+  private long rosterSequence;
+  private String description;
 
   /**
    * Constructs a TeamMember object with the specified firstName, lastName, dateOfBirth,
@@ -18,12 +22,50 @@ public class TeamMember extends BasePlayer {
    *                          "yyyy-MM-dd"
    * @param preferredPosition the preferred position of the team member
    * @param skillLevel        the skill level of the team member
+   * @throws IllegalArgumentException if the date of birth is not a valid date
    */
   public TeamMember(String firstName, String lastName, String dateOfBirth,
       Position preferredPosition, SkillLevel skillLevel) {
     super(firstName, lastName, dateOfBirth, preferredPosition, skillLevel);
   }
 
+  /**
+   * Constructs a TeamMember object from an already parsed date of birth.
+   *
+   * @param firstName         the first name of the team member
+   * @param lastName          the last name of the team member
+   * @param birthDate         the date of birth of the team member
+   * @param preferredPosition the preferred position of the team member
+   * @param skillLevel        the skill level of the team member
+   */
+  public TeamMember(String firstName, String lastName, LocalDate birthDate,
+      Position preferredPosition, SkillLevel skillLevel) {
+    super(firstName, lastName, birthDate, preferredPosition, skillLevel);
+  }
+
+  /**
+   * Constructs a copy of the given team member, including its jersey number. The actual position
+   * is copied only if {@code withActualPosition} is {@code true}.
+   *
+   * @param other              the team member to copy
+   * @param withActualPosition whether to copy the actual position in the starting lineup
+   */
+  protected TeamMember(TeamMember other, boolean withActualPosition) {
+    super(other);
+    this.jerseyNumber = other.jerseyNumber;
+    this.rosterSequence = other.rosterSequence;
+    this.actualPosition = withActualPosition ? other.actualPosition : null;
+    this.description = withActualPosition || other.actualPosition == null
+        ? other.description : null;
+  }
+
+  /**
+   * Constructs a TeamMember without any player data of its own, for subclasses that override every
+   * {@link InterPlayer} getter.
+   */
+  protected TeamMember() {
+  }
+
   /**
    * Returns the jersey number of the team member.
    *
@@ -40,6 +82,7 @@ public class TeamMember extends BasePlayer {
    */
   public void setJerseyNumber(int jerseyNumber) {
     this.jerseyNumber = jerseyNumber;
+    this.description = null;
   }
 
   /**
@@ -59,11 +102,39 @@ public class TeamMember extends BasePlayer {
    */
   public void setActualPosition(Position actualPosition) {
     this.actualPosition = actualPosition;
+    this.description = null;
+  }
+
+  /**
+   * Returns the order in which this member joined its team. Used to break ties between players
+   * that compare equal on skill level, preferred position and last name.
+   *
+   * @return the roster sequence number assigned by the team
+   */
+  long getRosterSequence() {
+    return rosterSequence;
+  }
+
+  /**
+   * Sets the order in which this member joined its team.
+   *
+   * @param rosterSequence the roster sequence number assigned by the team
+   */
+  void setRosterSequence(long rosterSequence) {
+    this.rosterSequence = rosterSequence;
   }
 
+  /**
+   * {@inheritDoc} The description is cached until the jersey number or actual position changes.
+   */
   @Override public String toString() {
-    Position positionToDisplay = actualPosition != null ? actualPosition : getPreferredPosition();
-    return "Name: " + getFullName() + ", Jersey Number: " + getJerseyNumber() + ", Position: "
-        + positionToDisplay;
+    String text = description;
+    if (text == null) {
+      Position positionToDisplay = actualPosition != null ? actualPosition : getPreferredPosition();
+      text = "Name: " + getFullName() + ", Jersey Number: " + getJerseyNumber() + ", Position: "
+          + positionToDisplay;
+      description = text;
+    }
+    return text;
   }
 }
@@ -0,0 +1,123 @@
+package team;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counts the outcomes of adding players to a team and records how long its operations take. Set it
+ * on a {@link SoccerTeam} or {@link ConcurrentSoccerTeam}, or let a {@link League} create one per
+ * team with {@link League#enableMetrics()}, and publish it over JMX with
+ * {@link #register(TeamMetricsMXBean, String)}.
+ * <p>
+ * Counters are {@link LongAdder}s and latencies go into {@link LatencyHistogram}s, so recording
+ * takes no locks and does not allocate; the cost on the hot path is two {@link System#nanoTime()}
+ * calls and a few atomic increments per operation. Teams without metrics pay a single null check.
+ */
+public final class TeamMetrics extends AbstractTeamMetrics {
+  private static final Operation[] OPERATIONS = Operation.values();
+
+  private final LongAdder[] counts = new LongAdder[Outcome.values().length];
+  private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+
+  /**
+   * Constructs metrics with all counters and latencies at zero.
+   */
+  public TeamMetrics() {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = new LongAdder();
+    }
+    for (int i = 0; i < latencies.length; i++) {
+      latencies[i] = new LatencyHistogram();
+    }
+  }
+
+  /**
+   * Registers metrics with the platform MBean server under the name
+   * {@code team:type=TeamMetrics,name="<name>"}.
+   *
+   * @param metrics the metrics of a team, or of a league from {@link League#getMetrics()}
+   * @param name    the name of the team or league
+   * @return the object name the metrics were registered under
+   * @throws IllegalStateException if the metrics cannot be registered, for example because the name
+   *                               is already taken
+   */
+  public static ObjectName register(TeamMetricsMXBean metrics, String name) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName objectName = objectName(name);
+      server.registerMBean(metrics, objectName);
+      return objectName;
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot register the metrics of \"" + name + "\".", e);
+    }
+  }
+
+  /**
+   * Removes the metrics registered under the given name from the platform MBean server.
+   *
+   * @param name the name the metrics were registered with
+   * @return {@code true} if metrics were registered under that name
+   */
+  public static boolean unregister(String name) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.unregisterMBean(objectName(name));
+      return true;
+    } catch (JMException e) {
+      return false;
+    }
+  }
+
+  private static ObjectName objectName(String name) throws JMException {
+    return new ObjectName("team:type=TeamMetrics,name=" + ObjectName.quote(name));
+  }
+
+  @Override public void reset() {
+    for (LongAdder count : counts) {
+      count.reset();
+    }
+    for (LatencyHistogram latency : latencies) {
+      latency.reset();
+    }
+  }
+
+  /**
+   * Counts an outcome of adding a player.
+   *
+   * @param outcome the outcome
+   */
+  void increment(Outcome outcome) {
+    counts[outcome.ordinal()].increment();
+  }
+
+  @Override long count(Outcome outcome) {
+    return counts[outcome.ordinal()].sum();
+  }
+
+  /**
+   * Records the time an operation took.
+   *
+   * @param operation  the operation
+   * @param startNanos the time the operation started, from {@link System#nanoTime()}
+   */
+  void record(Operation operation, long startNanos) {
+    latencies[operation.ordinal()].recordSince(startNanos);
+  }
+
+  @Override LatencyHistogram.Summary latency(Operation operation) {
+    return latencies[operation.ordinal()].getSummary();
+  }
+
+  /**
+   * Returns the histogram of an operation, for combining the metrics of several teams.
+   *
+   * @param operation the operation
+   * @return the live histogram
+   */
+  LatencyHistogram histogram(Operation operation) {
+    return latencies[operation.ordinal()];
+  }
+}
@@ -0,0 +1,87 @@
+package team;
+
+/**
+ * The management interface of the metrics of one team or of a whole league, as published over
+ * JMX. Counters count players since the last {@link #reset()}; latencies are summaries of
+ * {@link LatencyHistogram}s, in nanoseconds.
+ *
+ * @see TeamMetrics
+ * @see League#getMetrics()
+ */
+public interface TeamMetricsMXBean {
+  /**
+   * Returns the number of players added to a roster, including players who evicted another.
+   *
+   * @return the count
+   */
+  long getPlayersAdded();
+
+  /**
+   * Returns the number of players turned away for being too old.
+   *
+   * @return the count
+   */
+  long getPlayersRejectedForAge();
+
+  /**
+   * Returns the number of players turned away because the roster was full of players with a higher
+   * or equal skill level.
+   *
+   * @return the count
+   */
+  long getPlayersRejectedForFullRoster();
+
+  /**
+   * Returns the number of players evicted to make room for a more skilled player.
+   *
+   * @return the count
+   */
+  long getPlayersEvicted();
+
+  /**
+   * Returns the latencies of {@link Team#addPlayer(TeamMember)}, including lineup selection.
+   *
+   * @return the latency summary
+   */
+  LatencyHistogram.Summary getAddPlayerLatency();
+
+  /**
+   * Returns the latencies of {@link Team#addPlayers}, one value per batch.
+   *
+   * @return the latency summary
+   */
+  LatencyHistogram.Summary getAddPlayersLatency();
+
+  /**
+   * Returns the latencies of selecting the starting lineup after the roster changed.
+   *
+   * @return the latency summary
+   */
+  LatencyHistogram.Summary getLineupSelectionLatency();
+
+  /**
+   * Returns the latencies of evicting the weakest player from a full roster.
+   *
+   * @return the latency summary
+   */
+  LatencyHistogram.Summary getEvictionLatency();
+
+  /**
+   * Returns the latencies of {@link Team#getAllPlayers()}.
+   *
+   * @return the latency summary
+   */
+  LatencyHistogram.Summary getGetAllPlayersLatency();
+
+  /**
+   * Returns how long writers of a {@link ConcurrentSoccerTeam} waited for its write lock.
+   *
+   * @return the latency summary
+   */
+  LatencyHistogram.Summary getLockWaitLatency();
+
+  /**
+   * Clears all counters and latencies.
+   */
+  void reset();
+}
@@ -0,0 +1,30 @@
+package team;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors that run each task on its own virtual thread when the JDK supports them (Java
+ * 21 and later). The factory method is looked up reflectively, so the code still compiles and runs
+ * on Java 11, where a cached pool of platform threads is used instead.
+ */
+final class VirtualThreads {
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * Returns an executor that starts a new virtual thread for each task, or a cached thread pool if
+   * the JDK has no virtual threads.
+   *
+   * @return the executor
+   */
+  static ExecutorService newExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import team.ColumnarPlayerStore;
+import team.Position;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.Team;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link ColumnarPlayerStore} class.
+ */
+public class ColumnarPlayerStoreTest {
+
+  /**
+   * Tests that the column aggregations match the same figures computed from the player objects.
+   */
+  @Test
+  public void testAggregationsMatchObjectModel() {
+    Random random = new Random(15);
+    LocalDate asOf = LocalDate.of(2024, 2, 29);
+    List<Team> teams = new ArrayList<>();
+    ColumnarPlayerStore store = new ColumnarPlayerStore();
+
+    for (int t = 0; t < 30; t++) {
+      Team team = new SoccerTeam();
+      for (int i = 0; i < 5 + random.nextInt(25); i++) {
+        team.addPlayer(new TeamMember("First" + random.nextInt(10), "Last" + random.nextInt(10),
+            LocalDate.now().minusDays(random.nextInt(3600)),
+            Position.values()[random.nextInt(4)], SkillLevel.values()[random.nextInt(5)]));
+      }
+      teams.add(team);
+      assertEquals(t, store.addTeam("Team " + t, team));
+    }
+
+    int[][] histogram = new int[Position.values().length][SkillLevel.values().length];
+    int[] ages = new int[8];
+    int[] strength = new int[teams.size()];
+    int rows = 0;
+    for (int t = 0; t < teams.size(); t++) {
+      Team team = teams.get(t);
+      for (TeamMember player : team.getAllPlayers()) {
+        histogram[player.getPreferredPosition().ordinal()][player.getSkillLevel().ordinal()]++;
+        ages[Math.max(0, Math.min(7, player.getAge(asOf)))]++;
+        rows++;
+      }
+      if (team.getSnapshot().hasStartingLineup()) {
+        for (TeamMember starter : team.getStartingLineup()) {
+          strength[t] += starter.getSkillLevel().ordinal() + 1;
+        }
+      }
+    }
+
+    assertEquals(rows, store.size());
+    int[][] columnHistogram = store.skillHistogramByPosition();
+    for (Position position : Position.values()) {
+      assertArrayEquals(histogram[position.ordinal()], columnHistogram[position.ordinal()]);
+    }
+    assertArrayEquals(ages, store.ageDistribution(asOf, 7));
+    assertArrayEquals(strength, store.lineupStrengthByTeam());
+    assertEquals(teams.get(0).getAllPlayers().get(0).getLastName(), store.getLastName(0));
+  }
+}
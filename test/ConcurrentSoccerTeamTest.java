@@ -0,0 +1,153 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import team.ConcurrentSoccerTeam;
+import team.JerseyNumberAllocator;
+import team.Position;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.Team;
+import team.TeamMember;
+
+/**
+ * Stress tests for the {@link ConcurrentSoccerTeam} class. Several writer threads add players to
+ * the same team while reader threads check that every snapshot they see is consistent.
+ */
+public class ConcurrentSoccerTeamTest {
+  private static final int WRITERS = 8;
+  private static final int READERS = 4;
+
+  /**
+   * Tests that concurrent adds below the roster maximum are never lost, that jersey numbers stay
+   * unique, and that readers only ever see complete, consistent rosters and lineups.
+   */
+  @Test
+  public void testConcurrentAddsAreNotLost() throws Exception {
+    Team team = new ConcurrentSoccerTeam(new SoccerTeam(10, 400, true,
+        new JerseyNumberAllocator(1, 400)));
+    List<String> errors = runContended(team, 50, SkillLevel.LEVEL_3);
+
+    assertEquals(new ArrayList<String>(), errors);
+    assertEquals(WRITERS * 50, team.getAllPlayers().size());
+    assertConsistent(team.getAllPlayers(), team.getStartingLineup());
+  }
+
+  /**
+   * Tests that concurrent adds to a roster that fills up and starts evicting players still leave
+   * the team at its maximum size with unique jersey numbers and a consistent lineup.
+   */
+  @Test
+  public void testConcurrentAddsWithEvictions() throws Exception {
+    Team team = new ConcurrentSoccerTeam();
+    List<String> errors = runContended(team, 200, null);
+
+    assertEquals(new ArrayList<String>(), errors);
+    assertEquals(20, team.getAllPlayers().size());
+    assertConsistent(team.getAllPlayers(), team.getStartingLineup());
+  }
+
+  /**
+   * Runs {@link #WRITERS} writer threads that each add {@code perWriter} players while
+   * {@link #READERS} reader threads validate snapshots, and returns any consistency errors seen.
+   */
+  private static List<String> runContended(Team team, int perWriter, SkillLevel fixedSkill)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    List<Future<?>> writers = new ArrayList<>();
+    String dateOfBirth = LocalDate.now().minusYears(8).toString();
+
+    for (int w = 0; w < WRITERS; w++) {
+      final int writer = w;
+      writers.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < perWriter; i++) {
+          Position position = Position.values()[(writer + i) % Position.values().length];
+          SkillLevel skill = fixedSkill != null ? fixedSkill
+              : SkillLevel.values()[(writer * 7 + i) % SkillLevel.values().length];
+          team.addPlayer(new TeamMember("W" + writer, "P" + i, dateOfBirth, position, skill));
+        }
+        return null;
+      }));
+    }
+    List<Future<?>> readers = new ArrayList<>();
+    for (int r = 0; r < READERS; r++) {
+      readers.add(executor.submit(() -> {
+        start.await();
+        while (writing.get()) {
+          List<TeamMember> players = team.getAllPlayers();
+          try {
+            String error = check(players, team.getStartingLineup());
+            if (error != null) {
+              errors.add(error);
+            }
+          } catch (IllegalStateException e) {
+            // Not enough players yet.
+          }
+        }
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> writer : writers) {
+      writer.get(60, TimeUnit.SECONDS);
+    }
+    writing.set(false);
+    for (Future<?> reader : readers) {
+      reader.get(60, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+    return errors;
+  }
+
+  private static void assertConsistent(List<TeamMember> players, List<TeamMember> lineup) {
+    String error = check(players, lineup);
+    assertTrue(error, error == null);
+  }
+
+  /**
+   * Checks a roster and lineup read from the team, returning a description of the first problem
+   * found or {@code null} if both are consistent.
+   */
+  private static String check(List<TeamMember> players, List<TeamMember> lineup) {
+    Set<Integer> jerseyNumbers = new HashSet<>();
+    for (TeamMember player : players) {
+      if (!jerseyNumbers.add(player.getJerseyNumber())) {
+        return "Duplicate jersey number " + player.getJerseyNumber();
+      }
+    }
+    if (lineup.size() != 7) {
+      return "Lineup has " + lineup.size() + " players";
+    }
+    Map<Position, Integer> counts = new EnumMap<>(Position.class);
+    for (TeamMember player : lineup) {
+      counts.merge(player.getActualPosition(), 1, Integer::sum);
+      if (player.getJerseyNumber() == 0) {
+        return "Lineup player without a jersey number";
+      }
+    }
+    if (counts.get(Position.GOALIE) != 1 || counts.get(Position.DEFENDER) != 2
+        || counts.get(Position.MIDFIELDER) != 3 || counts.get(Position.FORWARD) != 1) {
+      return "Lineup positions " + counts;
+    }
+    return null;
+  }
+}
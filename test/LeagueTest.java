@@ -0,0 +1,203 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import team.League;
+import team.OptimalLineup;
+import team.PlayerQuery;
+import team.Position;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.Team;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link League} class.
+ */
+public class LeagueTest {
+
+  /**
+   * Tests that players registered concurrently from several threads reach the right teams and that
+   * the league-wide operations see every team.
+   */
+  @Test
+  public void testConcurrentRegistration() throws Exception {
+    League league = new League(8, new ForkJoinPool(4));
+    int teams = 100;
+    for (int t = 0; t < teams; t++) {
+      league.registerTeam("Team " + t, new SoccerTeam());
+    }
+    String dateOfBirth = LocalDate.now().minusYears(8).toString();
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int w = 0; w < 8; w++) {
+      int writer = w;
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 2 * teams; i++) {
+          Position position = Position.values()[(writer + i) % Position.values().length];
+          league.addPlayer("Team " + ((writer * 7 + i) % teams), new TeamMember("P" + writer,
+              "Last" + i, dateOfBirth, position, SkillLevel.values()[i % 5]));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertEquals(teams, league.size());
+    assertEquals(teams, league.getTeamNames().size());
+    assertEquals(16 * teams, league.countPlayers());
+    Map<String, List<TeamMember>> lineups = league.getStartingLineups();
+    assertEquals(teams, lineups.size());
+    for (List<TeamMember> lineup : lineups.values()) {
+      assertEquals(7, lineup.size());
+    }
+
+    long version = league.getTeam("Team 0").getSnapshot().getVersion();
+    league.setLineupStrategy(new OptimalLineup());
+    assertTrue(league.getTeam("Team 0").hasChangedSince(version));
+    assertEquals(teams, league.getStartingLineups().size());
+    assertNull(league.getTeam("Team " + teams));
+  }
+
+  /**
+   * Tests that a team name can only be registered once.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateTeam() {
+    League league = new League();
+    league.registerTeam("A", new SoccerTeam());
+    league.registerTeam("A", new SoccerTeam());
+  }
+
+  /**
+   * Tests that players cannot be routed to a team that is not registered.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownTeam() {
+    League league = new League();
+    league.registerTeam("A", new SoccerTeam());
+    league.addPlayer("B", new TeamMember("John", "Doe", LocalDate.now().minusYears(8),
+        Position.GOALIE, SkillLevel.LEVEL_1));
+  }
+
+  /**
+   * Tests that an age band needs the date the ages are computed on.
+   */
+  @Test(expected = NullPointerException.class)
+  public void testQueryAgeBandNeedsDate() {
+    new League().query().agedBetween(0, 7, null);
+  }
+
+  /**
+   * Tests that a league-wide query returns the same players as filtering every team's roster, both
+   * sequentially and in parallel, and that new players show up in the next run of the same query.
+   */
+  @Test
+  public void testQueryMatchesFilteredRosters() {
+    League league = new League(4, new ForkJoinPool(2));
+    Random random = new Random(3);
+    LocalDate today = LocalDate.now();
+    for (int t = 0; t < 40; t++) {
+      league.registerTeam("Team " + t, new SoccerTeam());
+      for (int i = 0; i < 10 + random.nextInt(15); i++) {
+        league.addPlayer("Team " + t, new TeamMember("P" + i, "Last" + random.nextInt(50),
+            today.minusDays(365 * 4 + random.nextInt(365 * 6)),
+            Position.values()[random.nextInt(Position.values().length)],
+            SkillLevel.values()[random.nextInt(SkillLevel.values().length)]));
+      }
+    }
+
+    PlayerQuery query = league.query().atPosition(Position.GOALIE).agedBetween(0, 7, today)
+        .withSkillAtLeast(SkillLevel.LEVEL_4);
+    PlayerQuery starters = league.query().withSkillBetween(SkillLevel.LEVEL_2, SkillLevel.LEVEL_3)
+        .inStartingLineup(true);
+    List<String> expected = new ArrayList<>();
+    List<String> expectedStarters = new ArrayList<>();
+    for (String name : league.getTeamNames()) {
+      Team team = league.getTeam(name);
+      Set<Integer> lineup = new HashSet<>();
+      for (TeamMember player : team.getStartingLineup()) {
+        lineup.add(player.getJerseyNumber());
+      }
+      for (TeamMember player : team.getAllPlayers()) {
+        if (player.getPreferredPosition() == Position.GOALIE && player.getAge() < 8
+            && player.getSkillLevel().compareTo(SkillLevel.LEVEL_4) >= 0) {
+          expected.add(name + player);
+        }
+        if (lineup.contains(player.getJerseyNumber())
+            && player.getSkillLevel().compareTo(SkillLevel.LEVEL_2) >= 0
+            && player.getSkillLevel().compareTo(SkillLevel.LEVEL_3) <= 0) {
+          expectedStarters.add(name + player);
+        }
+      }
+    }
+
+    assertEquals(expected.size(), query.stream().count());
+    assertEquals(expected.size(), query.parallelStream().count());
+    assertEquals(query.stream().collect(Collectors.toList()),
+        query.parallelStream().collect(Collectors.toList()));
+    assertEquals(expectedStarters.size(), starters.parallelStream().count());
+    assertTrue(starters.stream().allMatch(player -> player.getSkillLevel() != SkillLevel.LEVEL_1));
+
+    league.registerTeam("New", new SoccerTeam());
+    league.addPlayer("New", new TeamMember("Gia", "New", today.minusYears(6), Position.GOALIE,
+        SkillLevel.LEVEL_5));
+    assertEquals(expected.size() + 1, query.parallelStream().count());
+  }
+
+  /**
+   * Tests that a season rollover finds the players who are too old on the new cutoff date, removes
+   * exactly those players and selects the starting lineups again.
+   */
+  @Test
+  public void testSeasonRollover() {
+    League league = new League(4, new ForkJoinPool(2));
+    LocalDate cutoff = LocalDate.now().plusYears(1);
+    for (int t = 0; t < 20; t++) {
+      league.registerTeam("Team " + t, new SoccerTeam());
+      for (int i = 0; i < 12; i++) {
+        // Players 0 and 1 turn 10 before the cutoff, player 2 turns 10 on the day after it.
+        LocalDate birthDate = i == 0 ? cutoff.minusYears(10)
+            : i == 1 ? cutoff.minusYears(10).minusDays(1)
+            : i == 2 ? cutoff.minusYears(10).plusDays(1) : cutoff.minusYears(8);
+        league.addPlayer("Team " + t, new TeamMember("P" + i, "Last" + i, birthDate,
+            Position.values()[i % Position.values().length], SkillLevel.LEVEL_3));
+      }
+    }
+
+    Map<String, List<TeamMember>> ineligible = league.findIneligiblePlayers(cutoff);
+    assertEquals(20, ineligible.size());
+    assertEquals(2, ineligible.get("Team 7").size());
+    assertEquals(12 * 20, league.countPlayers());
+
+    Map<String, List<TeamMember>> removed = league.removeIneligiblePlayers(cutoff);
+    assertEquals(ineligible.keySet(), removed.keySet());
+    assertEquals("P0", removed.get("Team 7").get(0).getFirstName());
+    assertEquals("P1", removed.get("Team 7").get(1).getFirstName());
+    assertEquals(10 * 20, league.countPlayers());
+    assertEquals(20, league.getStartingLineups().size());
+    for (String name : league.getTeamNames()) {
+      for (TeamMember player : league.getTeam(name).getStartingLineup()) {
+        assertTrue(SoccerTeam.isEligible(player, cutoff));
+      }
+    }
+    assertTrue(league.findIneligiblePlayers(cutoff).isEmpty());
+    assertTrue(league.removeIneligiblePlayers(cutoff).isEmpty());
+  }
+}
@@ -0,0 +1,91 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import team.AgeCalculator;
+import team.ConcurrentSoccerTeam;
+import team.LatencyHistogram;
+import team.LoadGenerator;
+import team.PlayerGenerator;
+import team.Position;
+import team.SkillLevel;
+import team.Team;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link LoadGenerator} class and the {@link PlayerGenerator} and
+ * {@link LatencyHistogram} classes it uses.
+ */
+public class LoadGeneratorTest {
+
+  /**
+   * Tests that percentiles are within the histogram's resolution of the exact values.
+   */
+  @Test
+  public void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 100_000; i++) {
+      histogram.record(i * 1000);
+    }
+    assertEquals(100_000, histogram.getCount());
+    assertEquals(100_000_000, histogram.getMax());
+    assertEquals(50_000_500, histogram.getMean());
+    for (double percentile : new double[] {50, 99, 99.9}) {
+      double exact = percentile * 1_000_000;
+      long value = histogram.getValueAtPercentile(percentile);
+      assertTrue(percentile + ": " + value, value >= exact && value <= exact * 1.04);
+    }
+    assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  /**
+   * Tests that generated players only have ages, positions and skill levels with positive weights.
+   */
+  @Test
+  public void testPlayersFollowTheWeights() {
+    double[] ages = {0, 0, 0, 0, 0, 0, 0, 1, 0, 3};
+    double[] positions = new double[Position.values().length];
+    positions[Position.DEFENDER.ordinal()] = 1;
+    double[] skills = new double[SkillLevel.values().length];
+    Arrays.fill(skills, 1);
+    skills[0] = 0;
+    PlayerGenerator generator = new PlayerGenerator(ages, positions, skills);
+    LocalDate asOf = LocalDate.of(2024, 9, 1);
+    Random random = new Random(42);
+    int nineYearOlds = 0;
+    for (int i = 0; i < 1000; i++) {
+      TeamMember player = generator.next(random, asOf);
+      int age = AgeCalculator.ageOn(player.getBirthDate(), asOf);
+      assertTrue("Age " + age, age == 7 || age == 9);
+      nineYearOlds += age == 9 ? 1 : 0;
+      assertEquals(Position.DEFENDER, player.getPreferredPosition());
+      assertTrue(player.getSkillLevel() != SkillLevel.values()[0]);
+    }
+    assertTrue("Nine-year-olds: " + nineYearOlds, nineYearOlds > 650 && nineYearOlds < 850);
+  }
+
+  /**
+   * Tests that a short run performs both adds and reads and reports every operation.
+   */
+  @Test
+  public void testRunReportsAddsAndReads() throws Exception {
+    List<Team> teams = Arrays.asList(new ConcurrentSoccerTeam(), new ConcurrentSoccerTeam());
+    LoadGenerator load = new LoadGenerator(teams, PlayerGenerator.uniform(5, 9), 20, 2000, 0.5);
+    LoadGenerator.Report report = load.run(Duration.ofMillis(300));
+
+    assertTrue(report.getAdds().getCount() > 0);
+    assertTrue(report.getReads().getCount() > 0);
+    assertTrue(report.getThroughput() > 0);
+    assertTrue(report.getAdds().getValueAtPercentile(99) <= report.getAdds().getMax());
+    assertTrue(teams.get(0).getAllPlayers().size() + teams.get(1).getAllPlayers().size() > 0);
+  }
+}
@@ -0,0 +1,72 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import team.NameDictionary;
+import team.Position;
+import team.SkillLevel;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link NameDictionary} class.
+ */
+public class NameDictionaryTest {
+
+  /**
+   * Tests that threads adding the same names concurrently all get the same id for each name.
+   */
+  @Test
+  public void testConcurrentIdsAreConsistent() throws Exception {
+    NameDictionary dictionary = new NameDictionary();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<int[]>> futures = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      futures.add(executor.submit(() -> {
+        int[] ids = new int[5000];
+        for (int i = 0; i < ids.length; i++) {
+          ids[i] = dictionary.idOf(new String("Name" + i));
+        }
+        return ids;
+      }));
+    }
+    int[] first = futures.get(0).get();
+    for (Future<int[]> future : futures) {
+      int[] ids = future.get();
+      for (int i = 0; i < ids.length; i++) {
+        assertEquals(first[i], ids[i]);
+        assertEquals("Name" + i, dictionary.nameOf(ids[i]));
+      }
+    }
+    executor.shutdown();
+    assertEquals(5000, dictionary.size());
+  }
+
+  /**
+   * Tests that players share one copy of equal names and cache their full name.
+   */
+  @Test
+  public void testPlayersShareNames() {
+    TeamMember first = new TeamMember(new String("Ann"), new String("Lee"), "2017-01-01",
+        Position.GOALIE, SkillLevel.LEVEL_1);
+    TeamMember second = new TeamMember(new String("Ann"), new String("Lee"), "2017-02-01",
+        Position.FORWARD, SkillLevel.LEVEL_2);
+
+    assertSame(first.getFirstName(), second.getFirstName());
+    assertSame(first.getLastName(), second.getLastName());
+    assertEquals("Ann Lee", first.getFullName());
+    assertSame(first.getFullName(), first.getFullName());
+  }
+
+  /**
+   * Tests that a null name is rejected with a clear exception.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullNameIsRejected() {
+    new NameDictionary().idOf(null);
+  }
+}
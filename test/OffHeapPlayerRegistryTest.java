@@ -0,0 +1,79 @@
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import team.JerseyNumberAllocator;
+import team.OffHeapPlayerRegistry;
+import team.Position;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.Team;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link OffHeapPlayerRegistry} class.
+ */
+public class OffHeapPlayerRegistryTest {
+
+  /**
+   * Tests that records spanning several chunks read back as appended, by id and by scan.
+   */
+  @Test
+  public void testAppendLookupAndScan() {
+    OffHeapPlayerRegistry registry = new OffHeapPlayerRegistry();
+    LocalDate today = LocalDate.now();
+    int count = (1 << 20) + 1000;
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, registry.append(new TeamMember("First" + i % 100, "Last" + i % 1000,
+          today.minusDays(i % 3650), Position.values()[i % 4], SkillLevel.values()[i % 5])));
+    }
+
+    assertEquals(count, registry.size());
+    OffHeapPlayerRegistry.PlayerRecord record = registry.get(count - 1);
+    assertEquals("First" + (count - 1) % 100 + " Last" + (count - 1) % 1000,
+        record.getFullName());
+    assertEquals(today.minusDays((count - 1) % 3650), record.getBirthDate());
+    assertEquals(SkillLevel.values()[(count - 1) % 5], record.getSkillLevel());
+
+    long[] skillTotal = new long[1];
+    registry.forEach(player -> skillTotal[0] += player.getSkillLevel().ordinal());
+    long expected = 0;
+    for (int i = 0; i < count; i++) {
+      expected += i % 5;
+    }
+    assertEquals(expected, skillTotal[0]);
+  }
+
+  /**
+   * Tests that a team of registered players selects the same lineup as a team of ordinary copies.
+   */
+  @Test
+  public void testTeamOfRegisteredPlayers() {
+    Random random = new Random(16);
+    OffHeapPlayerRegistry registry = new OffHeapPlayerRegistry();
+    Team copies = new SoccerTeam(false, new JerseyNumberAllocator(1, 20, 3));
+    Team references = new SoccerTeam(false, new JerseyNumberAllocator(1, 20, 3));
+    List<String> messages = new ArrayList<>();
+
+    for (int i = 0; i < 40; i++) {
+      TeamMember player = new TeamMember("P" + i, "Last" + random.nextInt(10),
+          LocalDate.now().minusDays(1000 + random.nextInt(2000)),
+          Position.values()[random.nextInt(4)], SkillLevel.values()[random.nextInt(5)]);
+      int id = registry.append(player);
+      messages.add(copies.addPlayer(player));
+      assertEquals(messages.get(i), references.addPlayer(registry.newTeamMember(id)));
+    }
+
+    assertEquals(describe(copies.getAllPlayers()), describe(references.getAllPlayers()));
+    assertEquals(describe(copies.getStartingLineup()), describe(references.getStartingLineup()));
+  }
+
+  private static List<String> describe(List<TeamMember> players) {
+    return players.stream().map(p -> p + ", " + p.getSkillLevel() + ", " + p.getBirthDate())
+        .collect(Collectors.toList());
+  }
+}
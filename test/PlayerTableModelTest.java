@@ -0,0 +1,63 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.TableModelEvent;
+import org.junit.Test;
+import team.PlayerTableModel;
+import team.Position;
+import team.RosterSnapshot;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link PlayerTableModel} class.
+ */
+public class PlayerTableModelTest {
+
+  /**
+   * Tests that setting the next snapshot of a roster fires events for the changed rows only: one
+   * insertion for a new player, nothing for an unchanged roster, and an update plus a deletion when
+   * the table switches to a shorter list.
+   */
+  @Test
+  public void testFiresRowLevelEvents() {
+    SoccerTeam team = new SoccerTeam();
+    LocalDate birthDate = LocalDate.now().minusYears(8);
+    for (int i = 0; i < 10; i++) {
+      team.addPlayer(new TeamMember("P" + i, "Last" + (char) ('A' + 2 * i), birthDate, Position.DEFENDER,
+          SkillLevel.LEVEL_2));
+    }
+    PlayerTableModel model = new PlayerTableModel();
+    List<TableModelEvent> events = new ArrayList<>();
+    model.addTableModelListener(events::add);
+
+    RosterSnapshot first = team.getSnapshot();
+    model.setPlayers(first.getAllPlayers());
+    assertEquals(1, events.size());
+    assertEquals(10, model.getRowCount());
+
+    // "LastD" sorts between "LastC" and "LastE", at row 2.
+    events.clear();
+    team.addPlayer(new TeamMember("New", "LastD", birthDate, Position.GOALIE, SkillLevel.LEVEL_5));
+    model.setPlayers(team.getSnapshot().getAllPlayers());
+    assertEquals(1, events.size());
+    assertEquals(TableModelEvent.INSERT, events.get(0).getType());
+    assertEquals(2, events.get(0).getFirstRow());
+    assertEquals(2, events.get(0).getLastRow());
+    assertEquals("New LastD", model.getValueAt(2, 0));
+    assertEquals(Position.GOALIE, model.getValueAt(2, 2));
+
+    events.clear();
+    model.setPlayers(team.getSnapshot().getAllPlayers());
+    assertTrue(events.isEmpty());
+
+    model.setPlayers(team.getStartingLineup());
+    assertEquals(7, model.getRowCount());
+    assertEquals(TableModelEvent.DELETE, events.get(events.size() - 1).getType());
+    assertEquals(10, events.get(events.size() - 1).getLastRow());
+  }
+}
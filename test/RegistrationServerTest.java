@@ -0,0 +1,145 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import org.junit.Test;
+import team.League;
+import team.RegistrationServer;
+
+/**
+ * Unit tests for the {@link RegistrationServer} class, run against a server on a free local port.
+ */
+public class RegistrationServerTest {
+
+  /**
+   * Tests registering a team, adding players one at a time and in a batch, and reading the roster
+   * and starting lineup back, including the error responses.
+   */
+  @Test
+  public void testRegistrationEndpoints() throws Exception {
+    League league = new League();
+    try (RegistrationServer server = new RegistrationServer(league,
+        new InetSocketAddress("127.0.0.1", 0))) {
+      server.start();
+      String base = "http://127.0.0.1:" + server.getPort() + "/teams/";
+      String dateOfBirth = LocalDate.now().minusYears(8).toString();
+
+      assertEquals(201, request("PUT", base + "Tigers", null).status);
+      assertEquals(409, request("PUT", base + "Tigers", null).status);
+      assertEquals(404, request("GET", base + "Lions/players", null).status);
+
+      Response added = request("POST", base + "Tigers/players",
+          player("Zo\u00eb", "\u00dcnal \"Z\"", dateOfBirth, "GOALIE", "LEVEL_5"));
+      assertEquals(200, added.status);
+      assertTrue(added.body.contains("Player added, but team not created yet."));
+      assertEquals(409, request("GET", base + "Tigers/lineup", null).status);
+
+      StringBuilder batch = new StringBuilder("[");
+      for (int i = 0; i < 10; i++) {
+        batch.append(i == 0 ? "" : ",").append(player("P" + i, "Last" + i, dateOfBirth,
+            "DEFENDER", "LEVEL_3"));
+      }
+      Response batchAdded = request("POST", base + "Tigers/players/batch", batch + "]");
+      assertEquals(200, batchAdded.status);
+      assertTrue(batchAdded.body.startsWith("{\"messages\":[\""));
+
+      Response roster = request("GET", base + "Tigers/players", null);
+      assertEquals(200, roster.status);
+      assertTrue(roster.body.contains("\"firstName\":\"Zo\u00eb\","
+          + "\"lastName\":\"\u00dcnal \\\"Z\\\"\",\"dateOfBirth\":\"" + dateOfBirth
+          + "\",\"position\":\"GOALIE\""));
+      assertEquals(11, roster.body.split("\"jerseyNumber\"").length - 1);
+
+      Response lineup = request("GET", base + "Tigers/lineup", null);
+      assertEquals(200, lineup.status);
+      assertEquals(7, lineup.body.split("\"actualPosition\"").length - 1);
+
+      assertEquals(400, request("POST", base + "Tigers/players", "{\"firstName\":").status);
+      assertEquals(400, request("POST", base + "Tigers/players", player("A", "B", "2016-13-01",
+          "GOALIE", "LEVEL_1")).status);
+      assertEquals(405, request("DELETE", base + "Tigers/lineup", null).status);
+      assertEquals(11, league.countPlayers());
+    }
+  }
+
+  /**
+   * Tests that request bodies over the size limit and batches over the length limit are answered
+   * with 413 without adding any player.
+   */
+  @Test
+  public void testOversizedRequestsAreRejected() throws Exception {
+    League league = new League();
+    try (RegistrationServer server = new RegistrationServer(league,
+        new InetSocketAddress("127.0.0.1", 0))) {
+      server.start();
+      String base = "http://127.0.0.1:" + server.getPort() + "/teams/";
+      String player = player("P", "Last", LocalDate.now().minusYears(8).toString(), "DEFENDER",
+          "LEVEL_3");
+      assertEquals(201, request("PUT", base + "Tigers", null).status);
+
+      StringBuilder batch = new StringBuilder("[").append(player);
+      for (int i = 0; i < 1000; i++) {
+        batch.append(',').append(player);
+      }
+      Response tooMany = request("POST", base + "Tigers/players/batch", batch + "]");
+      assertEquals(413, tooMany.status);
+      assertTrue(tooMany.body.startsWith("{\"error\":"));
+
+      StringBuilder padding = new StringBuilder();
+      while (padding.length() <= 1 << 20) {
+        padding.append("          ");
+      }
+      Response tooLarge = request("POST", base + "Tigers/players", padding + player);
+      assertEquals(413, tooLarge.status);
+      assertEquals(0, league.countPlayers());
+    }
+  }
+
+  private static String player(String firstName, String lastName, String dateOfBirth,
+      String position, String skillLevel) {
+    return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"" + lastName.replace("\"", "\\\"")
+        + "\",\"dateOfBirth\":\"" + dateOfBirth + "\",\"position\":\"" + position
+        + "\",\"skillLevel\":\"" + skillLevel + "\",\"note\":null}";
+  }
+
+  private static Response request(String method, String url, String body) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+    connection.setRequestMethod(method);
+    if (body != null) {
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    int status = connection.getResponseCode();
+    InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    if (in != null) {
+      try (InputStream stream = in) {
+        byte[] buffer = new byte[4096];
+        for (int read = stream.read(buffer); read >= 0; read = stream.read(buffer)) {
+          bytes.write(buffer, 0, read);
+        }
+      }
+    }
+    return new Response(status, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  private static final class Response {
+    private final int status;
+    private final String body;
+
+    private Response(int status, String body) {
+      this.status = status;
+      this.body = body;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.Test;
+import team.AddResult;
+import team.Position;
+import team.RosterImporter;
+import team.SoccerTeam;
+import team.Team;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link RosterImporter} class, covering routing of rows to teams and the
+ * error file for rejected rows in both supported formats.
+ */
+public class RosterImporterTest {
+
+  /**
+   * Tests that a CSV export is routed to the right teams and that rows with a bad date, an unknown
+   * team or an over-age player end up in the error file.
+   */
+  @Test
+  public void testImportCsv() throws Exception {
+    String young = LocalDate.now().minusYears(7).toString();
+    Path input = Files.createTempFile("roster", ".csv");
+    Path errors = Files.createTempFile("roster", ".err");
+    Files.write(input, Arrays.asList(
+        "skillLevel,position,dateOfBirth,lastName,firstName,team",
+        "3,DEFENDER," + young + ",Doe,John,U8-A",
+        "LEVEL_4,GOALIE," + young + ",\"O'Neil, Jr\",Jane,U8-B",
+        "2,FORWARD,2015-02-30,Smith,Mark,U8-A",
+        "2,FORWARD," + young + ",Lee,Tom,U9-Z",
+        "5,MIDFIELDER,2000-01-01,Old,Ann,U8-A"), StandardCharsets.UTF_8);
+
+    Map<String, Team> teams = new HashMap<>();
+    teams.put("U8-A", new SoccerTeam());
+    teams.put("U8-B", new SoccerTeam());
+    RosterImporter.ImportSummary summary = new RosterImporter(teams::get)
+        .importFile(input, errors);
+
+    assertEquals(5, summary.getRowsRead());
+    assertEquals(2, summary.getPlayersAdded());
+    assertEquals(3, summary.getRowsRejected());
+    assertEquals("Doe", teams.get("U8-A").getAllPlayers().get(0).getLastName());
+    assertEquals("O'Neil, Jr", teams.get("U8-B").getAllPlayers().get(0).getLastName());
+
+    List<String> rejected = Files.readAllLines(errors, StandardCharsets.UTF_8);
+    assertEquals(3, rejected.size());
+    assertTrue(rejected.get(0).startsWith("4\tInvalid date of birth"));
+    assertTrue(rejected.get(1).startsWith("5\tUnknown team"));
+    assertTrue(rejected.get(2).startsWith("6\tPlayer not added"));
+  }
+
+  /**
+   * Tests that an NDJSON export is imported with the same rules.
+   */
+  @Test
+  public void testImportNdjson() throws Exception {
+    String young = LocalDate.now().minusYears(6).toString();
+    Path input = Files.createTempFile("roster", ".ndjson");
+    Path errors = Files.createTempFile("roster", ".err");
+    Files.write(input, Arrays.asList(
+        "{\"team\": \"U8-A\", \"firstName\": \"John\", \"lastName\": \"Doe\", \"dateOfBirth\": \""
+            + young + "\", \"position\": \"GOALIE\", \"skillLevel\": 3}",
+        "{\"team\": \"U8-A\", \"firstName\": \"Jane\"}"), StandardCharsets.UTF_8);
+
+    Team team = new SoccerTeam();
+    RosterImporter.ImportSummary summary = new RosterImporter(name -> team)
+        .importFile(input, errors);
+
+    assertEquals(1, summary.getPlayersAdded());
+    assertEquals(1, summary.getRowsRejected());
+    assertEquals("John Doe", team.getAllPlayers().get(0).getFullName());
+  }
+
+  /**
+   * Tests that lower-case positions and skill levels parse under a Turkish default locale, and that
+   * the router is asked only once about a team it does not know.
+   */
+  @Test
+  public void testRoutingAndParsingAreLocaleIndependent() throws Exception {
+    String young = LocalDate.now().minusYears(7).toString();
+    Path input = Files.createTempFile("roster", ".csv");
+    Path errors = Files.createTempFile("roster", ".err");
+    Files.write(input, Arrays.asList(
+        "team,firstName,lastName,dateOfBirth,position,skillLevel",
+        "U8-A,John,Doe," + young + ",midfielder,level_3",
+        "U9-Z,Tom,Lee," + young + ",forward,2",
+        "U9-Z,Ann,Kim," + young + ",goalie,4"), StandardCharsets.UTF_8);
+
+    Team team = new SoccerTeam();
+    int[] routed = new int[1];
+    Locale locale = Locale.getDefault();
+    RosterImporter.ImportSummary summary;
+    try {
+      Locale.setDefault(new Locale("tr", "TR"));
+      summary = new RosterImporter(name -> {
+        routed[0]++;
+        return "U8-A".equals(name) ? team : null;
+      }).importFile(input, errors);
+    } finally {
+      Locale.setDefault(locale);
+    }
+
+    assertEquals(1, summary.getPlayersAdded());
+    assertEquals(2, summary.getRowsRejected());
+    assertEquals(2, routed[0]);
+    assertEquals(Position.MIDFIELDER, team.getAllPlayers().get(0).getPreferredPosition());
+  }
+
+  /**
+   * Tests that rows spread over more teams than the buffer cap allows are added before the end of
+   * the file, so the importer does not hold the whole file in memory.
+   */
+  @Test
+  public void testManyTeamsAreFlushedEarly() throws Exception {
+    String young = LocalDate.now().minusYears(7).toString();
+    Path input = Files.createTempFile("roster", ".csv");
+    Path errors = Files.createTempFile("roster", ".err");
+    int teamCount = 2500;
+    List<String> lines = new ArrayList<>();
+    lines.add("team,firstName,lastName,dateOfBirth,position,skillLevel");
+    for (int i = 0; i < 5 * teamCount; i++) {
+      lines.add("T" + i % teamCount + ",First" + i + ",Last" + i + "," + young + ",GOALIE,3");
+    }
+    Files.write(input, lines, StandardCharsets.UTF_8);
+
+    int[] batches = new int[1];
+    Team first = new SoccerTeam() {
+      @Override public List<AddResult> addPlayersWithResults(Collection<TeamMember> players) {
+        batches[0]++;
+        return super.addPlayersWithResults(players);
+      }
+    };
+    Map<String, Team> teams = new HashMap<>();
+    teams.put("T0", first);
+    RosterImporter.ImportSummary summary = new RosterImporter(
+        name -> teams.computeIfAbsent(name, n -> new SoccerTeam())).importFile(input, errors);
+
+    assertEquals(5 * teamCount, summary.getPlayersAdded());
+    // Four rows per team are buffered when the cap is reached, and the fifth at the end of the
+    // file.
+    assertEquals(2, batches[0]);
+    assertEquals(5, first.getAllPlayers().size());
+  }
+}
@@ -0,0 +1,187 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import team.JerseyNumberAllocator;
+import team.Position;
+import team.RosterJournal;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.Team;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link RosterJournal} class.
+ */
+public class RosterJournalTest {
+
+  /**
+   * Tests that teams are recovered with the same players, jersey numbers and starting lineups,
+   * both from the log alone and from a checkpoint followed by the log.
+   */
+  @Test
+  public void testRecovery() throws Exception {
+    Path directory = Files.createTempDirectory("journal");
+    Random random = new Random(5);
+    List<String> expected = new ArrayList<>();
+
+    try (RosterJournal journal = RosterJournal.open(directory, 0)) {
+      Team first = journal.createTeam("First", new SoccerTeam());
+      Team second = journal.createTeam("Second",
+          new SoccerTeam(8, 12, true, new JerseyNumberAllocator(20, 40)));
+      addRandomPlayers(first, random, 40);
+      addRandomPlayers(second, random, 40);
+      journal.checkpoint();
+      addRandomPlayers(first, random, 15);
+      addRandomPlayers(second, random, 15);
+      expected.add(describe(first));
+      expected.add(describe(second));
+    }
+
+    try (RosterJournal journal = RosterJournal.open(directory, 0)) {
+      assertEquals(List.of("First", "Second"), journal.getTeamNames());
+      assertEquals(expected.get(0), describe(journal.getTeam("First")));
+      assertEquals(expected.get(1), describe(journal.getTeam("Second")));
+      assertTrue(journal.getReplayedEvents() > 0);
+    }
+  }
+
+  /**
+   * Tests that a record torn by a crash is discarded and that the journal can be appended to again.
+   */
+  @Test
+  public void testTornRecord() throws Exception {
+    Path directory = Files.createTempDirectory("journal");
+    Random random = new Random(8);
+    String expected;
+
+    try (RosterJournal journal = RosterJournal.open(directory, 0)) {
+      Team team = journal.createTeam("Team", new SoccerTeam());
+      addRandomPlayers(team, random, 12);
+      expected = describe(team);
+      addRandomPlayers(team, random, 1);
+    }
+    Path log = directory.resolve("journal-0.log");
+    try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    try (RosterJournal journal = RosterJournal.open(directory, 0)) {
+      Team team = journal.getTeam("Team");
+      assertEquals(expected, describe(team));
+      addRandomPlayers(team, random, 1);
+      expected = describe(team);
+    }
+    try (RosterJournal journal = RosterJournal.open(directory, 0)) {
+      assertEquals(expected, describe(journal.getTeam("Team")));
+      assertEquals(0, journal.getSyncCount());
+    }
+  }
+
+  /**
+   * Tests that a failed automatic checkpoint does not fail the durable write that triggered it, and
+   * that the checkpoint is taken on a later write once the problem is gone.
+   */
+  @Test
+  public void testFailedCheckpointIsRetried() throws Exception {
+    Path directory = Files.createTempDirectory("journal");
+    Path blocked = directory.resolve("checkpoint-1.snapshot");
+    Random random = new Random(9);
+    String expected;
+
+    try (RosterJournal journal = RosterJournal.open(directory, 5)) {
+      Team team = journal.createTeam("Team", new SoccerTeam());
+      // A non-empty directory where the checkpoint goes cannot be replaced by the snapshot file.
+      Files.createDirectories(blocked.resolve("blocker"));
+      addRandomPlayers(team, random, 10);
+      assertNotNull(journal.getCheckpointFailure());
+
+      Files.delete(blocked.resolve("blocker"));
+      Files.delete(blocked);
+      addRandomPlayers(team, random, 1);
+      assertNull(journal.getCheckpointFailure());
+      assertTrue(Files.isRegularFile(blocked));
+      addRandomPlayers(team, random, 3);
+      expected = describe(team);
+    }
+
+    try (RosterJournal journal = RosterJournal.open(directory, 0)) {
+      assertEquals(expected, describe(journal.getTeam("Team")));
+    }
+  }
+
+  /**
+   * Tests that a player whose record cannot be written is not added: neither when the name does
+   * not fit a record, nor once the log has failed, including when the player would evict another.
+   */
+  @Test
+  public void testRosterIsUnchangedWhenRecordCannotBeWritten() throws Exception {
+    Path directory = Files.createTempDirectory("journal");
+    LocalDate birthDate = LocalDate.now().minusYears(8);
+    RosterJournal journal = RosterJournal.open(directory, 0);
+    Team team = journal.createTeam("Team", new SoccerTeam());
+    for (int i = 0; i < 20; i++) {
+      team.addPlayer(new TeamMember("P" + i, "Last" + i, birthDate, Position.values()[i % 4],
+          SkillLevel.LEVEL_1));
+    }
+
+    char[] longName = new char[70_000];
+    Arrays.fill(longName, 'x');
+    String before = describe(team);
+    try {
+      team.addPlayer(new TeamMember(new String(longName), "Long", birthDate, Position.GOALIE,
+          SkillLevel.LEVEL_5));
+      fail("A name that does not fit a record should be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertEquals(before, describe(team));
+    }
+
+    // Closing the log makes the next sync fail, which puts the journal into its failed state.
+    journal.close();
+    try {
+      team.addPlayer(new TeamMember("Fails", "Sync", birthDate, Position.GOALIE,
+          SkillLevel.LEVEL_2));
+      fail("The sync should have failed.");
+    } catch (UncheckedIOException e) {
+      // The change was made before the sync failed.
+    }
+    before = describe(team);
+    for (SkillLevel skill : new SkillLevel[] {SkillLevel.LEVEL_1, SkillLevel.LEVEL_5}) {
+      try {
+        team.addPlayer(new TeamMember("Not", "Added", birthDate, Position.GOALIE, skill));
+        fail("The failed journal should reject the player.");
+      } catch (UncheckedIOException e) {
+        assertEquals(before, describe(team));
+      }
+    }
+  }
+
+  private static void addRandomPlayers(Team team, Random random, int count) {
+    for (int i = 0; i < count; i++) {
+      team.addPlayer(new TeamMember("First" + random.nextInt(20), "Last" + random.nextInt(20),
+          LocalDate.now().minusDays(1000 + random.nextInt(2000)),
+          Position.values()[random.nextInt(4)], SkillLevel.values()[random.nextInt(5)]));
+    }
+  }
+
+  private static String describe(Team team) {
+    return team.getAllPlayers().stream()
+        .map(p -> p + ", " + p.getSkillLevel())
+        .collect(Collectors.joining("; "))
+        + " | " + team.getStartingLineup().stream().map(TeamMember::toString)
+        .collect(Collectors.joining("; "));
+  }
+}
@@ -0,0 +1,97 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import team.Formation;
+import team.JerseyNumberAllocator;
+import team.Position;
+import team.RosterSnapshotFile;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link RosterSnapshotFile} class.
+ */
+public class RosterSnapshotFileTest {
+
+  /**
+   * Tests that several teams written to a snapshot are restored with the same players, jersey
+   * numbers and starting lineups.
+   */
+  @Test
+  public void testRoundTrip() throws Exception {
+    Random random = new Random(3);
+    Map<String, SoccerTeam> teams = new LinkedHashMap<>();
+    for (int t = 0; t < 5; t++) {
+      SoccerTeam team = t == 4 ? new SoccerTeam(Formation.NINE_A_SIDE)
+          : t % 2 == 0 ? new SoccerTeam()
+          : new SoccerTeam(8, 30, true, new JerseyNumberAllocator(50, 99, t));
+      for (int i = 0; i < 10 + random.nextInt(30); i++) {
+        team.addPlayer(new TeamMember("First" + random.nextInt(20), "Last" + random.nextInt(20),
+            LocalDate.now().minusDays(1000 + random.nextInt(2000)),
+            Position.values()[random.nextInt(4)], SkillLevel.values()[random.nextInt(5)]));
+      }
+      teams.put("Team " + t, team);
+    }
+
+    Path file = Files.createTempFile("league", ".snapshot");
+    RosterSnapshotFile.write(file, teams);
+    Map<String, SoccerTeam> restored = RosterSnapshotFile.read(file);
+
+    assertEquals(teams.keySet(), restored.keySet());
+    for (String name : teams.keySet()) {
+      assertEquals(describe(teams.get(name).getAllPlayers()),
+          describe(restored.get(name).getAllPlayers()));
+      assertEquals(describe(teams.get(name).getStartingLineup()),
+          describe(restored.get(name).getStartingLineup()));
+      assertEquals(teams.get(name).getMaximumPlayers(), restored.get(name).getMaximumPlayers());
+      assertEquals(teams.get(name).getFormation(), restored.get(name).getFormation());
+    }
+  }
+
+  /**
+   * Tests that negative and oversized string and player counts are reported as a corrupt snapshot
+   * instead of sizing arrays from them.
+   */
+  @Test
+  public void testCorruptCountsAreRejected() throws Exception {
+    SoccerTeam team = new SoccerTeam();
+    team.addPlayer(new TeamMember("Ann", "Lee", LocalDate.now().minusYears(8), Position.GOALIE,
+        SkillLevel.LEVEL_3));
+    Path file = Files.createTempFile("team", ".snapshot");
+    RosterSnapshotFile.write(file, "Team", team);
+    byte[] valid = Files.readAllBytes(file);
+    int playerCountOffset = 20 + ByteBuffer.wrap(valid).getInt(16) + 17;
+
+    for (int offset : new int[] {12, playerCountOffset}) {
+      for (int count : new int[] {-1, Integer.MAX_VALUE}) {
+        byte[] corrupt = valid.clone();
+        ByteBuffer.wrap(corrupt).putInt(offset, count);
+        Files.write(file, corrupt);
+        try {
+          RosterSnapshotFile.read(file);
+          fail("A count of " + count + " at offset " + offset + " should be rejected.");
+        } catch (IOException e) {
+          assertTrue(e.getMessage(), e.getMessage().contains("count " + count));
+        }
+      }
+    }
+  }
+
+  private static List<String> describe(List<TeamMember> players) {
+    return players.stream().map(p -> p + ", " + p.getBirthDate() + ", " + p.getSkillLevel())
+        .collect(Collectors.toList());
+  }
+}
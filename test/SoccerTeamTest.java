@@ -1,14 +1,27 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
+import team.Formation;
+import team.JerseyNumberAllocator;
+import team.OptimalLineup;
 import team.Position;
+import team.RosterSnapshot;
 import team.SkillLevel;
 import team.SoccerTeam;
 import team.Team;
@@ -309,18 +322,450 @@ public class SoccerTeamTest {
   }
 
   /**
-   * Tests the {@link TeamMember#getAge()} method with an invalid date-of-birth string. Ensures that
-   * the method returns -1 when encountering a ParseException.
+   * Tests that creating a {@link TeamMember} with an invalid date-of-birth string is rejected with
+   * an IllegalArgumentException instead of producing an age of -1 later.
    */
-  @Test
+  @Test(expected = IllegalArgumentException.class)
   public void testGetAgeParseException() {
-    TeamMember player1 = new TeamMember("John", "Doe", "invalid-date-format", Position.DEFENDER,
+    new TeamMember("John", "Doe", "invalid-date-format", Position.DEFENDER, SkillLevel.LEVEL_3);
+  }
+
+  /**
+   * Tests the {@link TeamMember#getAge(LocalDate)} method around a birthday, using an explicit
+   * as-of date.
+   */
+  @Test
+  public void testGetAgeAsOfDate() {
+    TeamMember player = new TeamMember("John", "Doe", "2015-03-20", Position.DEFENDER,
         SkillLevel.LEVEL_3);
 
-    int actualAgePlayer1 = player1.getAge();
-    assertEquals(-1, actualAgePlayer1);
+    assertEquals(8, player.getAge(LocalDate.of(2024, 3, 19)));
+    assertEquals(9, player.getAge(LocalDate.of(2024, 3, 20)));
+    assertEquals(LocalDate.of(2015, 3, 20), player.getBirthDate());
+  }
+
+  /**
+   * Tests that the incremental lineup mode selects exactly the same starting lineup, with the same
+   * actual positions, as the greedy selection for randomly generated rosters, including rosters
+   * that go through evictions once they are full.
+   */
+  @Test
+  public void testIncrementalLineupMatchesGreedySelection() {
+    Random random = new Random(42);
+    String[] lastNames = {"Adams", "Brown", "Clark", "Doe", "Evans"};
+
+    for (int round = 0; round < 200; round++) {
+      Team greedy = new SoccerTeam();
+      Team incremental = new SoccerTeam(true);
+      int count = 10 + random.nextInt(30);
+
+      for (int i = 0; i < count; i++) {
+        Position position = Position.values()[random.nextInt(Position.values().length)];
+        SkillLevel skill = SkillLevel.values()[random.nextInt(SkillLevel.values().length)];
+        String lastName = lastNames[random.nextInt(lastNames.length)];
+        String dateOfBirth = LocalDate.now().minusYears(7).toString();
+
+        assertEquals(
+            greedy.addPlayer(new TeamMember("P" + i, lastName, dateOfBirth, position, skill)),
+            incremental.addPlayer(new TeamMember("P" + i, lastName, dateOfBirth, position, skill)));
+        if (i >= 9) {
+          assertEquals(describeLineup(greedy), describeLineup(incremental));
+        }
+      }
+    }
+  }
+
+  /**
+   * Describes the starting lineup of a team as a list of "first name:actual position" entries.
+   *
+   * @param team the team whose lineup is described
+   * @return the lineup description, in lineup order
+   */
+  private static List<String> describeLineup(Team team) {
+    return team.getStartingLineup().stream()
+        .map(player -> player.getFirstName() + ":" + player.getActualPosition())
+        .collect(Collectors.toList());
   }
-}
 
+  /**
+   * Tests that teams built with equally seeded jersey allocators hand out the same jersey numbers,
+   * and that numbers stay unique as evictions release them back to the allocator.
+   */
+  @Test
+  public void testSeededJerseyNumbersAreReproducibleAndUnique() {
+    Team first = new SoccerTeam(false, new JerseyNumberAllocator(1, 20, 7L));
+    Team second = new SoccerTeam(false, new JerseyNumberAllocator(1, 20, 7L));
+    String dateOfBirth = LocalDate.now().minusYears(8).toString();
+
+    for (int i = 0; i < 40; i++) {
+      SkillLevel skill = SkillLevel.values()[i % SkillLevel.values().length];
+      first.addPlayer(new TeamMember("P" + i, "Last" + i, dateOfBirth, Position.DEFENDER, skill));
+      second.addPlayer(new TeamMember("P" + i, "Last" + i, dateOfBirth, Position.DEFENDER, skill));
+    }
 
+    List<Integer> numbers = first.getAllPlayers().stream().map(TeamMember::getJerseyNumber)
+        .collect(Collectors.toList());
+    assertEquals(numbers, second.getAllPlayers().stream().map(TeamMember::getJerseyNumber)
+        .collect(Collectors.toList()));
+    assertEquals(20, numbers.stream().distinct().count());
+  }
 
+  /**
+   * Tests that the jersey allocator releases and re-allocates numbers within its range.
+   */
+  @Test
+  public void testJerseyNumberAllocatorReleasesNumbers() {
+    JerseyNumberAllocator allocator = new JerseyNumberAllocator(30, 32, 1L);
+    int a = allocator.allocate();
+    int b = allocator.allocate();
+    int c = allocator.allocate();
+    assertEquals(0, allocator.available());
+    assertEquals(3, Arrays.asList(a, b, c).stream().distinct().count());
+
+    allocator.release(b);
+    assertEquals(b, allocator.allocate());
+    assertTrue(allocator.isAllocated(a) && allocator.isAllocated(c));
+  }
+
+  /**
+   * Tests that a team with custom roster caps evicts its weakest player, ordered by skill level,
+   * then position, then last name, when a stronger player joins a full roster.
+   */
+  @Test
+  public void testCustomRosterCapsEvictWeakestPlayer() {
+    Map<Position, Integer> slots = new EnumMap<>(Position.class);
+    slots.put(Position.GOALIE, 1);
+    slots.put(Position.FORWARD, 1);
+    Team team = new SoccerTeam(new Formation("2-a-side", slots, 2, 4));
+    String dateOfBirth = LocalDate.now().minusYears(7).toString();
+
+    assertEquals("You need at least 2 players to create a team. "
+            + "Player added, but team not created yet.",
+        team.addPlayer(new TeamMember("A", "Young", dateOfBirth, Position.FORWARD,
+            SkillLevel.LEVEL_1)));
+    team.addPlayer(new TeamMember("B", "Zane", dateOfBirth, Position.DEFENDER, SkillLevel.LEVEL_1));
+    team.addPlayer(new TeamMember("C", "Adams", dateOfBirth, Position.FORWARD, SkillLevel.LEVEL_1));
+    team.addPlayer(new TeamMember("D", "Baker", dateOfBirth, Position.GOALIE, SkillLevel.LEVEL_2));
+
+    assertEquals("The team already has 4 players with higher or equal skill level.",
+        team.addPlayer(new TeamMember("E", "Cole", dateOfBirth, Position.GOALIE,
+            SkillLevel.LEVEL_1)));
+    assertEquals("Player added successfully.",
+        team.addPlayer(new TeamMember("F", "Diaz", dateOfBirth, Position.GOALIE,
+            SkillLevel.LEVEL_3)));
+
+    List<String> lastNames = team.getAllPlayers().stream().map(TeamMember::getLastName)
+        .collect(Collectors.toList());
+    assertEquals(Arrays.asList("Adams", "Baker", "Diaz", "Young"), lastNames);
+  }
+
+  /**
+   * Tests that adding players in one batch gives the same result messages, roster and starting
+   * lineup as adding the same players one at a time.
+   */
+  @Test
+  public void testAddPlayersMatchesSequentialAdds() {
+    Random random = new Random(5);
+    Team sequential = new SoccerTeam();
+    Team batch = new SoccerTeam();
+    List<String> expectedMessages = new ArrayList<>();
+    List<TeamMember> newPlayers = new ArrayList<>();
+
+    for (int i = 0; i < 30; i++) {
+      Position position = Position.values()[random.nextInt(Position.values().length)];
+      SkillLevel skill = SkillLevel.values()[random.nextInt(SkillLevel.values().length)];
+      String dateOfBirth = LocalDate.now().minusYears(5 + random.nextInt(7)).toString();
+      expectedMessages.add(sequential.addPlayer(
+          new TeamMember("P" + i, "Last" + i, dateOfBirth, position, skill)));
+      newPlayers.add(new TeamMember("P" + i, "Last" + i, dateOfBirth, position, skill));
+    }
+
+    assertEquals(expectedMessages, batch.addPlayers(newPlayers));
+    assertEquals(
+        sequential.getAllPlayers().stream().map(TeamMember::getFullName)
+            .collect(Collectors.toList()),
+        batch.getAllPlayers().stream().map(TeamMember::getFullName).collect(Collectors.toList()));
+    assertEquals(describeLineup(sequential), describeLineup(batch));
+  }
+
+  /**
+   * Tests that a batch that fails partway keeps the players added before the failure and still
+   * selects the starting lineup for them, and that a batch containing null adds nobody.
+   */
+  @Test
+  public void testAddPlayersFailingMidBatch() {
+    SoccerTeam team = new SoccerTeam();
+    LocalDate birthDate = LocalDate.now().minusYears(8);
+    List<TeamMember> newPlayers = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      newPlayers.add(new TeamMember("P" + i, "Last" + i, birthDate, Position.values()[i % 4],
+          SkillLevel.LEVEL_3));
+    }
+    newPlayers.add(new TeamMember("Bad", "Player", birthDate, Position.GOALIE, SkillLevel.LEVEL_3) {
+      @Override public int getAge() {
+        throw new IllegalStateException("Age unavailable.");
+      }
+    });
+    try {
+      team.addPlayers(newPlayers);
+      fail("The batch should have failed.");
+    } catch (IllegalStateException e) {
+      assertEquals("Age unavailable.", e.getMessage());
+    }
+    assertEquals(10, team.getAllPlayers().size());
+    assertEquals(7, team.getStartingLineup().size());
+
+    SoccerTeam empty = new SoccerTeam();
+    try {
+      empty.addPlayers(Arrays.asList(newPlayers.get(0), null));
+      fail("A batch with null should be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertTrue(empty.getAllPlayers().isEmpty());
+    }
+  }
+
+  /**
+   * Tests that reads return the same published snapshot until the roster changes, and that the
+   * snapshot version only moves when a player is actually added.
+   */
+  @Test
+  public void testSnapshotVersioning() {
+    String dateOfBirth = LocalDate.now().minusYears(7).toString();
+    for (int i = 0; i < 10; i++) {
+      soccerTeam.addPlayer(new TeamMember("P" + i, "Last" + i, dateOfBirth, Position.DEFENDER,
+          SkillLevel.LEVEL_2));
+    }
+    RosterSnapshot snapshot = soccerTeam.getSnapshot();
+    long version = snapshot.getVersion();
+
+    assertSame(soccerTeam.getAllPlayers(), soccerTeam.getAllPlayers());
+    assertFalse(soccerTeam.hasChangedSince(version));
+
+    soccerTeam.addPlayer(new TeamMember("Old", "Player", "2000-01-01", Position.GOALIE,
+        SkillLevel.LEVEL_5));
+    assertFalse(soccerTeam.hasChangedSince(version));
+    assertSame(snapshot, soccerTeam.getSnapshot());
+
+    soccerTeam.addPlayer(new TeamMember("New", "Player", dateOfBirth, Position.GOALIE,
+        SkillLevel.LEVEL_5));
+    assertTrue(soccerTeam.hasChangedSince(version));
+    assertEquals(11, soccerTeam.getAllPlayers().size());
+    assertEquals(10, snapshot.getAllPlayers().size());
+  }
+
+  /**
+   * Tests that the jersey number, position, skill level and last name lookups return the same
+   * players as scanning the roster, after enough adds that weaker players have been evicted.
+   */
+  @Test
+  public void testIndexedLookupsMatchRosterScans() {
+    Random random = new Random(11);
+    List<TeamMember> newPlayers = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      newPlayers.add(new TeamMember("P" + i, (i % 3 == 0 ? "Mac" : "Mc") + i,
+          LocalDate.now().minusYears(5 + random.nextInt(4)).toString(),
+          Position.values()[random.nextInt(Position.values().length)],
+          SkillLevel.values()[random.nextInt(SkillLevel.values().length)]));
+    }
+    soccerTeam.addPlayers(newPlayers);
+    List<TeamMember> all = soccerTeam.getAllPlayers();
+    assertEquals(20, all.size());
+
+    for (int number = 0; number <= 21; number++) {
+      TeamMember expected = null;
+      for (TeamMember player : all) {
+        if (player.getJerseyNumber() == number) {
+          expected = player;
+        }
+      }
+      assertSame(expected, soccerTeam.getPlayerByJerseyNumber(number));
+    }
+    for (Position position : Position.values()) {
+      assertEquals(all.stream().filter(p -> p.getPreferredPosition() == position)
+          .collect(Collectors.toList()), soccerTeam.getPlayersByPosition(position));
+      for (SkillLevel skill : SkillLevel.values()) {
+        assertEquals(all.stream().filter(p -> p.getPreferredPosition() == position
+                && p.getSkillLevel() == skill).collect(Collectors.toList()),
+            soccerTeam.getPlayers(position, skill));
+      }
+    }
+    for (SkillLevel skill : SkillLevel.values()) {
+      assertEquals(all.stream().filter(p -> p.getSkillLevel() == skill)
+          .collect(Collectors.toList()), soccerTeam.getPlayersBySkillLevel(skill));
+    }
+    for (String prefix : Arrays.asList("", "M", "Mac", "Mc", "Mc1", "Z")) {
+      assertEquals(all.stream().filter(p -> p.getLastName().startsWith(prefix))
+          .collect(Collectors.toList()), soccerTeam.findPlayersByLastName(prefix));
+    }
+    assertNull(soccerTeam.getPlayerByJerseyNumber(-1));
+  }
+
+  /**
+   * Tests that adding a player who is already on the team is rejected without taking a second
+   * jersey number, so a full roster can still take and evict players afterwards.
+   */
+  @Test
+  public void testAddSamePlayerTwice() {
+    String dateOfBirth = LocalDate.now().minusYears(8).toString();
+    TeamMember player = new TeamMember("Same", "Player", dateOfBirth, Position.GOALIE,
+        SkillLevel.LEVEL_1);
+    soccerTeam.addPlayer(player);
+    int jerseyNumber = player.getJerseyNumber();
+    assertEquals("Player not added. The player is already on the team.",
+        soccerTeam.addPlayer(player));
+    assertEquals(jerseyNumber, player.getJerseyNumber());
+    assertEquals(1, soccerTeam.getAllPlayers().size());
+
+    for (int i = 0; i < 30; i++) {
+      soccerTeam.addPlayer(new TeamMember("P" + i, "Last" + i, dateOfBirth, Position.FORWARD,
+          SkillLevel.values()[1 + i % 4]));
+    }
+    assertEquals(20, soccerTeam.getAllPlayers().size());
+  }
+
+  /**
+   * Tests that an 11-a-side team scales its roster caps and fills a 1-4-4-2 lineup, in both lineup
+   * modes.
+   */
+  @Test
+  public void testElevenASideFormation() {
+    Random random = new Random(11);
+    Formation formation = Formation.ELEVEN_A_SIDE;
+    Team greedy = new SoccerTeam(formation);
+    Team incremental = new SoccerTeam(formation, formation.getMinimumPlayers(),
+        formation.getMaximumPlayers(), true, new JerseyNumberAllocator(1, 99));
+    String dateOfBirth = LocalDate.now().minusYears(8).toString();
+
+    for (int i = 0; i < 50; i++) {
+      Position position = Position.values()[random.nextInt(Position.values().length)];
+      SkillLevel skill = SkillLevel.values()[random.nextInt(SkillLevel.values().length)];
+      String message = greedy.addPlayer(
+          new TeamMember("P" + i, "Last" + i, dateOfBirth, position, skill));
+      assertEquals(message, incremental.addPlayer(
+          new TeamMember("P" + i, "Last" + i, dateOfBirth, position, skill)));
+      if (i == 0) {
+        assertEquals("You need at least 16 players to create a team. "
+            + "Player added, but team not created yet.", message);
+      }
+    }
+
+    assertEquals(32, greedy.getAllPlayers().size());
+    assertEquals(describeLineup(greedy), describeLineup(incremental));
+    List<TeamMember> lineup = greedy.getStartingLineup();
+    assertEquals(11, lineup.size());
+    for (Position position : Position.values()) {
+      assertEquals(formation.getSlots(position),
+          lineup.stream().filter(p -> p.getActualPosition() == position).count());
+    }
+  }
+
+  /**
+   * Tests that a team cannot be formed with fewer players than its formation starts.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMinimumBelowLineupSizeIsRejected() {
+    new SoccerTeam(Formation.ELEVEN_A_SIDE, 5, 20, false, new JerseyNumberAllocator(1, 20));
+  }
+
+  /**
+   * Tests that the optimal lineup starts strong players out of position instead of benching them
+   * behind weaker players who prefer the position, which the greedy selection does.
+   */
+  @Test
+  public void testOptimalLineupStartsStrongPlayersOutOfPosition() {
+    SoccerTeam team = new SoccerTeam();
+    String dateOfBirth = LocalDate.now().minusYears(8).toString();
+    for (int i = 0; i < 3; i++) {
+      team.addPlayer(new TeamMember("Keeper" + i, "Strong", dateOfBirth, Position.GOALIE,
+          SkillLevel.LEVEL_5));
+    }
+    for (Position position : Position.values()) {
+      for (int i = 0; i < position.getMaxPlayers(); i++) {
+        team.addPlayer(new TeamMember("Field" + i, position.name(), dateOfBirth, position,
+            SkillLevel.LEVEL_1));
+      }
+    }
+    OptimalLineup optimal = new OptimalLineup();
+    assertEquals(11, totalValue(team.getStartingLineup(), optimal));
+
+    long version = team.getSnapshot().getVersion();
+    team.setLineupStrategy(optimal);
+    assertTrue(team.hasChangedSince(version));
+    assertEquals(17, totalValue(team.getStartingLineup(), optimal));
+    assertEquals(3, team.getStartingLineup().stream()
+        .filter(player -> player.getLastName().equals("Strong")).count());
+  }
+
+  /**
+   * Tests that the optimal lineup reaches the best total found by trying every assignment for
+   * small rosters, and is never worse than the greedy lineup for 11-a-side squads.
+   */
+  @Test
+  public void testOptimalLineupIsOptimal() {
+    Random random = new Random(13);
+    OptimalLineup optimal = new OptimalLineup(2);
+    Map<Position, Integer> slots = new EnumMap<>(Position.class);
+    slots.put(Position.GOALIE, 1);
+    slots.put(Position.DEFENDER, 2);
+    slots.put(Position.FORWARD, 1);
+    Formation small = new Formation("small", slots, 4, 7);
+    String dateOfBirth = LocalDate.now().minusYears(8).toString();
+
+    for (int round = 0; round < 100; round++) {
+      SoccerTeam smallTeam = new SoccerTeam(small);
+      smallTeam.setLineupStrategy(optimal);
+      SoccerTeam greedy = new SoccerTeam(Formation.ELEVEN_A_SIDE, 16, 40, false,
+          new JerseyNumberAllocator(1, 40));
+      SoccerTeam solved = new SoccerTeam(Formation.ELEVEN_A_SIDE, 16, 40, false,
+          new JerseyNumberAllocator(1, 40));
+      solved.setLineupStrategy(optimal);
+
+      for (int i = 0; i < 40; i++) {
+        Position position = Position.values()[random.nextInt(Position.values().length)];
+        SkillLevel skill = SkillLevel.values()[random.nextInt(SkillLevel.values().length)];
+        if (i < 4 + round % 4) {
+          smallTeam.addPlayer(new TeamMember("P" + i, "Last" + i, dateOfBirth, position, skill));
+        }
+        greedy.addPlayer(new TeamMember("P" + i, "Last" + i, dateOfBirth, position, skill));
+        solved.addPlayer(new TeamMember("P" + i, "Last" + i, dateOfBirth, position, skill));
+      }
+
+      Position[] open = {Position.GOALIE, Position.DEFENDER, Position.DEFENDER, Position.FORWARD};
+      assertEquals(bestTotal(smallTeam.getAllPlayers(), open, 0, new boolean[7], optimal),
+          totalValue(smallTeam.getStartingLineup(), optimal));
+      assertTrue(totalValue(solved.getStartingLineup(), optimal)
+          >= totalValue(greedy.getStartingLineup(), optimal));
+      assertEquals(11, solved.getStartingLineup().size());
+    }
+  }
+
+  private static int totalValue(List<TeamMember> lineup, OptimalLineup strategy) {
+    return lineup.stream().mapToInt(p -> strategy.valueOf(p, p.getActualPosition())).sum();
+  }
+
+  /**
+   * Finds the best total value of the given slots by trying every assignment of players to them.
+   * Slots are only left open when there are fewer players than slots.
+   */
+  private static int bestTotal(List<TeamMember> players, Position[] slots, int slot,
+      boolean[] used, OptimalLineup strategy) {
+    if (slot == slots.length) {
+      return 0;
+    }
+    int unused = 0;
+    for (int i = 0; i < players.size(); i++) {
+      unused += used[i] ? 0 : 1;
+    }
+    int best = slots.length - slot > unused
+        ? bestTotal(players, slots, slot + 1, used, strategy) : Integer.MIN_VALUE;
+    for (int i = 0; i < players.size(); i++) {
+      if (!used[i]) {
+        used[i] = true;
+        best = Math.max(best, strategy.valueOf(players.get(i), slots[slot])
+            + bestTotal(players, slots, slot + 1, used, strategy));
+        used[i] = false;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,113 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import team.Position;
+import team.RosterSnapshot;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.TeamCommandQueue;
+import team.TeamMember;
+
+/**
+ * Unit tests for the {@link TeamCommandQueue} class.
+ */
+public class TeamCommandQueueTest {
+
+  /**
+   * Tests that players submitted while the writer is busy are applied as one batch, that a
+   * snapshot read sees every player submitted before it, and that the listener receives every
+   * result message.
+   */
+  @Test
+  public void testBurstIsAppliedAsOneBatch() throws Exception {
+    CountDownLatch firstDelivery = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> delivered = new ArrayList<>();
+    // The delivery executor runs on the writer thread and blocks it after the first batch.
+    TeamCommandQueue queue = new TeamCommandQueue(new SoccerTeam(), task -> {
+      firstDelivery.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      task.run();
+    }, (snapshot, players, messages) -> {
+      assertEquals(players.size(), messages.size());
+      delivered.addAll(messages);
+    });
+
+    LocalDate birthDate = LocalDate.now().minusYears(8);
+    List<CompletableFuture<String>> results = new ArrayList<>();
+    results.add(queue.addPlayer(newPlayer(0, birthDate)));
+    assertTrue(firstDelivery.await(5, TimeUnit.SECONDS));
+    for (int i = 1; i < 15; i++) {
+      results.add(queue.addPlayer(newPlayer(i, birthDate)));
+    }
+    CompletableFuture<RosterSnapshot> snapshot = queue.snapshot();
+    assertEquals(15, queue.getQueueDepth());
+    release.countDown();
+
+    assertEquals(15, snapshot.get(5, TimeUnit.SECONDS).getAllPlayers().size());
+    for (CompletableFuture<String> result : results.subList(9, 15)) {
+      assertEquals("Player added successfully.", result.get());
+    }
+    assertEquals(2, queue.getBatches());
+    assertEquals(16, queue.getCompletedCommands());
+    assertEquals(15, delivered.size());
+    assertTrue(queue.getMaxLatencyNanos() >= queue.getMeanLatencyNanos());
+    queue.close();
+  }
+
+  /**
+   * Tests that a command that fails completes its own future exceptionally and that the writer
+   * keeps applying the commands after it, even when the listener fails too.
+   */
+  @Test
+  public void testFailedCommandDoesNotStopWriter() throws Exception {
+    int[] snapshotsTaken = {0};
+    SoccerTeam team = new SoccerTeam() {
+      @Override public RosterSnapshot getSnapshot() {
+        // The first read fails; the reads after each batch of additions start with the second.
+        if (snapshotsTaken[0]++ == 0) {
+          throw new IllegalStateException("Snapshot failed.");
+        }
+        return super.getSnapshot();
+      }
+    };
+    TeamCommandQueue queue = new TeamCommandQueue(team, Runnable::run,
+        (snapshot, players, messages) -> {
+          throw new IllegalStateException("Listener failed.");
+        });
+    LocalDate birthDate = LocalDate.now().minusYears(8);
+
+    CompletableFuture<RosterSnapshot> failed = queue.snapshot();
+    try {
+      failed.get(5, TimeUnit.SECONDS);
+      fail("The snapshot read should have failed.");
+    } catch (ExecutionException e) {
+      assertEquals("Snapshot failed.", e.getCause().getMessage());
+    }
+    assertTrue(queue.addPlayer(newPlayer(0, birthDate)).get(5, TimeUnit.SECONDS)
+        .contains("Player added"));
+    assertTrue(queue.addPlayer(newPlayer(1, birthDate)).get(5, TimeUnit.SECONDS)
+        .contains("Player added"));
+    assertEquals(2, queue.snapshot().get(5, TimeUnit.SECONDS).getAllPlayers().size());
+    assertEquals(4, queue.getCompletedCommands());
+    queue.close();
+  }
+
+  private static TeamMember newPlayer(int i, LocalDate birthDate) {
+    return new TeamMember("P" + i, "Last" + i, birthDate, Position.values()[i % 4],
+        SkillLevel.LEVEL_3);
+  }
+}
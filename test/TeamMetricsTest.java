@@ -0,0 +1,104 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.Test;
+import team.ConcurrentSoccerTeam;
+import team.Formation;
+import team.League;
+import team.Position;
+import team.SkillLevel;
+import team.SoccerTeam;
+import team.TeamMember;
+import team.TeamMetrics;
+import team.TeamMetricsMXBean;
+
+/**
+ * Unit tests for the {@link TeamMetrics} class and the league-wide metrics of {@link League}.
+ */
+public class TeamMetricsTest {
+
+  /**
+   * Tests that every outcome of adding a player is counted once and that the operations that ran
+   * are timed.
+   */
+  @Test
+  public void testOutcomesAndLatencies() {
+    Map<Position, Integer> slots = new EnumMap<>(Position.class);
+    slots.put(Position.GOALIE, 1);
+    slots.put(Position.FORWARD, 1);
+    SoccerTeam team = new SoccerTeam(new Formation("2-a-side", slots, 2, 3));
+    TeamMetrics metrics = new TeamMetrics();
+    team.setMetrics(metrics);
+    LocalDate young = LocalDate.now().minusYears(8);
+
+    team.addPlayer(new TeamMember("A", "A", young, Position.GOALIE, SkillLevel.LEVEL_2));
+    team.addPlayer(new TeamMember("B", "B", young, Position.DEFENDER, SkillLevel.LEVEL_2));
+    team.addPlayer(new TeamMember("C", "C", young, Position.FORWARD, SkillLevel.LEVEL_2));
+    team.addPlayer(new TeamMember("D", "D", young, Position.FORWARD, SkillLevel.LEVEL_1));
+    team.addPlayer(new TeamMember("E", "E", young, Position.FORWARD, SkillLevel.LEVEL_5));
+    team.addPlayer(new TeamMember("F", "F", LocalDate.now().minusYears(12), Position.GOALIE,
+        SkillLevel.LEVEL_5));
+    team.getAllPlayers();
+
+    assertEquals(4, metrics.getPlayersAdded());
+    assertEquals(1, metrics.getPlayersRejectedForAge());
+    assertEquals(1, metrics.getPlayersRejectedForFullRoster());
+    assertEquals(1, metrics.getPlayersEvicted());
+    assertEquals(6, metrics.getAddPlayerLatency().getCount());
+    assertEquals(0, metrics.getAddPlayersLatency().getCount());
+    assertEquals(1, metrics.getEvictionLatency().getCount());
+    // The lineup is selected after the second, third and fifth adds changed a formed roster.
+    assertEquals(3, metrics.getLineupSelectionLatency().getCount());
+    assertEquals(1, metrics.getGetAllPlayersLatency().getCount());
+    assertTrue(metrics.getAddPlayerLatency().getP99Nanos()
+        <= metrics.getAddPlayerLatency().getMaxNanos());
+
+    metrics.reset();
+    assertEquals(0, metrics.getPlayersAdded());
+    assertEquals(0, metrics.getAddPlayerLatency().getCount());
+  }
+
+  /**
+   * Tests that the league-wide metrics combine the metrics of every team, including teams
+   * registered after metrics were enabled, and that they can be read over JMX.
+   */
+  @Test
+  public void testLeagueMetricsOverJmx() throws Exception {
+    League league = new League();
+    ConcurrentSoccerTeam before = league.registerTeam("Before", new SoccerTeam());
+    league.enableMetrics();
+    ConcurrentSoccerTeam after = league.registerTeam("After", new SoccerTeam());
+    LocalDate young = LocalDate.now().minusYears(8);
+    for (int i = 0; i < 3; i++) {
+      before.addPlayer(new TeamMember("B" + i, "B", young, Position.GOALIE, SkillLevel.LEVEL_1));
+      after.addPlayer(new TeamMember("A" + i, "A", young, Position.GOALIE, SkillLevel.LEVEL_1));
+    }
+
+    TeamMetricsMXBean metrics = league.getMetrics();
+    assertEquals(6, metrics.getPlayersAdded());
+    assertEquals(6, metrics.getAddPlayerLatency().getCount());
+    assertEquals(6, metrics.getLockWaitLatency().getCount());
+    assertEquals(3, after.getMetrics().getPlayersAdded());
+
+    ObjectName name = TeamMetrics.register(metrics, "TeamMetricsTest");
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      assertEquals(6L, server.getAttribute(name, "PlayersAdded"));
+      CompositeData latency = (CompositeData) server.getAttribute(name, "AddPlayerLatency");
+      assertEquals(6L, latency.get("count"));
+      server.invoke(name, "reset", new Object[0], new String[0]);
+      assertEquals(0L, server.getAttribute(name, "PlayersAdded"));
+    } finally {
+      assertTrue(TeamMetrics.unregister("TeamMetricsTest"));
+    }
+    assertFalse(TeamMetrics.unregister("TeamMetricsTest"));
+  }
+}